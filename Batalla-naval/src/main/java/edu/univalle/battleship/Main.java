@@ -1,5 +1,7 @@
 package edu.univalle.battleship;
 
+import edu.univalle.battleship.view.SceneCache;
+import edu.univalle.battleship.view.SpriteCache;
 import edu.univalle.battleship.view.StartStage;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -20,7 +22,10 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
+        SpriteCache.getInstance().preload();
         StartStage.getInstance();
+        SceneCache.getInstance().preload(SceneCache.POSITION_VIEW);
+        SceneCache.getInstance().preload(SceneCache.ENEMY_VIEW);
     }
 
 }
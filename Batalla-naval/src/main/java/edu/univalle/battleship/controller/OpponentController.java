@@ -2,19 +2,28 @@ package edu.univalle.battleship.controller;
 
 import edu.univalle.battleship.model.*;
 import edu.univalle.battleship.model.planeTextFiles.PlaneTextFileHandler;
-import javafx.animation.PauseTransition;
+import edu.univalle.battleship.model.replay.ReplayMove;
+import edu.univalle.battleship.view.CanvasBoardView;
+import edu.univalle.battleship.view.SpriteCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
-import javafx.util.Duration;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for the opponent board.
@@ -24,6 +33,20 @@ import javafx.util.Duration;
  */
 public class OpponentController {
 
+    /** Delay before each machine shot, in milliseconds. */
+    private static final long MACHINE_DELAY_MS = 700;
+
+    /**
+     * Runs the machine's turns and the autosaves off the JavaFX application thread.
+     * A single thread keeps the machine's shots and the saves in order.
+     */
+    private static final ScheduledExecutorService MACHINE_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "machine-turn");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     @FXML
     private GridPane opponentBoard;
 
@@ -38,27 +61,79 @@ public class OpponentController {
 
     private int numberOfSunkenShips = 0;
 
+    /** Direct index of the opponent board cells, rebuilt with the board. */
+    private StackPane[][] cellNodes;
+
+    /** Canvas view used instead of the grid on large boards, or null. */
+    private CanvasBoardView canvasView;
+
+    /** Smallest change of a cell that makes the heatmap be redrawn. */
+    private static final float HEAT_THRESHOLD = 0.05f;
+
+    /** Opacity of the heat overlay on the most likely cell. */
+    private static final double HEAT_OPACITY = 0.6;
+
+    /** Computes the probability heatmap, away from both the FX thread and the machine's turns. */
+    private static final ExecutorService HEATMAP_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "heatmap");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Whether the heatmap overlay is shown. Only used on the FX thread. */
+    private boolean heatmapVisible;
+
+    /** Heat overlay of each grid cell, created the first time the heatmap is shown. */
+    private Region[][] heatNodes;
+
+    /** Probability map of the machine's board. Only used on the heatmap thread. */
+    private ProbabilityMap heatmap;
+
+    /** Last values sent to the view. Only used on the heatmap thread. */
+    private float[] shownHeat;
+
+    /** Patches a single cell whenever the machine's board changes. */
+    private final Board.CellListener boardListener = (row, col, oldStatus, newStatus) -> patchCell(row, col, newStatus);
+
     private PlaneTextFileHandler planeTextFileHandler;
 
+    /** The pending machine shot, or null when it is not the machine's turn. */
+    private volatile Future<?> machineTask;
+
+    /** Set when the window is closed, so a pending machine shot is dropped. */
+    private volatile boolean cancelled;
+
     /**
      * JavaFX initialization method.
-     * Initializes the human and machine players, sets up the opponent board, and listens for key events.
+     * Sets up the opponent board and listens for key events.
+     * <p>
+     * The view may be loaded in the background before a game exists, so the
+     * players are only attached later through {@link #setPlayers}.
      */
     @FXML
     public void initialize() {
-        GameManager gm = GameManager.getInstance();
-        this.human = gm.getHuman();
-        this.machine = gm.getMachine();
-
         planeTextFileHandler = new PlaneTextFileHandler();
 
-        createBoard();
+        if (CanvasBoardView.isPreferredFor(Board.SIZE)) {
+            canvasView = new CanvasBoardView(new Board(), false);
+            canvasView.setOnCellClicked(this::handleShot);
+            root.setCenter(canvasView);
+        } else {
+            createBoard();
+        }
 
-        opponentBoard.sceneProperty().addListener((obs, oldScene, newScene) -> {
+        root.sceneProperty().addListener((obs, oldScene, newScene) -> {
             if (newScene != null) {
+                // La ventana se reutiliza entre partidas; el último controlador se queda con el evento
+                if (newScene.getWindow() != null) newScene.getWindow().setOnHidden(e -> handleWindowHidden());
+                newScene.windowProperty().addListener((o, oldWindow, window) -> {
+                    if (window != null) window.setOnHidden(e -> handleWindowHidden());
+                });
                 newScene.setOnKeyPressed(event -> {
                     if (event.getCode() == KeyCode.V) {
                         revealShips();
+                    } else if (event.getCode() == KeyCode.H) {
+                        toggleHeatmap();
                     }
                 });
             }
@@ -69,6 +144,10 @@ public class OpponentController {
      * Reveals all machine ships on the board, for debugging or cheat purposes.
      */
     private void revealShips() {
+        if (canvasView != null) {
+            canvasView.setShowShips(true);
+            return;
+        }
         for (Ship ship : machine.getFleet()) {
             String imgName =
                     ship.getName().toLowerCase().contains("carrier") ? "carrier.png" :
@@ -82,7 +161,8 @@ public class OpponentController {
             boolean horizontal = positions.length > 1 && positions[0][0] == positions[1][0];
             int shipSize = positions.length;
 
-            Image img = new Image(getClass().getResourceAsStream("/edu/univalle/battleship/images/" + imgName));
+            Image img = SpriteCache.getInstance().get(SpriteCache.IMAGE_DIR + imgName);
+            if (img == null) continue;
             ImageView shipView = new ImageView(img);
             shipView.setMouseTransparent(true);
 
@@ -111,6 +191,7 @@ public class OpponentController {
      */
     private void createBoard() {
         int size = Board.SIZE;
+        cellNodes = new StackPane[size][size];
 
         for (int row = 0; row < size; row++) {
             for (int col = 0; col < size; col++) {
@@ -119,24 +200,25 @@ public class OpponentController {
                 cell.setStyle("-fx-border-color: white; -fx-background-color: #87CEFA;");
                 final int r = row;
                 final int c = col;
-                cell.setOnMouseClicked(event -> handleShot(r, c, cell));
+                cell.setOnMouseClicked(event -> handleShot(r, c));
                 opponentBoard.add(cell, col, row);
+                cellNodes[row][col] = cell;
             }
         }
     }
 
     /**
      * Handles a shot by the human player on a given cell.
-     * Updates the board array, adds images, and triggers machine turn if necessary.
+     * The board notifies the changed cells, which are redrawn by {@link #patchCell};
+     * this method only handles turns, victory and saving.
      *
      * @param row  row index of the shot
      * @param col  column index of the shot
-     * @param cell the StackPane cell clicked
      */
-    private void handleShot(int row, int col, StackPane cell) {
+    private void handleShot(int row, int col) {
         GameManager gm = GameManager.getInstance();
 
-        if (!gm.isPlayerTurn()) return;
+        if (gm.getPhase() != GamePhase.HUMAN_TURN) return;
 
         Board board = machine.getBoard();
         int[][] cells = board.getCells();
@@ -144,45 +226,31 @@ public class OpponentController {
         if (cells[row][col] >= 2) return; // ya fue disparado
 
         String result = board.receiveShot(row, col); // recibe hit/miss/sunk y actualiza array
+        gm.recordShot(ReplayMove.HUMAN, row, col, result);
+
+        if (heatmapVisible) {
+            BoardSnapshot after = board.snapshot();
+            HEATMAP_EXECUTOR.execute(() -> updateHeatmap(row, col, after));
+        }
 
         switch (result) {
             case "hit":
-                cells[row][col] = 2;
-                addImageToCell(cell, "/edu/univalle/battleship/images/hit.png");
                 break;
             case "miss":
-                cells[row][col] = 4;
-                addImageToCell(cell, "/edu/univalle/battleship/images/miss.png");
-                gm.setPlayerTurn(false);
-                machineTurnWithDelay();
+                if (gm.transition(GamePhase.HUMAN_TURN, GamePhase.MACHINE_THINKING)) machineTurnWithDelay();
                 break;
             default:
                 if (result.startsWith("sunk:")) {
                     numberOfSunkenShips++;
-                    String sunkName = result.split(":")[1].trim();
-
-                    Ship sunkShip = machine.getFleet().stream()
-                            .filter(s -> s.getName().trim().equals(sunkName))
-                            .findFirst().orElse(null);
-
-                    if (sunkShip != null) {
-                        for (int[] pos : sunkShip.getPositions()) {
-                            StackPane shipCell = getNodeFromGridPane(opponentBoard, pos[0], pos[1]);
-                            if (shipCell != null) {
-                                cells[pos[0]][pos[1]] = 3;
-                                shipCell.getChildren().clear();
-                                addImageToCell(shipCell, "/edu/univalle/battleship/images/sink.png");
-                            }
-                        }
-                    }
 
-                    if (GameManager.getInstance().isMachineDefeated()) {
+                    if (gm.isMachineDefeated()) {
+                        if (!gm.transition(GamePhase.HUMAN_TURN, GamePhase.OVER)) return;
                         closeWindow();
                         endGame("¡HAS GANADO!");
                         return;
                     }
 
-                    if (human != null && machine != null) GameStateHandler.saveGame(human, machine);
+                    if (human != null && machine != null) saveInBackground();
                 }
                 break;
         }
@@ -190,23 +258,72 @@ public class OpponentController {
 
 
     /**
-     * Executes the machine's turn after a small delay.
+     * Fires at a random untargeted cell for the human, whose shot clock ran out.
+     * Does nothing if the human shot in the meantime.
+     *
+     * @param token the token of the clock that ran out
+     */
+    private void shootForHuman(long token) {
+        GameManager gm = GameManager.getInstance();
+        if (cancelled || machine == null || !gm.isTurnClock(token) || gm.getPhase() != GamePhase.HUMAN_TURN) return;
+
+        int[][] cells = machine.getBoard().getCells();
+        int row, col;
+        do {
+            row = ThreadLocalRandom.current().nextInt(Board.SIZE);
+            col = ThreadLocalRandom.current().nextInt(Board.SIZE);
+        } while (cells[row][col] >= 2);
+        handleShot(row, col);
+    }
+
+    /**
+     * Schedules the machine's turn on the background executor after a small delay.
+     * Must be called right after moving the game to {@link GamePhase#MACHINE_THINKING};
+     * the shot only runs if the game has not moved since.
      */
     private void machineTurnWithDelay() {
-        PauseTransition delay = new PauseTransition(Duration.seconds(0.7));
-        delay.setOnFinished(e -> machineTurnLogic());
-        delay.play();
+        if (cancelled) return;
+        int scheduledState = GameManager.getInstance().getState();
+        machineTask = MACHINE_EXECUTOR.schedule(() -> machineTurnLogic(scheduledState),
+                MACHINE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels the pending machine shot, if any.
+     * The running shot is not interrupted, since an interrupt would close the
+     * save and replay file channels halfway through a write.
+     */
+    private void cancelMachineTurn() {
+        cancelled = true;
+        Future<?> task = machineTask;
+        if (task != null) task.cancel(false);
+        machineTask = null;
+    }
+
+    /**
+     * Saves a snapshot of both players on the background executor.
+     * The snapshot is taken on the calling thread, so the save does not race later shots.
+     */
+    private void saveInBackground() {
+        PlayerSnapshot humanSnapshot = human.snapshot();
+        PlayerSnapshot machineSnapshot = machine.snapshot();
+        MACHINE_EXECUTOR.execute(() -> GameStateHandler.saveGame(humanSnapshot, machineSnapshot));
     }
 
     /**
      * Handles the machine's shooting logic.
-     * Updates the human player's board, images, and ship hit status.
-     * Checks for victory/defeat conditions.
+     * Runs on the background executor: updates the human player's ship hit status and
+     * checks for victory/defeat conditions. The player's board view redraws the changed
+     * cells from the board's notifications, and window changes are sent to the FX thread.
+     *
+     * @param scheduledState the game state when the shot was scheduled
      */
-    private void machineTurnLogic() {
-        MachinePlayer machine = GameManager.getInstance().getMachine();
+    private void machineTurnLogic(int scheduledState) {
+        GameManager gm = GameManager.getInstance();
+        if (cancelled || !gm.transition(scheduledState, GamePhase.MACHINE_TURN)) return;
+
+        MachinePlayer machine = gm.getMachine();
         Player human = GameManager.getInstance().getHuman();
-        GridPane playerBoard = GameManager.getInstance().getPlayerBoardGrid();
         int[][] cells = human.getBoard().getCells();
 
         // La máquina hace su disparo usando la estrategia
@@ -214,43 +331,7 @@ public class OpponentController {
         int[] last = machine.getLastShotCoordinates(); // Coordenadas del último disparo
         int row = last[0];
         int col = last[1];
-
-        StackPane targetCell = getNodeFromGridPane(playerBoard, row, col);
-
-        // Maneja el resultado del disparo
-        if (result.equals("miss")) {
-            cells[row][col] = 4;
-        } else if (result.equals("hit")) {
-            cells[row][col] = 2;
-        } else if (result.startsWith("sunk:")) {
-            String sunkName = result.split(":")[1].trim();
-            Ship sunkShip = human.getFleet().stream()
-                    .filter(s -> s.getName().trim().equals(sunkName))
-                    .findFirst().orElse(null);
-
-            if (sunkShip != null) {
-                for (int[] pos : sunkShip.getPositions()) {
-                    StackPane cellToSink = getNodeFromGridPane(playerBoard, pos[0], pos[1]);
-                    if (cellToSink != null) {
-                        cells[pos[0]][pos[1]] = 3;
-                        cellToSink.getChildren().removeIf(n -> n instanceof ImageView);
-                        addImageToCell(cellToSink, "/edu/univalle/battleship/images/sink.png");
-                    }
-                }
-            }
-        }
-
-        // Pintar disparo actual en la interfaz
-        if (targetCell != null) {
-            targetCell.getChildren().removeIf(n -> n instanceof ImageView);
-
-            if (cells[row][col] == 2)
-                addImageToCell(targetCell, "/edu/univalle/battleship/images/hit.png");
-            else if (cells[row][col] == 3)
-                addImageToCell(targetCell, "/edu/univalle/battleship/images/sink.png");
-            else if (cells[row][col] == 4)
-                addImageToCell(targetCell, "/edu/univalle/battleship/images/miss.png");
-        }
+        GameManager.getInstance().recordShot(ReplayMove.MACHINE, row, col, result);
 
         // Actualizar hits[] para cada barco humano
         for (Ship ship : human.getFleet()) {
@@ -265,45 +346,139 @@ public class OpponentController {
         }
 
         // Verificar si alguien ha sido derrotado
-        if (GameManager.getInstance().isHumanDefeated()) {
-            closeWindow();
-            endGame("¡HAS PERDIDO!");
+        if (gm.isHumanDefeated() && gm.transition(GamePhase.MACHINE_TURN, GamePhase.OVER)) {
+            Platform.runLater(() -> {
+                closeWindow();
+                endGame("¡HAS PERDIDO!");
+            });
             return;
         }
 
-        if (GameManager.getInstance().isMachineDefeated()) {
-            closeWindow();
-            endGame("¡HAS GANADO!");
+        if (gm.isMachineDefeated() && gm.transition(GamePhase.MACHINE_TURN, GamePhase.OVER)) {
+            Platform.runLater(() -> {
+                closeWindow();
+                endGame("¡HAS GANADO!");
+            });
             return;
         }
 
+        // Se guarda antes de ceder el turno, así el jugador no modifica el tablero durante el guardado
+        GameStateHandler.saveGame(human.snapshot(), machine.snapshot());
+
         // Si el disparo fue un "miss", se le da el turno al jugador
         if (result.equals("miss")) {
-            GameManager.getInstance().setPlayerTurn(true);
-        } else {
+            gm.transition(GamePhase.MACHINE_TURN, GamePhase.HUMAN_TURN);
+        } else if (gm.transition(GamePhase.MACHINE_TURN, GamePhase.MACHINE_THINKING)) {
             machineTurnWithDelay(); // Si fue un "hit" o "sunk", sigue el turno de la máquina con delay
         }
+    }
 
-        GameStateHandler.saveGame(human, machine);
+    /**
+     * Shows or hides the probability heatmap of the machine's board.
+     * The map is computed on the heatmap thread from a snapshot of the board.
+     */
+    private void toggleHeatmap() {
+        if (machine == null) return;
+        heatmapVisible = !heatmapVisible;
+        if (!heatmapVisible) {
+            showHeat(null);
+            return;
+        }
+        BoardSnapshot board = machine.getBoard().snapshot();
+        HEATMAP_EXECUTOR.execute(() -> {
+            heatmap = new ProbabilityMap(board);
+            shownHeat = null;
+            pushHeat();
+        });
     }
 
     /**
-     * Finds a StackPane cell in a GridPane at the specified row and column.
+     * Updates the heatmap after a human shot. Runs on the heatmap thread.
      *
-     * @param grid the GridPane
-     * @param row  the row index
-     * @param col  the column index
-     * @return the StackPane cell or null if not found
+     * @param row   the row of the shot
+     * @param col   the column of the shot
+     * @param board a snapshot of the machine's board after the shot
      */
-    private StackPane getNodeFromGridPane(GridPane grid, int row, int col) {
-        for (Node node : grid.getChildren()) {
-            Integer r = GridPane.getRowIndex(node);
-            Integer c = GridPane.getColumnIndex(node);
-            if (r == null) r = 0;
-            if (c == null) c = 0;
-            if (r == row && c == col && node instanceof StackPane cell) return cell;
+    private void updateHeatmap(int row, int col, BoardSnapshot board) {
+        if (heatmap == null || heatmap.getSize() != board.getSize()) {
+            heatmap = new ProbabilityMap(board);
+        } else {
+            heatmap.update(row, col, board);
+        }
+        pushHeat();
+    }
+
+    /**
+     * Sends the current heatmap to the FX thread, unless no cell changed by
+     * more than {@link #HEAT_THRESHOLD} since the last one sent.
+     */
+    private void pushHeat() {
+        float[] heat = heatmap.normalized();
+        if (shownHeat != null && shownHeat.length == heat.length) {
+            boolean changed = false;
+            for (int i = 0; i < heat.length && !changed; i++) {
+                changed = Math.abs(heat[i] - shownHeat[i]) > HEAT_THRESHOLD;
+            }
+            if (!changed) return;
+        }
+        shownHeat = heat;
+        Platform.runLater(() -> {
+            if (heatmapVisible) showHeat(heat);
+        });
+    }
+
+    /**
+     * Draws the heatmap over the opponent board, or removes it.
+     *
+     * @param heat values between 0 and 1 in row-major order, or null to remove it
+     */
+    private void showHeat(float[] heat) {
+        if (canvasView != null) {
+            canvasView.setHeat(heat);
+            return;
+        }
+        if (cellNodes == null) return;
+        int size = cellNodes.length;
+        if (heatNodes == null || heatNodes.length != size) {
+            if (heat == null) return;
+            heatNodes = new Region[size][size];
+        }
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                float value = heat == null || r * size + c >= heat.length ? 0 : heat[r * size + c];
+                Region overlay = heatNodes[r][c];
+                if (overlay == null) {
+                    if (value <= 0) continue;
+                    overlay = new Region();
+                    overlay.setMouseTransparent(true);
+                    overlay.setStyle("-fx-background-color: #ff3b30;");
+                    cellNodes[r][c].getChildren().add(overlay);
+                    heatNodes[r][c] = overlay;
+                }
+                overlay.setOpacity(value * HEAT_OPACITY);
+                overlay.setVisible(value > 0);
+            }
+        }
+    }
+
+    /**
+     * Redraws a single opponent cell after the machine's board changed.
+     *
+     * @param row    the row index
+     * @param col    the column index
+     * @param status the new status of the cell
+     */
+    private void patchCell(int row, int col, Board.CellStatus status) {
+        if (cellNodes == null) return;
+        StackPane cell = cellNodes[row][col];
+        if (cell == null) return;
+        cell.getChildren().removeIf(n -> n instanceof ImageView);
+        switch (status) {
+            case HIT -> addImageToCell(cell, "/edu/univalle/battleship/images/hit.png");
+            case SUNK -> addImageToCell(cell, "/edu/univalle/battleship/images/sink.png");
+            case MISS -> addImageToCell(cell, "/edu/univalle/battleship/images/miss.png");
+            default -> { }
         }
-        return null;
     }
 
     /**
@@ -313,7 +488,9 @@ public class OpponentController {
      * @param path path of the image resource
      */
     private void addImageToCell(StackPane cell, String path) {
-        ImageView img = new ImageView(new Image(getClass().getResourceAsStream(path)));
+        Image sprite = SpriteCache.getInstance().getCellSprite(path);
+        if (sprite == null) return;
+        ImageView img = new ImageView(sprite);
         img.setFitWidth(40);
         img.setFitHeight(40);
         cell.getChildren().add(img);
@@ -323,10 +500,30 @@ public class OpponentController {
      * Closes the opponent board window.
      */
     private void closeWindow() {
+        cancelMachineTurn();
+        GameManager.getInstance().setTurnTimeoutHandler(null);
         Stage stage = (Stage) root.getScene().getWindow();
         stage.close();
     }
 
+    /**
+     * Stops the game when the window goes away, including through the window's
+     * close button. The replay is finished on the machine's executor, after any
+     * shot already in progress, and the window waits for it so the replay keeps
+     * its keyframe index even if the application exits next.
+     */
+    private void handleWindowHidden() {
+        cancelMachineTurn();
+        GameManager.getInstance().setTurnTimeoutHandler(null);
+        try {
+            MACHINE_EXECUTOR.submit(() -> GameManager.getInstance().finishReplay()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Shows a game-end message and resets the game state.
      *
@@ -346,10 +543,23 @@ public class OpponentController {
 
     /**
      * Handles saving the game state and exiting the opponent board.
+     * The save runs on the machine's executor, after any shot already in progress,
+     * and the window waits for it so the game is on disk before the application exits.
      */
     @FXML
     private void handleSaveExit() {
-        if (human != null && machine != null) GameStateHandler.saveGame(human, machine);
+        cancelMachineTurn();
+        GameManager.getInstance().setTurnTimeoutHandler(null);
+        try {
+            MACHINE_EXECUTOR.submit(() -> {
+                if (human != null && machine != null) GameStateHandler.saveGame(human, machine);
+                GameManager.getInstance().finishReplay();
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
         Stage stage = (Stage) btnSaveExit.getScene().getWindow();
         stage.close();
     }
@@ -357,11 +567,19 @@ public class OpponentController {
     /**
      * Rebuilds the opponent board from the machine's current board state.
      * Displays hits, misses, and sunk ships.
+     * <p>
+     * Only used for the initial load of a saved game; afterwards cells are
+     * patched individually from the board's change notifications.
      */
     public void rebuildOpponentBoard() {
+        if (canvasView != null) {
+            canvasView.setBoard(machine.getBoard());
+            return;
+        }
         opponentBoard.getChildren().clear();
         int size = Board.SIZE;
-        int[][] boardArray = machine.getBoard().getCells();
+        cellNodes = new StackPane[size][size];
+        heatNodes = null;
 
         for (int row = 0; row < size; row++) {
             for (int col = 0; col < size; col++) {
@@ -370,14 +588,11 @@ public class OpponentController {
                 cell.setStyle("-fx-border-color: white; -fx-background-color: #87CEFA;");
                 final int r = row;
                 final int c = col;
-                cell.setOnMouseClicked(event -> handleShot(r, c, cell));
+                cell.setOnMouseClicked(event -> handleShot(r, c));
                 opponentBoard.add(cell, col, row);
+                cellNodes[row][col] = cell;
 
-                switch (boardArray[row][col]) {
-                    case 2 -> addImageToCell(cell, "/edu/univalle/battleship/images/hit.png");
-                    case 3 -> addImageToCell(cell, "/edu/univalle/battleship/images/sink.png");
-                    case 4 -> addImageToCell(cell, "/edu/univalle/battleship/images/miss.png");
-                }
+                patchCell(row, col, machine.getBoard().getCellStatus(row, col));
             }
         }
     }
@@ -389,7 +604,15 @@ public class OpponentController {
      * @param machine the machine player
      */
     public void setPlayers(Player human, MachinePlayer machine) {
+        if (this.machine != null) this.machine.getBoard().removeCellListener(boardListener);
         this.human = human;
         this.machine = machine;
+        if (machine == null) return;
+        if (canvasView != null) {
+            canvasView.setBoard(machine.getBoard());
+        } else {
+            machine.getBoard().addCellListener(boardListener);
+        }
+        GameManager.getInstance().setTurnTimeoutHandler(token -> Platform.runLater(() -> shootForHuman(token)));
     }
 }
@@ -1,22 +1,29 @@
 package edu.univalle.battleship.controller;
 
+import edu.univalle.battleship.designpatterns.strategy.HuntTargetShootingStrategy;
 import edu.univalle.battleship.model.*;
+import edu.univalle.battleship.view.CanvasBoardView;
+import edu.univalle.battleship.view.SceneCache;
+import edu.univalle.battleship.view.SpriteCache;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
-import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,12 +46,47 @@ public class PositionController {
     @FXML
     public Button btnStartGame;
 
+    @FXML
+    private ProgressBar autoPlaceProgress;
+
+    /** Time budget of the automatic placement search. */
+    private static final long AUTO_PLACE_BUDGET_MS = 2000;
+
+    /** Simulated machine games per candidate layout. */
+    private static final int AUTO_PLACE_GAMES = 4;
+
+    /** The automatic placement in progress, or null. */
+    private FleetPlanner planner;
+
+    /** Shows the progress of the automatic placement once per pulse. */
+    private final AnimationTimer plannerProgress = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (planner != null) autoPlaceProgress.setProgress(planner.getProgress());
+        }
+    };
+
     private boolean horizontal = false;
     private int shipsPlaced = 0;
     private final int totalShipsToPlace = 10;
 
     private Player player;
 
+    /** Direct index of the board cells, built once in renderBoard. */
+    private StackPane[][] cellNodes;
+
+    /** Canvas view used instead of the grid on large boards, or null. */
+    private CanvasBoardView canvasView;
+
+    /**
+     * Patches a single cell whenever the player's board changes.
+     * The machine shoots from a background thread, so the patch is handed to the FX thread.
+     */
+    private final Board.CellListener boardListener = (row, col, oldStatus, newStatus) -> {
+        if (Platform.isFxApplicationThread()) patchCell(row, col, newStatus);
+        else Platform.runLater(() -> patchCell(row, col, newStatus));
+    };
+
     private final Map<String, Integer> shipSizes = Map.of(
             "carrier.png", 4,
             "submarine.png", 3,
@@ -64,7 +106,12 @@ public class PositionController {
      *
      * @param player the player object
      */
-    public void setPlayer(Player player) { this.player = player; }
+    public void setPlayer(Player player) {
+        if (this.player != null) this.player.getBoard().removeCellListener(boardListener);
+        this.player = player;
+        if (player != null) player.getBoard().addCellListener(boardListener);
+        if (canvasView != null && player != null) canvasView.setBoard(player.getBoard());
+    }
 
     /**
      * Returns the GridPane representing the player's board.
@@ -73,9 +120,26 @@ public class PositionController {
      */
     public GridPane getPlayerBoard() { return playerBoard; }
 
+    /**
+     * Returns the board cell at the given position in constant time.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the StackPane of the cell, or null if out of range
+     */
+    public StackPane getCell(int row, int col) {
+        if (cellNodes == null || row < 0 || row >= cellNodes.length || col < 0 || col >= cellNodes[row].length) {
+            return null;
+        }
+        return cellNodes[row][col];
+    }
+
     /**
      * JavaFX initialization method.
      * Sets up the board grid, drag-and-drop listeners, and the orientation button.
+     * <p>
+     * The view may be loaded in the background ahead of time, so registering
+     * this controller in the {@link GameManager} is left to the caller.
      */
     @FXML
     public void initialize() {
@@ -86,10 +150,12 @@ public class PositionController {
             btnOrientation.setText(horizontal ? "Horizontal" : "Vertical");
         });
 
-        setupGrid();
-        renderBoard();
-
-        GameManager.getInstance().setPositionController(this);
+        if (CanvasBoardView.isPreferredFor(Board.SIZE)) {
+            setupCanvas();
+        } else {
+            setupGrid();
+            renderBoard();
+        }
     }
 
     /**
@@ -99,12 +165,31 @@ public class PositionController {
      * @param player the player to use for the game
      */
     public void setupForNewGame(Player player) {
-        this.player = player;
+        setPlayer(player);
         shipsPlaced = 0;
         btnStartGame.setVisible(false);
         loadFleet();
     }
 
+    /**
+     * Replaces the grid with a {@link CanvasBoardView} for boards too large for
+     * one node per cell, and wires drag-and-drop through its hit-testing.
+     */
+    private void setupCanvas() {
+        canvasView = new CanvasBoardView(player != null ? player.getBoard() : new Board(), true);
+        canvasView.setOnDragOver(event -> {
+            if (event.getDragboard().hasString() && canvasView.cellAt(event.getX(), event.getY()) != null) {
+                event.acceptTransferModes(TransferMode.COPY_OR_MOVE);
+            }
+            event.consume();
+        });
+        canvasView.setOnDragDropped(event -> {
+            int[] cell = canvasView.cellAt(event.getX(), event.getY());
+            if (cell != null) handleDrop(event, cell[0], cell[1]);
+        });
+        ((BorderPane) playerBoard.getParent()).setCenter(canvasView);
+    }
+
     /**
      * Builds the board grid with 40x40 rectangles and configures drag-over and drop events.
      */
@@ -123,6 +208,7 @@ public class PositionController {
      * Renders the empty board and adds listeners for drag-and-drop events.
      */
     private void renderBoard() {
+        cellNodes = new StackPane[Board.SIZE][Board.SIZE];
         for (int r = 0; r < Board.SIZE; r++) {
             for (int c = 0; c < Board.SIZE; c++) {
                 StackPane cell = new StackPane();
@@ -138,8 +224,9 @@ public class PositionController {
                     event.consume();
                 });
 
-                cell.setOnDragDropped(event -> handleDrop(event, cell));
+                cell.setOnDragDropped(event -> handleDrop(event, GridPane.getRowIndex(cell), GridPane.getColumnIndex(cell)));
                 playerBoard.add(cell, c, r);
+                cellNodes[r][c] = cell;
             }
         }
     }
@@ -160,7 +247,7 @@ public class PositionController {
      * @param fileName the image file name of the ship
      */
     private void addShip(String fileName) {
-        Image img = new Image(getClass().getResourceAsStream("/edu/univalle/battleship/images/" + fileName));
+        Image img = SpriteCache.getInstance().get(SpriteCache.IMAGE_DIR + fileName);
         int shipSize = shipSizes.get(fileName);
 
         ImageView view = new ImageView(img);
@@ -170,6 +257,7 @@ public class PositionController {
         view.setPreserveRatio(false);
 
         view.setOnDragDetected(event -> {
+            cancelAutoPlace();
             Dragboard db = view.startDragAndDrop(TransferMode.MOVE);
             ClipboardContent content = new ClipboardContent();
             content.putString(fileName);
@@ -185,46 +273,68 @@ public class PositionController {
      * Validates placement, updates the board, and registers the ship with the player.
      *
      * @param event the drag event
-     * @param cell  the target board cell
+     * @param row   the target row
+     * @param col   the target column
      */
-    private void handleDrop(DragEvent event, StackPane cell) {
+    private void handleDrop(DragEvent event, int row, int col) {
         if (player == null) return; // 🔹 proteger null
 
         Dragboard db = event.getDragboard();
         if (!db.hasString()) return;
 
-        String shipName = db.getString();
-        int shipSize = shipSizes.get(shipName);
+        if (!placeShip(db.getString(), row, col, horizontal)) return;
 
-        int col = GridPane.getColumnIndex(cell);
-        int row = GridPane.getRowIndex(cell);
+        Node source = (Node) event.getGestureSource();
+        fleetBox.getChildren().remove(source);
+        shipsPlaced++;
+
+        event.setDropCompleted(true);
+        event.consume();
+
+        if (shipsPlaced >= totalShipsToPlace) btnStartGame.setVisible(true);
+    }
+
+    /**
+     * Places a ship on the player's board, if it fits.
+     * Updates the board, draws the ship and registers it with the player.
+     *
+     * @param shipName   the image file name of the ship
+     * @param row        the first row of the ship
+     * @param col        the first column of the ship
+     * @param horizontal true to place the ship horizontally
+     * @return true if the ship was placed
+     */
+    private boolean placeShip(String shipName, int row, int col, boolean horizontal) {
+        int shipSize = shipSizes.get(shipName);
 
         // Validación de límites
-        if ((horizontal && col + shipSize > Board.SIZE) || (!horizontal && row + shipSize > Board.SIZE)) return;
+        if ((horizontal && col + shipSize > Board.SIZE) || (!horizontal && row + shipSize > Board.SIZE)) return false;
 
         int[][] boardCells = player.getBoard().getCells();
         for (int i = 0; i < shipSize; i++) {
             int r = row + (horizontal ? 0 : i);
             int c = col + (horizontal ? i : 0);
-            if (boardCells[r][c] == 1) return; // ya hay barco
+            if (boardCells[r][c] == 1) return false; // ya hay barco
         }
 
         // Crear ImageView del barco
-        Image img = new Image(getClass().getResourceAsStream("/edu/univalle/battleship/images/" + shipName));
-        ImageView shipView = new ImageView(img);
-        shipView.setUserData(shipName);
-        shipView.setFitWidth(40);
-        shipView.setFitHeight(shipSize * 40);
-        if (horizontal) {
-            shipView.setRotate(-90);
-            shipView.setTranslateX((shipSize - 1) * 20.0);
-        }
+        if (canvasView == null) {
+            Image img = SpriteCache.getInstance().get(SpriteCache.IMAGE_DIR + shipName);
+            ImageView shipView = new ImageView(img);
+            shipView.setUserData(shipName);
+            shipView.setFitWidth(40);
+            shipView.setFitHeight(shipSize * 40);
+            if (horizontal) {
+                shipView.setRotate(-90);
+                shipView.setTranslateX((shipSize - 1) * 20.0);
+            }
 
-        GridPane.setColumnIndex(shipView, col);
-        GridPane.setRowIndex(shipView, row);
-        GridPane.setColumnSpan(shipView, horizontal ? shipSize : 1);
-        GridPane.setRowSpan(shipView, horizontal ? 1 : shipSize);
-        playerBoard.getChildren().add(shipView);
+            GridPane.setColumnIndex(shipView, col);
+            GridPane.setRowIndex(shipView, row);
+            GridPane.setColumnSpan(shipView, horizontal ? shipSize : 1);
+            GridPane.setRowSpan(shipView, horizontal ? 1 : shipSize);
+            playerBoard.getChildren().add(shipView);
+        }
 
         // Actualizar board
         for (int i = 0; i < shipSize; i++) {
@@ -232,23 +342,110 @@ public class PositionController {
             int c = col + (horizontal ? i : 0);
             boardCells[r][c] = 1;
         }
+        if (canvasView != null) canvasView.refresh();
 
         // Registrar el barco en player
         Orientation orient = horizontal ? Orientation.HORIZONTAL : Orientation.VERTICAL;
         Ship ship = new Ship(shipName, shipSize);
         ship.place(row, col, orient);
         player.addShip(ship);
+        return true;
+    }
 
-        Node source = (Node) event.getGestureSource();
-        fleetBox.getChildren().remove(source);
-        shipsPlaced++;
+    /**
+     * Handles the "auto-place" button.
+     * <p>
+     * Searches in the background, within {@link #AUTO_PLACE_BUDGET_MS}, for the
+     * layout that the machine's strategy needs the most shots to sink, and
+     * places the fleet there. Dragging a ship cancels the search.
+     */
+    @FXML
+    private void handleAutoPlace() {
+        if (player == null) return;
+        cancelAutoPlace();
 
-        event.setDropCompleted(true);
-        event.consume();
+        List<Ship> fleet = new ArrayList<>();
+        for (String fileName : shipLimits.keySet()) {
+            for (int i = 0; i < shipLimits.get(fileName); i++) fleet.add(new Ship(fileName, shipSizes.get(fileName)));
+        }
+        fleet.sort(Comparator.comparingInt(Ship::getSize).reversed()); // los grandes primero caben mejor
+
+        FleetPlanner search = new FleetPlanner(fleet);
+        planner = search;
+        autoPlaceProgress.setProgress(0);
+        autoPlaceProgress.setVisible(true);
+        plannerProgress.start();
+
+        search.plan(FleetPlanner.shotsToSink(HuntTargetShootingStrategy::new, AUTO_PLACE_GAMES), AUTO_PLACE_BUDGET_MS)
+                .thenAccept(result -> Platform.runLater(() -> {
+                    if (planner != search || search.isCancelled()) return;
+                    stopAutoPlaceProgress();
+                    planner = null;
+                    if (result != null) {
+                        applyLayout(result.getLayout());
+                        return;
+                    }
+                    javafx.scene.control.Alert alert =
+                            new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.WARNING);
+                    alert.setHeaderText(null);
+                    alert.setContentText("No se encontró una ubicación automática. Intenta de nuevo o coloca los barcos a mano.");
+                    alert.show();
+                }));
+    }
 
+    /**
+     * Cancels the automatic placement in progress, if any.
+     */
+    private void cancelAutoPlace() {
+        if (planner == null) return;
+        planner.cancel();
+        planner = null;
+        stopAutoPlaceProgress();
+    }
+
+    private void stopAutoPlaceProgress() {
+        plannerProgress.stop();
+        autoPlaceProgress.setVisible(false);
+    }
+
+    /**
+     * Replaces the current placement with the given layout.
+     *
+     * @param layout the ships to place
+     */
+    private void applyLayout(List<ShipSnapshot> layout) {
+        clearPlacement();
+        for (ShipSnapshot ship : layout) {
+            boolean placed = placeShip(ship.getName(), ship.getRow(), ship.getColumn(),
+                    ship.getOrientation() == Orientation.HORIZONTAL);
+            if (!placed) continue;
+            shipsPlaced++;
+            for (Node node : fleetBox.getChildren()) {
+                if (node instanceof ImageView && ship.getName().equals(node.getUserData())) {
+                    fleetBox.getChildren().remove(node);
+                    break;
+                }
+            }
+        }
         if (shipsPlaced >= totalShipsToPlace) btnStartGame.setVisible(true);
     }
 
+    /**
+     * Removes every placed ship and puts the whole fleet back in the fleet box.
+     */
+    private void clearPlacement() {
+        playerBoard.getChildren().removeIf(node -> node instanceof ImageView && node.getUserData() != null);
+        int[][] boardCells = player.getBoard().getCells();
+        for (int[] row : boardCells) Arrays.fill(row, 0);
+        player.getFleet().clear();
+        if (canvasView != null) canvasView.refresh();
+
+        fleetBox.getChildren().removeIf(node -> node instanceof ImageView);
+        loadFleet();
+        shipsPlaced = 0;
+        btnStartGame.setVisible(false);
+    }
+
     /**
      * Handles starting the game once all ships are placed.
      * Collects all ship positions, registers them in the player, and launches the opponent board.
@@ -257,8 +454,19 @@ public class PositionController {
     private void handleStartGame() {
         try {
             btnStartGame.setDisable(true);
+            cancelAutoPlace();
             Player human = new Player();
 
+            // En el lienzo no hay ImageViews: los barcos salen de la flota registrada
+            if (canvasView != null) {
+                for (Ship placed : player.getFleet()) {
+                    Ship ship = new Ship(placed.getName(), placed.getSize());
+                    ship.place(placed.getRow(), placed.getColumn(), placed.getOrientation());
+                    human.addShip(ship);
+                    human.getBoard().placeShip(ship);
+                }
+            }
+
             for (Node node : playerBoard.getChildren()) {
                 if (node instanceof ImageView shipView) {
                     String fileName = (String) shipView.getUserData();
@@ -277,15 +485,15 @@ public class PositionController {
                 }
             }
 
-            GameManager.getInstance().startNewGame(human);
-            GameManager.getInstance().setPlayerBoardGrid(playerBoard);
+            GameManager gm = GameManager.getInstance();
+            gm.startNewGame(human);
+            setPlayer(human);
+            gm.setPlayerBoardGrid(playerBoard);
 
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/edu/univalle/battleship/enemyPreviewView.fxml"));
-            Parent root = loader.load();
-            Stage stage = new Stage();
-            stage.setTitle("Opponent Board");
-            stage.setScene(new Scene(root));
-            stage.show();
+            FXMLLoader loader = SceneCache.getInstance().take(SceneCache.ENEMY_VIEW);
+            OpponentController opponentController = loader.getController();
+            opponentController.setPlayers(human, gm.getMachine());
+            SceneCache.getInstance().showOpponent(loader.getRoot(), "Opponent Board");
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -300,7 +508,7 @@ public class PositionController {
      * @param path the path of the image resource
      */
     private void addImageToCell(StackPane cell, String path) {
-        Image img = loadImage(path);
+        Image img = SpriteCache.getInstance().getCellSprite(path);
         if (img == null) return;
         ImageView iv = new ImageView(img);
         iv.setFitWidth(40);
@@ -309,18 +517,13 @@ public class PositionController {
     }
 
     /**
-     * Safely loads an image from the given resource path.
+     * Loads an image from the shared sprite cache.
      *
      * @param path the image path
      * @return Image object or null if not found
      */
     private Image loadImage(String path) {
-        InputStream is = getClass().getResourceAsStream(path);
-        if (is == null) {
-            System.err.println("No se encontró la imagen: " + path);
-            return null;
-        }
-        return new Image(is);
+        return SpriteCache.getInstance().get(path);
     }
 
     /**
@@ -337,33 +540,18 @@ public class PositionController {
         return "plane.png";
     }
 
-    /**
-     * Returns the StackPane node in the GridPane at the given row and column.
-     *
-     * @param grid the GridPane
-     * @param row  the row index
-     * @param col  the column index
-     * @return the StackPane at the given position or null if not found
-     */
-    private StackPane getNodeFromGridPane(GridPane grid, int row, int col) {
-        for (Node node : grid.getChildren()) {
-            Integer r = GridPane.getRowIndex(node);
-            Integer c = GridPane.getColumnIndex(node);
-            if (r == null) r = 0;
-            if (c == null) c = 0;
-            if (r == row && c == col && node instanceof StackPane cell) return cell;
-        }
-        return null;
-    }
-
     /**
      * Rebuilds the player's board by drawing all ships currently registered in the player object.
      */
     public void rebuildPlayerBoard() {
         if (player == null) return;
+        if (canvasView != null) {
+            canvasView.refresh();
+            return;
+        }
 
-        for (Node node : playerBoard.getChildren()) {
-            if (node instanceof StackPane cell) {
+        for (StackPane[] row : cellNodes) {
+            for (StackPane cell : row) {
                 cell.getChildren().removeIf(n -> n instanceof ImageView);
             }
         }
@@ -399,39 +587,42 @@ public class PositionController {
 
     /**
      * Rebuilds only the shots (hit, miss, sunk) on the player's board, leaving ships intact.
+     * <p>
+     * Only needed for the initial load of a saved game; afterwards cells are
+     * patched individually from the board's change notifications.
      */
     public void rebuildPlayerShotsOnly() {
         if (player == null) return;
 
-        int[][] cells = player.getBoard().getCells();
-
+        Board board = player.getBoard();
         for (int r = 0; r < Board.SIZE; r++) {
             for (int c = 0; c < Board.SIZE; c++) {
-
-                StackPane cell = getNodeFromGridPane(playerBoard, r, c);
-                if (cell == null) continue;
-
-                // 🔹 quitar SOLO imágenes
-                cell.getChildren().removeIf(n -> n instanceof ImageView);
-
-                switch (cells[r][c]) {
-                    case 2 -> {
-                        cell.getChildren().removeIf(n -> n instanceof ImageView);
-                        addImageToCell(cell, "/edu/univalle/battleship/images/hit.png");
-                    }
-                    case 3 -> {
-                        cell.getChildren().removeIf(n -> n instanceof ImageView);
-                        addImageToCell(cell, "/edu/univalle/battleship/images/sink.png");
-                    }
-                    case 4 -> {
-                        cell.getChildren().removeIf(n -> n instanceof ImageView);
-                        addImageToCell(cell, "/edu/univalle/battleship/images/miss.png");
-                    }
-                }
-
+                patchCell(r, c, board.getCellStatus(r, c));
             }
         }
     }
 
+    /**
+     * Redraws the shot marker of a single cell.
+     *
+     * @param row    the row index
+     * @param col    the column index
+     * @param status the current status of the cell
+     */
+    private void patchCell(int row, int col, Board.CellStatus status) {
+        StackPane cell = getCell(row, col);
+        if (cell == null) return;
+
+        // 🔹 quitar SOLO imágenes
+        cell.getChildren().removeIf(n -> n instanceof ImageView);
+
+        switch (status) {
+            case HIT -> addImageToCell(cell, "/edu/univalle/battleship/images/hit.png");
+            case SUNK -> addImageToCell(cell, "/edu/univalle/battleship/images/sink.png");
+            case MISS -> addImageToCell(cell, "/edu/univalle/battleship/images/miss.png");
+            default -> { }
+        }
+    }
+
 
 }
@@ -1,6 +1,7 @@
 package edu.univalle.battleship.controller;
 
 import edu.univalle.battleship.model.*;
+import edu.univalle.battleship.view.SceneCache;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -46,8 +47,8 @@ public class StartController {
     @FXML
     private void handlePlay(ActionEvent event) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/edu/univalle/battleship/positionView.fxml"));
-            Parent root = loader.load();
+            FXMLLoader loader = SceneCache.getInstance().take(SceneCache.POSITION_VIEW);
+            Parent root = loader.getRoot();
 
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
             stage.setScene(new Scene(root));
@@ -57,6 +58,7 @@ public class StartController {
             PositionController pc = loader.getController();
             Player human = new Player();
             pc.setupForNewGame(human);
+            GameManager.getInstance().prepareMachinePlacement();
 
             GameManager.getInstance().setPositionController(pc);
             GameManager.getInstance().setPlayerBoardGrid(pc.getPlayerBoard());
@@ -66,6 +68,27 @@ public class StartController {
         }
     }
 
+    /**
+     * Handles the "Watch" button click: opens a window where two machines play each other.
+     */
+    @FXML
+    private void handleWatch() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/edu/univalle/battleship/watchView.fxml"));
+            Parent root = loader.load();
+            WatchController controller = loader.getController();
+
+            Stage stage = new Stage();
+            stage.setTitle("Batalla Naval - IA vs IA");
+            stage.setScene(new Scene(root));
+            stage.setOnHidden(e -> controller.stop());
+            stage.show();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Handles the "Continue" button click to load a saved game.
      * <p>
@@ -86,11 +109,12 @@ public class StartController {
         GameManager gm = GameManager.getInstance();
         gm.setHuman(loadedPlayer);
         gm.setMachine(loadedMachine);
+        gm.resumeGame();
 
         try {
             // Player window
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/edu/univalle/battleship/positionView.fxml"));
-            Parent root = loader.load();
+            FXMLLoader loader = SceneCache.getInstance().take(SceneCache.POSITION_VIEW);
+            Parent root = loader.getRoot();
             Stage stage = (Stage) playButton.getScene().getWindow();
             stage.setScene(new Scene(root));
             stage.show();
@@ -105,16 +129,11 @@ public class StartController {
             pc.rebuildPlayerShotsOnly();
 
             // Opponent window
-            FXMLLoader enemyLoader = new FXMLLoader(getClass().getResource("/edu/univalle/battleship/enemyPreviewView.fxml"));
-            Parent enemyRoot = enemyLoader.load();
-            Stage enemyStage = new Stage();
-            enemyStage.setScene(new Scene(enemyRoot));
-            enemyStage.setTitle("Machine Board");
-            enemyStage.show();
-
+            FXMLLoader enemyLoader = SceneCache.getInstance().take(SceneCache.ENEMY_VIEW);
             OpponentController enemyController = enemyLoader.getController();
             enemyController.setPlayers(loadedPlayer, loadedMachine);
             enemyController.rebuildOpponentBoard();
+            SceneCache.getInstance().showOpponent(enemyLoader.getRoot(), "Machine Board");
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -0,0 +1,104 @@
+package edu.univalle.battleship.controller;
+
+import edu.univalle.battleship.designpatterns.strategy.HuntTargetShootingStrategy;
+import edu.univalle.battleship.designpatterns.strategy.RandomShootingStrategy;
+import edu.univalle.battleship.model.AutoMatch;
+import edu.univalle.battleship.model.MachinePlayer;
+import edu.univalle.battleship.view.CanvasBoardView;
+import javafx.animation.AnimationTimer;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+
+/**
+ * Controller for the machine-versus-machine watch screen.
+ * <p>
+ * The match runs on its own thread ({@link AutoMatch}); once per pulse this
+ * controller takes the latest published frame and redraws only the cells that
+ * changed, however many moves were played in between.
+ */
+public class WatchController {
+
+    @FXML
+    private HBox boards;
+
+    @FXML
+    private Label statusLabel;
+
+    private AutoMatch match;
+    private CanvasBoardView firstView;
+    private CanvasBoardView secondView;
+    private AutoMatch.Frame shown;
+
+    /** Samples the match once per pulse. */
+    private final AnimationTimer sampler = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            showLatest();
+        }
+    };
+
+    /**
+     * JavaFX initialization method.
+     * Places both fleets, creates the board views and starts the match at normal speed.
+     */
+    @FXML
+    public void initialize() {
+        MachinePlayer first = new MachinePlayer(new HuntTargetShootingStrategy());
+        MachinePlayer second = new MachinePlayer(new RandomShootingStrategy());
+        first.placeFleetAutomatically();
+        second.placeFleetAutomatically();
+
+        firstView = new CanvasBoardView(null, true);
+        secondView = new CanvasBoardView(null, true);
+        boards.getChildren().addAll(firstView, secondView);
+
+        match = new AutoMatch(first, second);
+        showLatest();
+        match.start();
+        sampler.start();
+    }
+
+    /**
+     * Stops the match and the sampling. Called when the window is closed.
+     */
+    public void stop() {
+        sampler.stop();
+        match.stop();
+    }
+
+    @FXML
+    private void handleNormalSpeed() {
+        match.setSpeed(1);
+    }
+
+    @FXML
+    private void handleFastSpeed() {
+        match.setSpeed(10);
+    }
+
+    @FXML
+    private void handleMaxSpeed() {
+        match.setSpeed(AutoMatch.UNLIMITED);
+    }
+
+    /**
+     * Draws the latest frame if it is newer than the one on screen.
+     */
+    private void showLatest() {
+        AutoMatch.Frame frame = match.latest();
+        if (frame == shown) return;
+        shown = frame;
+
+        firstView.setSnapshot(frame.getFirst());
+        secondView.setSnapshot(frame.getSecond());
+
+        if (frame.isOver()) {
+            statusLabel.setText("Gana " + (frame.getWinner() == 0 ? "Hunt/Target" : "Aleatoria")
+                    + " en " + frame.getMoves() + " disparos");
+            sampler.stop();
+        } else {
+            statusLabel.setText("Hunt/Target contra Aleatoria – disparos: " + frame.getMoves());
+        }
+    }
+}
@@ -73,6 +73,16 @@ public class HuntTargetShootingStrategy implements IShootingStrategy, Serializab
         return result;
     }
 
+    /**
+     * Biases hunt mode by a weight per cell; target mode is not affected.
+     *
+     * @param priors weights in row-major order, or null for no bias
+     */
+    @Override
+    public void setPriors(double[] priors) {
+        huntStrategy.setPriors(priors);
+    }
+
     /**
      * Returns the coordinates of the last shot fired.
      *
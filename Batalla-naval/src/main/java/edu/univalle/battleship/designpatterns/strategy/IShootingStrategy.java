@@ -31,4 +31,14 @@ public interface IShootingStrategy {
      * @return an array {row, column} representing the selected target
      */
     int[] selectTarget(Board board);
+
+    /**
+     * Biases the choice of new targets by a weight per cell, for example what
+     * was learned about where the opponent usually puts its ships.
+     * Strategies that do not support weights ignore them.
+     *
+     * @param priors weights in row-major order, or null for no bias
+     */
+    default void setPriors(double[] priors) {
+    }
 }
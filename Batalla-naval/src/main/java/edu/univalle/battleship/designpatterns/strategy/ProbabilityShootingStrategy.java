@@ -0,0 +1,85 @@
+package edu.univalle.battleship.designpatterns.strategy;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.ProbabilityMap;
+
+import java.util.Random;
+
+/**
+ * Implements a shooting strategy that always fires at the most likely cell.
+ * <p>
+ * The likelihood comes from a {@link ProbabilityMap} of the target board, the
+ * same estimate shown to the human player as a heatmap. Ties are broken at
+ * random. Used as a model of a careful human player when the machine chooses
+ * where to place its fleet.
+ */
+public class ProbabilityShootingStrategy implements IShootingStrategy {
+
+    private int lastRow = -1;
+    private int lastCol = -1;
+
+    /** Probability map of the board being shot, created on the first shot. */
+    private ProbabilityMap map;
+    private Board mapBoard;
+
+    private final Random random = new Random();
+
+    /**
+     * Selects the unshot cell with the highest estimated probability.
+     *
+     * @param board the board to select a target from
+     * @return an array {row, column} representing the chosen target
+     */
+    @Override
+    public int[] selectTarget(Board board) {
+        if (map == null || mapBoard != board || map.getSize() != Board.SIZE) {
+            map = new ProbabilityMap(board.snapshot());
+            mapBoard = board;
+        }
+        float[] heat = map.normalized();
+        int[][] cells = board.getCells();
+
+        int bestIndex = -1;
+        float bestHeat = -1;
+        int ties = 0;
+        for (int i = 0; i < heat.length; i++) {
+            int cell = cells[i / Board.SIZE][i % Board.SIZE];
+            if (cell != 0 && cell != 1) continue; // ya disparada
+            if (heat[i] > bestHeat) {
+                bestHeat = heat[i];
+                bestIndex = i;
+                ties = 1;
+            } else if (heat[i] == bestHeat && random.nextInt(++ties) == 0) {
+                bestIndex = i;
+            }
+        }
+        if (bestIndex < 0) return new int[]{0, 0};
+        return new int[]{bestIndex / Board.SIZE, bestIndex % Board.SIZE};
+    }
+
+    /**
+     * Fires at the most likely cell and updates the probability map.
+     *
+     * @param board the board to shoot at
+     * @return the result of the shot, e.g., "hit", "miss", "sunk:ShipName"
+     */
+    @Override
+    public String shoot(Board board) {
+        int[] pos = selectTarget(board);
+        lastRow = pos[0];
+        lastCol = pos[1];
+        String result = board.receiveShot(lastRow, lastCol);
+        map.update(lastRow, lastCol, board.snapshot());
+        return result;
+    }
+
+    /**
+     * Returns the coordinates of the last shot fired.
+     *
+     * @return an array {row, column} of the last shot
+     */
+    @Override
+    public int[] getLastShotCoordinates() {
+        return new int[]{lastRow, lastCol};
+    }
+}
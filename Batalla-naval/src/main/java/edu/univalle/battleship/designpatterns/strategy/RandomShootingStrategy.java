@@ -6,8 +6,8 @@ import java.util.Random;
 /**
  * Implements a random shooting strategy for the machine player.
  * <p>
- * The strategy selects a random cell on the board that has not been targeted yet.
- * It keeps track of the last shot coordinates.
+ * The strategy selects a random cell on the board that has not been targeted yet,
+ * optionally weighted by per-cell priors. It keeps track of the last shot coordinates.
  */
 public class RandomShootingStrategy implements IShootingStrategy {
 
@@ -20,6 +20,19 @@ public class RandomShootingStrategy implements IShootingStrategy {
     /** Random generator for selecting targets. */
     private final Random random = new Random();
 
+    /** Weight of each cell in row-major order, or null to choose uniformly. */
+    private double[] priors;
+
+    /**
+     * Sets the weight of each cell when choosing a target.
+     *
+     * @param priors weights in row-major order, or null for no bias
+     */
+    @Override
+    public void setPriors(double[] priors) {
+        this.priors = priors;
+    }
+
     /**
      * Selects a target cell randomly from the board.
      * Only selects cells that are empty or contain a ship.
@@ -32,6 +45,11 @@ public class RandomShootingStrategy implements IShootingStrategy {
         int r, c;
         int[][] cells = board.getCells();
 
+        if (priors != null && priors.length == Board.SIZE * Board.SIZE) {
+            int[] weighted = selectWeighted(cells);
+            if (weighted != null) return weighted;
+        }
+
         do {
             r = random.nextInt(Board.SIZE);
             c = random.nextInt(Board.SIZE);
@@ -40,6 +58,32 @@ public class RandomShootingStrategy implements IShootingStrategy {
         return new int[]{r, c};
     }
 
+    /**
+     * Chooses an untargeted cell with probability proportional to its prior.
+     *
+     * @param cells the cells of the board
+     * @return an array {row, column}, or null if no cell has a positive weight
+     */
+    private int[] selectWeighted(int[][] cells) {
+        double total = 0;
+        for (int i = 0; i < priors.length; i++) {
+            int cell = cells[i / Board.SIZE][i % Board.SIZE];
+            if (cell == 0 || cell == 1) total += priors[i];
+        }
+        if (total <= 0) return null;
+
+        double pick = random.nextDouble() * total;
+        int last = -1;
+        for (int i = 0; i < priors.length; i++) {
+            int cell = cells[i / Board.SIZE][i % Board.SIZE];
+            if (cell != 0 && cell != 1 || priors[i] <= 0) continue;
+            last = i;
+            pick -= priors[i];
+            if (pick < 0) break;
+        }
+        return new int[]{last / Board.SIZE, last % Board.SIZE};
+    }
+
     /**
      * Fires a shot at the board using the selected target.
      * Updates the last shot coordinates.
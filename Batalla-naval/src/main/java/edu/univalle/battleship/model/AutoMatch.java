@@ -0,0 +1,161 @@
+package edu.univalle.battleship.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A game between two {@link MachinePlayer}s, played on its own thread.
+ * <p>
+ * The simulation never touches the view. After a move it may publish a
+ * {@link Frame} with snapshots of both boards; a renderer reads the latest one
+ * with {@link #latest()} whenever it is ready to draw. When the match runs
+ * faster than {@link #PUBLISH_INTERVAL_NANOS}, intermediate positions are
+ * simply never published, so thousands of moves per second cost the renderer
+ * nothing more than one frame.
+ * <p>
+ * The usual rules apply: a player keeps shooting after a hit or a sink and
+ * the turn passes on a miss.
+ */
+public class AutoMatch {
+
+    /** Delay between moves at normal speed, the same as the machine's delay in a game. */
+    public static final long BASE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(700);
+
+    /** Minimum time between two published frames when moves are not delayed. */
+    public static final long PUBLISH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+
+    /** Speed multiplier that removes the delay between moves altogether. */
+    public static final int UNLIMITED = 0;
+
+    /**
+     * Published state of the match.
+     */
+    public static final class Frame {
+        private final long moves;
+        private final BoardSnapshot first;
+        private final BoardSnapshot second;
+        private final int winner;
+
+        private Frame(long moves, BoardSnapshot first, BoardSnapshot second, int winner) {
+            this.moves = moves;
+            this.first = first;
+            this.second = second;
+            this.winner = winner;
+        }
+
+        /** @return the number of shots fired so far */
+        public long getMoves() { return moves; }
+
+        /** @return the board of the first player */
+        public BoardSnapshot getFirst() { return first; }
+
+        /** @return the board of the second player */
+        public BoardSnapshot getSecond() { return second; }
+
+        /** @return 0 or 1 for the winning player, or -1 while the match is running */
+        public int getWinner() { return winner; }
+
+        /** @return true if one of the fleets has been sunk */
+        public boolean isOver() { return winner >= 0; }
+    }
+
+    private final MachinePlayer[] players;
+    private final AtomicReference<Frame> latest = new AtomicReference<>();
+
+    private volatile long delayNanos = BASE_DELAY_NANOS;
+    private volatile boolean stopped;
+    private volatile Thread thread;
+
+    /**
+     * Creates a match between two machines whose fleets are already placed.
+     *
+     * @param first  the player that shoots first
+     * @param second the other player
+     */
+    public AutoMatch(MachinePlayer first, MachinePlayer second) {
+        this.players = new MachinePlayer[]{first, second};
+        latest.set(new Frame(0, first.getBoard().snapshot(), second.getBoard().snapshot(), -1));
+    }
+
+    /**
+     * Sets the speed of the match.
+     *
+     * @param multiplier how many times faster than normal, or {@link #UNLIMITED}
+     */
+    public void setSpeed(int multiplier) {
+        delayNanos = multiplier <= UNLIMITED ? 0 : BASE_DELAY_NANOS / multiplier;
+        Thread current = thread;
+        if (current != null) LockSupport.unpark(current);
+    }
+
+    /**
+     * Returns the last published state of the match. Safe to call from any thread.
+     *
+     * @return the latest frame
+     */
+    public Frame latest() {
+        return latest.get();
+    }
+
+    /**
+     * Starts the match on a new daemon thread.
+     */
+    public void start() {
+        Thread worker = new Thread(this::run, "auto-match");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    /**
+     * Stops the match after the current move.
+     */
+    public void stop() {
+        stopped = true;
+        Thread current = thread;
+        if (current != null) LockSupport.unpark(current);
+    }
+
+    /**
+     * Plays the match to the end on the calling thread, or until {@link #stop()}.
+     */
+    public void run() {
+        int turn = 0;
+        long moves = 0;
+        long lastPublish = System.nanoTime();
+
+        while (!stopped) {
+            MachinePlayer shooter = players[turn];
+            MachinePlayer target = players[1 - turn];
+
+            String result = shooter.shoot(target.getBoard());
+            moves++;
+
+            boolean over = target.isDefeated();
+            long delay = delayNanos;
+            long now = System.nanoTime();
+            if (over || delay > 0 || now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+                latest.set(new Frame(moves, players[0].getBoard().snapshot(),
+                        players[1].getBoard().snapshot(), over ? turn : -1));
+                lastPublish = now;
+            }
+            if (over) return;
+
+            if (result.equals("miss")) turn = 1 - turn;
+            if (delay > 0) pause(delay);
+        }
+    }
+
+    /**
+     * Waits for the given time, ending early if the speed changes or the match is stopped.
+     */
+    private void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long left = nanos;
+        while (left > 0 && !stopped && delayNanos == nanos) {
+            LockSupport.parkNanos(this, left);
+            left = deadline - System.nanoTime();
+        }
+    }
+}
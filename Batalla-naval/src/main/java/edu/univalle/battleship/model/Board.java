@@ -3,6 +3,7 @@ package edu.univalle.battleship.model;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents the game board in Battleship.
@@ -23,6 +24,21 @@ public class Board implements Serializable {
         MISS    // Shot missed
     }
 
+    /**
+     * Receives a notification every time a cell of the board changes.
+     */
+    public interface CellListener {
+        /**
+         * Called after a cell has changed.
+         *
+         * @param row       the row index
+         * @param col       the column index
+         * @param oldStatus the status before the change
+         * @param newStatus the status after the change
+         */
+        void cellChanged(int row, int col, CellStatus oldStatus, CellStatus newStatus);
+    }
+
     /** The size of the board (NxN). */
     public static int SIZE = 10;
 
@@ -32,6 +48,9 @@ public class Board implements Serializable {
     /** List of ships placed on the board. */
     private final List<Ship> ships = new ArrayList<>();
 
+    /** Listeners notified of cell changes; not saved with the board. */
+    private transient List<CellListener> listeners;
+
     /**
      * Returns the status of a specific cell.
      *
@@ -40,13 +59,23 @@ public class Board implements Serializable {
      * @return the CellStatus of the cell
      */
     public CellStatus getCellStatus(int row, int col) {
-        return switch (cells[row][col]) {
+        return toCellStatus(cells[row][col]);
+    }
+
+    /**
+     * Converts an internal cell code to its CellStatus.
+     *
+     * @param value the cell code (0-4)
+     * @return the matching CellStatus
+     */
+    static CellStatus toCellStatus(int value) {
+        return switch (value) {
             case 0 -> CellStatus.EMPTY;
             case 1 -> CellStatus.SHIP;
             case 2 -> CellStatus.HIT;
             case 3 -> CellStatus.SUNK;
             case 4 -> CellStatus.MISS;
-            default -> throw new IllegalStateException("Unexpected value: " + cells[row][col]);
+            default -> throw new IllegalStateException("Unexpected value: " + value);
         };
     }
 
@@ -87,7 +116,7 @@ public class Board implements Serializable {
         int dy = orientation == Orientation.HORIZONTAL ? 1 : 0;
 
         for (int i = 0; i < ship.getSize(); i++) {
-            cells[row + i * dx][col + i * dy] = 1;
+            setCell(row + i * dx, col + i * dy, 1);
         }
 
         if (!ships.contains(ship)) {
@@ -104,14 +133,35 @@ public class Board implements Serializable {
         return cells;
     }
 
+    /**
+     * Takes an immutable snapshot of the board.
+     * <p>
+     * The snapshot owns its own copy of the cells and ships, so it stays
+     * consistent while the game keeps mutating this board and can be
+     * safely read from another thread.
+     *
+     * @return a new BoardSnapshot
+     */
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(cells, ships);
+    }
+
     /**
      * Sets the board's cells from an external 2D array.
      *
      * @param newCells the new cell values
      */
     public void setCells(int[][] newCells) {
+        if (listeners == null || listeners.isEmpty()) {
+            for (int r = 0; r < SIZE; r++) {
+                System.arraycopy(newCells[r], 0, cells[r], 0, SIZE);
+            }
+            return;
+        }
         for (int r = 0; r < SIZE; r++) {
-            System.arraycopy(newCells[r], 0, cells[r], 0, SIZE);
+            for (int c = 0; c < SIZE; c++) {
+                setCell(r, c, newCells[r][c]);
+            }
         }
     }
 
@@ -126,14 +176,14 @@ public class Board implements Serializable {
 
         if (cells[row][col] == 1) {
             Ship hitShip = getShipAt(row, col);
-            cells[row][col] = 2;
+            setCell(row, col, 2);
 
             if (hitShip != null) {
                 hitShip.hitAt(row, col);
 
                 if (hitShip.isSunk()) {
                     for (int[] pos : hitShip.getPositions()) {
-                        cells[pos[0]][pos[1]] = 3;
+                        setCell(pos[0], pos[1], 3);
                     }
                     return "sunk:" + hitShip.getName();
                 }
@@ -142,13 +192,55 @@ public class Board implements Serializable {
         }
 
         if (cells[row][col] == 0) {
-            cells[row][col] = 4;
+            setCell(row, col, 4);
             return "miss";
         }
 
         return "already";
     }
 
+    /**
+     * Registers a listener for cell changes made through this board's methods.
+     * <p>
+     * Writes done directly on the array returned by {@link #getCells()} are
+     * not reported.
+     *
+     * @param listener the listener to add
+     */
+    public void addCellListener(CellListener listener) {
+        if (listeners == null) listeners = new CopyOnWriteArrayList<>();
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered cell listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeCellListener(CellListener listener) {
+        if (listeners != null) listeners.remove(listener);
+    }
+
+    /**
+     * Writes a cell and notifies the listeners if its value changed.
+     *
+     * @param row   the row index
+     * @param col   the column index
+     * @param value the new cell code
+     */
+    private void setCell(int row, int col, int value) {
+        int old = cells[row][col];
+        if (old == value) return;
+        cells[row][col] = value;
+        if (listeners == null || listeners.isEmpty()) return;
+
+        CellStatus oldStatus = toCellStatus(old);
+        CellStatus newStatus = toCellStatus(value);
+        for (CellListener listener : listeners) {
+            listener.cellChanged(row, col, oldStatus, newStatus);
+        }
+    }
+
     /**
      * Returns the ship located at a specific cell.
      *
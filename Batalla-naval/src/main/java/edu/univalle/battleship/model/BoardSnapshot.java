@@ -0,0 +1,90 @@
+package edu.univalle.battleship.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, point-in-time copy of a {@link Board}.
+ * <p>
+ * Cells are stored in a private flat array and ships as {@link ShipSnapshot}s,
+ * so nothing is shared with the live board. Readers on any thread see a
+ * consistent state without locking the game.
+ */
+public final class BoardSnapshot implements Serializable {
+
+    /** Pinned to the value computed before it was declared, so existing saves still load. */
+    private static final long serialVersionUID = 7182468940283769632L;
+
+    /** The size of the board (NxN) when the snapshot was taken. */
+    private final int size;
+
+    /** Cell codes in row-major order, using the same encoding as {@link Board}. */
+    private final int[] cells;
+
+    /** Ships placed on the board. */
+    private final List<ShipSnapshot> ships;
+
+    /**
+     * Captures the given cells and ships.
+     *
+     * @param cells the live cells to copy
+     * @param ships the live ships to copy
+     */
+    BoardSnapshot(int[][] cells, List<Ship> ships) {
+        this.size = cells.length;
+        this.cells = new int[size * size];
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(cells[r], 0, this.cells, r * size, size);
+        }
+        List<ShipSnapshot> copy = new ArrayList<>(ships.size());
+        for (Ship ship : ships) copy.add(ship.snapshot());
+        this.ships = Collections.unmodifiableList(copy);
+    }
+
+    /** @return the size of the board */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the raw cell code at the given position.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return 0=water, 1=ship, 2=hit, 3=sunk, 4=miss
+     */
+    public int getCell(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * Returns the status of a specific cell.
+     *
+     * @param row the row index
+     * @param col the column index
+     * @return the CellStatus of the cell
+     */
+    public Board.CellStatus getCellStatus(int row, int col) {
+        return Board.toCellStatus(getCell(row, col));
+    }
+
+    /**
+     * Returns a fresh 2D copy of the cells.
+     *
+     * @return a new 2D int array owned by the caller
+     */
+    public int[][] getCells() {
+        int[][] copy = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            System.arraycopy(cells, r * size, copy[r], 0, size);
+        }
+        return copy;
+    }
+
+    /** @return the ships on the board, as an unmodifiable list */
+    public List<ShipSnapshot> getShips() {
+        return ships;
+    }
+}
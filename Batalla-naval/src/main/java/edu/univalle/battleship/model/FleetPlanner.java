@@ -0,0 +1,297 @@
+package edu.univalle.battleship.model;
+
+import edu.univalle.battleship.designpatterns.strategy.IShootingStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Searches for a fleet layout that takes a shooter as long as possible to sink.
+ * <p>
+ * Random layouts are drawn from precomputed placement tables and scored in
+ * parallel on a shared pool of daemon threads until the time budget runs out
+ * or {@link #cancel()} is called. The best layout found so far is always
+ * available from {@link #best()}, so callers that cannot wait may take it early.
+ * <p>
+ * The search runs in short slices that go back to the end of the pool's queue,
+ * so planners running at the same time share the threads instead of one
+ * waiting for the other. The budget starts when the first slice runs, not when
+ * the search is queued.
+ * <p>
+ * Each planner runs once; create a new one for every search.
+ */
+public class FleetPlanner {
+
+    /** Largest number of attempts to complete a layout before starting it again. */
+    private static final int MAX_LAYOUT_ATTEMPTS = 1000;
+
+    /** Longest time a slice of the search keeps a pool thread. */
+    private static final long SLICE_NANOS = 20_000_000L;
+
+    /** Pool shared by all planners, one thread per processor. */
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "fleet-planner");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Scores a layout; higher is better.
+     */
+    public interface Scorer {
+        /**
+         * Scores a layout. Called from several threads at once.
+         *
+         * @param layout the ships of the layout, not hit
+         * @return the score of the layout
+         */
+        double score(List<ShipSnapshot> layout);
+    }
+
+    /**
+     * A layout with its score.
+     */
+    public static final class Result {
+        private final List<ShipSnapshot> layout;
+        private final double score;
+
+        private Result(List<ShipSnapshot> layout, double score) {
+            this.layout = layout;
+            this.score = score;
+        }
+
+        /** @return the ships of the layout */
+        public List<ShipSnapshot> getLayout() { return layout; }
+
+        /** @return the score of the layout */
+        public double getScore() { return score; }
+    }
+
+    private final List<Ship> fleet;
+    private final int size;
+
+    /** Encoded placements ({@code (row * size + col) * 2 + vertical}) for each ship of the fleet. */
+    private final int[][] tables;
+
+    private final AtomicInteger evaluated = new AtomicInteger();
+    private volatile Result best;
+    private volatile boolean cancelled;
+    /** Time the first slice ran, from {@link System#nanoTime()}, or 0 while queued. */
+    private final AtomicLong startNanos = new AtomicLong();
+    private volatile long budgetNanos = 1;
+
+    /**
+     * Creates a planner for the given fleet. Only the names and sizes of the ships are used.
+     *
+     * @param fleet the ships to place
+     */
+    public FleetPlanner(List<Ship> fleet) {
+        this.fleet = new ArrayList<>(fleet);
+        this.size = Board.SIZE;
+        this.tables = new int[fleet.size()][];
+        for (int i = 0; i < fleet.size(); i++) tables[i] = placementsOf(fleet.get(i).getSize());
+    }
+
+    /**
+     * Scorer that simulates a shooter against the layout and returns the
+     * average number of shots it needed to sink the whole fleet.
+     *
+     * @param shooter creates a fresh strategy for each simulated game
+     * @param games   number of games per layout
+     * @return the scorer
+     */
+    public static Scorer shotsToSink(Supplier<? extends IShootingStrategy> shooter, int games) {
+        return layout -> {
+            long total = 0;
+            for (int g = 0; g < games; g++) total += simulate(layout, shooter.get());
+            return (double) total / games;
+        };
+    }
+
+    /**
+     * Plays one game of the given strategy against a layout.
+     *
+     * @param layout   the ships to sink
+     * @param strategy the shooter
+     * @return the number of shots fired until every ship was sunk
+     */
+    public static int simulate(List<ShipSnapshot> layout, IShootingStrategy strategy) {
+        Board board = new Board();
+        List<Ship> ships = new ArrayList<>(layout.size());
+        for (ShipSnapshot snapshot : layout) {
+            Ship ship = snapshot.toShip();
+            board.placeShip(ship);
+            ships.add(ship);
+        }
+        int shots = 0;
+        int limit = Board.SIZE * Board.SIZE * 4;
+        int afloat = ships.size();
+        while (afloat > 0 && limit-- > 0) {
+            String result = strategy.shoot(board);
+            if (result.equals("already")) continue;
+            shots++;
+            if (result.startsWith("sunk:")) afloat--;
+        }
+        return shots;
+    }
+
+    /**
+     * Starts the search in the background and returns immediately.
+     *
+     * @param scorer   how layouts are scored
+     * @param budgetMs time budget in milliseconds
+     * @return completes with the best layout when the budget runs out or the
+     *         search is cancelled; null only if it was cancelled before any
+     *         layout was scored
+     */
+    public CompletableFuture<Result> plan(Scorer scorer, long budgetMs) {
+        budgetNanos = Math.max(1, budgetMs * 1_000_000L);
+        CompletableFuture<Result> done = new CompletableFuture<>();
+        int workers = Runtime.getRuntime().availableProcessors();
+        AtomicInteger running = new AtomicInteger(workers);
+        for (int i = 0; i < workers; i++) {
+            POOL.execute(() -> slice(scorer, running, done));
+        }
+        return done;
+    }
+
+    /**
+     * Stops the search; the future returned by {@link #plan} then completes
+     * with the best layout found so far.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** @return true if {@link #cancel()} was called */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** @return the best layout found so far, or null */
+    public Result best() {
+        return best;
+    }
+
+    /** @return the number of layouts scored so far */
+    public int getEvaluated() {
+        return evaluated.get();
+    }
+
+    /** @return the fraction of the time budget already used, between 0 and 1; 0 while queued */
+    public double getProgress() {
+        long start = startNanos.get();
+        if (start == 0) return 0;
+        return Math.min(1, (double) (System.nanoTime() - start) / budgetNanos);
+    }
+
+    /**
+     * Draws one random layout from the placement tables.
+     *
+     * @param random the random source
+     * @return the ships of the layout
+     */
+    public List<ShipSnapshot> randomLayout(Random random) {
+        boolean[] occupied = new boolean[size * size];
+        List<ShipSnapshot> layout = new ArrayList<>(fleet.size());
+        int attempts = 0;
+
+        for (int i = 0; i < fleet.size(); i++) {
+            int[] table = tables[i];
+            int length = fleet.get(i).getSize();
+            int placement = table[random.nextInt(table.length)];
+            if (!fits(occupied, placement, length)) {
+                if (++attempts > MAX_LAYOUT_ATTEMPTS) {
+                    // Los barcos anteriores bloquean este: se empieza de nuevo
+                    Arrays.fill(occupied, false);
+                    layout.clear();
+                    attempts = 0;
+                    i = -1;
+                } else {
+                    i--;
+                }
+                continue;
+            }
+            mark(occupied, placement, length);
+
+            Ship ship = new Ship(fleet.get(i).getName(), length);
+            int cell = placement >> 1;
+            ship.place(cell / size, cell % size, (placement & 1) == 1 ? Orientation.VERTICAL : Orientation.HORIZONTAL);
+            layout.add(ship.snapshot());
+        }
+        return Collections.unmodifiableList(layout);
+    }
+
+    /**
+     * Searches for up to {@link #SLICE_NANOS}, then queues the next slice, or
+     * completes {@code done} if this was the last worker to finish.
+     */
+    private void slice(Scorer scorer, AtomicInteger running, CompletableFuture<Result> done) {
+        boolean more = false;
+        try {
+            long now = System.nanoTime();
+            startNanos.compareAndSet(0, now);
+            long deadline = startNanos.get() + budgetNanos;
+            long end = Math.min(deadline, now + SLICE_NANOS);
+            Random random = ThreadLocalRandom.current();
+            // Sin cancelar, se puntúa al menos una ubicación aunque el plazo ya haya pasado
+            while (!cancelled && (now < end || best == null)) {
+                List<ShipSnapshot> layout = randomLayout(random);
+                double score = scorer.score(layout);
+                evaluated.incrementAndGet();
+                offer(layout, score);
+                now = System.nanoTime();
+            }
+            more = !cancelled && now < deadline;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        if (more) POOL.execute(() -> slice(scorer, running, done));
+        else if (running.decrementAndGet() == 0) done.complete(best);
+    }
+
+    private synchronized void offer(List<ShipSnapshot> layout, double score) {
+        if (best == null || score > best.score) best = new Result(layout, score);
+    }
+
+    private boolean fits(boolean[] occupied, int placement, int length) {
+        int cell = placement >> 1;
+        int step = (placement & 1) == 1 ? size : 1;
+        for (int k = 0; k < length; k++) {
+            if (occupied[cell + k * step]) return false;
+        }
+        return true;
+    }
+
+    private void mark(boolean[] occupied, int placement, int length) {
+        int cell = placement >> 1;
+        int step = (placement & 1) == 1 ? size : 1;
+        for (int k = 0; k < length; k++) occupied[cell + k * step] = true;
+    }
+
+    /**
+     * Lists every placement of a ship of the given length that stays inside the board.
+     */
+    private int[] placementsOf(int length) {
+        int[] table = new int[size * size * 2];
+        int count = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (c + length <= size) table[count++] = (r * size + c) * 2;
+                if (length > 1 && r + length <= size) table[count++] = (r * size + c) * 2 + 1;
+            }
+        }
+        return Arrays.copyOf(table, count);
+    }
+}
@@ -1,8 +1,21 @@
 package edu.univalle.battleship.model;
 
 import edu.univalle.battleship.controller.PositionController;
+import edu.univalle.battleship.designpatterns.strategy.ProbabilityShootingStrategy;
+import edu.univalle.battleship.model.replay.ReplayMove;
+import edu.univalle.battleship.model.replay.ReplayWriter;
 import javafx.scene.layout.GridPane;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 /**
  * Singleton class that manages the state of the game.
@@ -36,11 +49,58 @@ public class GameManager implements Serializable {
 
     private GridPane playerBoardGrid;
 
-    private boolean isPlayerTurn = true; // true = human's turn, false = machine's turn
-    private boolean gameOver = false;
+    /** Number of low bits of the state word that hold the phase ordinal. */
+    private static final int PHASE_BITS = 3;
+    private static final int PHASE_MASK = (1 << PHASE_BITS) - 1;
+
+    /**
+     * Current phase in the low bits, and a counter of transitions above them.
+     * The counter lets a caller claim a phase only if nothing moved since it looked.
+     */
+    private final AtomicInteger state = new AtomicInteger(GamePhase.PLACEMENT.ordinal());
 
     private transient PositionController positionController;
 
+    /** Directory where finished and in-progress replays are written. */
+    private static final Path REPLAY_DIR = Paths.get("replays");
+
+    private transient ReplayWriter replay;
+
+    /** Time budget of the machine's fleet placement search. */
+    private static final long MACHINE_PLACEMENT_BUDGET_MS = 1500;
+
+    /** Simulated human games per candidate layout of the machine. */
+    private static final int MACHINE_PLACEMENT_GAMES = 2;
+
+    /** Search for the machine's fleet layout, started while the human places theirs. */
+    private transient FleetPlanner machinePlanner;
+
+    /** Shots lost, per game, for each early human shot that lands on a ship cell of a candidate layout. */
+    private static final double FIRST_SHOT_PENALTY = 4.0;
+
+    /** What the machine learned about the human, loaded on first use. */
+    private transient HumanTendencies tendencies;
+
+    /**
+     * Time the human has for each shot before one is fired for them, or 0 for
+     * no clock. Off by default: the desktop view shows no countdown, so a shot
+     * fired for the player would come as a surprise. The network server keeps
+     * its own limit ({@link edu.univalle.battleship.server.GameServer#DEFAULT_TURN_LIMIT_MS}).
+     */
+    private volatile long turnLimitMs;
+
+    /** Called with the clock's token when the human's shot clock runs out. */
+    private transient volatile LongConsumer turnTimeoutHandler;
+
+    private transient HashedWheelTimer.Timeout turnTimeout;
+
+    /** Token of the running shot clock; changes every time the clock restarts. */
+    private final AtomicLong turnClock = new AtomicLong();
+
+    /** Cells of the human's first shots in the current game, as {@code row * size + col}. */
+    private final int[] firstShots = new int[HumanTendencies.FIRST_SHOTS];
+    private int firstShotCount;
+
     // ----------------------------
     // GETTERS AND SETTERS
     // ----------------------------
@@ -58,10 +118,28 @@ public class GameManager implements Serializable {
     public void setMachine(MachinePlayer machine) { this.machine = machine; }
 
     /** Returns true if it is the human player's turn. */
-    public boolean isPlayerTurn() { return isPlayerTurn; }
+    public boolean isPlayerTurn() { return getPhase() == GamePhase.HUMAN_TURN; }
+
+    /** Returns true if one of the fleets has been sunk. */
+    public boolean isGameOver() { return getPhase() == GamePhase.OVER; }
+
+    /** Returns the current phase of the game. */
+    public GamePhase getPhase() { return phaseOf(state.get()); }
+
+    /**
+     * Returns the current state word, to be passed later to {@link #transition(int, GamePhase)}.
+     *
+     * @return the phase and transition counter
+     */
+    public int getState() { return state.get(); }
 
-    /** Sets whose turn it is. */
-    public void setPlayerTurn(boolean turn) { this.isPlayerTurn = turn; }
+    /**
+     * Returns the phase held in a state word.
+     *
+     * @param stateWord a value returned by {@link #getState()}
+     * @return the phase
+     */
+    public static GamePhase phaseOf(int stateWord) { return GamePhase.of(stateWord & PHASE_MASK); }
 
     /** Returns the GridPane used to display the player's board. */
     public GridPane getPlayerBoardGrid() { return playerBoardGrid; }
@@ -69,9 +147,126 @@ public class GameManager implements Serializable {
     /** Sets the GridPane for the player's board. */
     public void setPlayerBoardGrid(GridPane grid) { this.playerBoardGrid = grid; }
 
+    /** Returns the PositionController of the player's board. */
+    public PositionController getPositionController() { return positionController; }
+
     /** Sets the PositionController for UI interactions. */
     public void setPositionController(PositionController pc) { this.positionController = pc; }
 
+    // ----------------------------
+    // PHASE TRANSITIONS
+    // ----------------------------
+
+    /**
+     * Moves the game from one phase to another.
+     * <p>
+     * Fails, without waiting, if the game is not in {@code from} or if
+     * {@link GamePhase#canMoveTo} rejects the move. Of two threads making
+     * the same move at the same time, only one succeeds.
+     *
+     * @param from the phase the caller expects
+     * @param to   the phase to move to
+     * @return true if this call made the move
+     */
+    public boolean transition(GamePhase from, GamePhase to) {
+        if (!from.canMoveTo(to)) return false;
+        while (true) {
+            int current = state.get();
+            if (phaseOf(current) != from) return false;
+            if (state.compareAndSet(current, next(current, to))) {
+                if (to == GamePhase.OVER) endGame();
+                restartTurnClock();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves the game to another phase only if its state has not changed since
+     * {@code expected} was read, so a stale caller cannot claim a later turn.
+     *
+     * @param expected a value returned by {@link #getState()}
+     * @param to       the phase to move to
+     * @return true if this call made the move
+     */
+    public boolean transition(int expected, GamePhase to) {
+        if (!phaseOf(expected).canMoveTo(to)) return false;
+        if (!state.compareAndSet(expected, next(expected, to))) return false;
+        if (to == GamePhase.OVER) endGame();
+        restartTurnClock();
+        return true;
+    }
+
+    /**
+     * Puts the game in a phase regardless of the current one.
+     * Only used when a game is started, restored or reset.
+     */
+    private void forcePhase(GamePhase phase) {
+        int current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, next(current, phase)));
+        restartTurnClock();
+    }
+
+    private static int next(int current, GamePhase to) {
+        return ((current >>> PHASE_BITS) + 1) << PHASE_BITS | to.ordinal();
+    }
+
+    // ----------------------------
+    // TURN CLOCK
+    // ----------------------------
+
+    /**
+     * Sets the time the human has for each shot; 0 turns the clock off.
+     * Applies from the next shot.
+     *
+     * @param ms the limit in milliseconds
+     */
+    public void setTurnLimitMs(long ms) { this.turnLimitMs = Math.max(0, ms); }
+
+    /** Returns the time the human has for each shot, or 0 if there is no clock. */
+    public long getTurnLimitMs() { return turnLimitMs; }
+
+    /**
+     * Sets what happens when the human's shot clock runs out, usually a shot
+     * fired for them. The handler runs on the timer's thread and receives the
+     * clock's token; it should check {@link #isTurnClock(long)} on the thread
+     * that shoots, since the human may have shot in the meantime.
+     *
+     * @param handler the handler, or null to stop the clock
+     */
+    public void setTurnTimeoutHandler(LongConsumer handler) {
+        this.turnTimeoutHandler = handler;
+        restartTurnClock();
+    }
+
+    /**
+     * Checks that a shot clock is still the running one.
+     *
+     * @param token the token given to the timeout handler
+     * @return true if nothing restarted the clock since it ran out
+     */
+    public boolean isTurnClock(long token) { return turnClock.get() == token; }
+
+    /**
+     * Restarts the human's shot clock on the shared {@link HashedWheelTimer},
+     * or just stops it when it is not the human's turn.
+     * Called on every phase change and every human shot.
+     */
+    private synchronized void restartTurnClock() {
+        long token = turnClock.incrementAndGet();
+        if (turnTimeout != null) turnTimeout.cancel();
+        turnTimeout = null;
+
+        LongConsumer handler = turnTimeoutHandler;
+        long limit = turnLimitMs;
+        if (handler == null || limit <= 0 || getPhase() != GamePhase.HUMAN_TURN) return;
+        turnTimeout = HashedWheelTimer.getShared().schedule(() -> {
+            if (turnClock.get() == token) handler.accept(token);
+        }, limit, TimeUnit.MILLISECONDS);
+    }
+
     // ----------------------------
     // GAME METHODS
     // ----------------------------
@@ -86,9 +281,167 @@ public class GameManager implements Serializable {
     public void startNewGame(Player humanPlayer) {
         this.human = humanPlayer;
         this.machine = new MachinePlayer();
-        this.machine.placeFleetAutomatically();
-        this.isPlayerTurn = true;
-        this.gameOver = false;
+
+        // Usa la mejor ubicación encontrada hasta ahora, sin esperar a que termine la búsqueda
+        FleetPlanner.Result planned = machinePlanner != null ? machinePlanner.best() : null;
+        cancelMachinePlacement();
+        if (planned != null) this.machine.placeFleet(planned.getLayout());
+        else this.machine.placeFleetAutomatically();
+        this.machine.setTargetPriors(targetPriors());
+
+        firstShotCount = 0;
+        forcePhase(GamePhase.HUMAN_TURN);
+        startReplay();
+    }
+
+    /**
+     * Starts searching, in the background, for the machine's fleet layout.
+     * <p>
+     * Called when the human starts placing their fleet. Candidate layouts are
+     * scored by simulating a human who always fires at the most likely cell
+     * ({@link ProbabilityShootingStrategy}), minus a penalty for ships on the
+     * cells this human usually fires at first; the layout that survives longest
+     * is used by {@link #startNewGame}, so the game starts without waiting.
+     */
+    public void prepareMachinePlacement() {
+        cancelMachinePlacement();
+        FleetPlanner.Scorer shots = FleetPlanner.shotsToSink(ProbabilityShootingStrategy::new, MACHINE_PLACEMENT_GAMES);
+        double[] firstShotRates = tendencies().getSize() == Board.SIZE ? tendencies().firstShotRates() : null;
+        FleetPlanner.Scorer scorer = firstShotRates == null ? shots
+                : layout -> shots.score(layout) - FIRST_SHOT_PENALTY * exposure(layout, firstShotRates);
+
+        machinePlanner = new FleetPlanner(MachinePlayer.standardFleet());
+        machinePlanner.plan(scorer, MACHINE_PLACEMENT_BUDGET_MS);
+    }
+
+    /**
+     * Sums the first-shot rates of the cells covered by a layout.
+     */
+    private static double exposure(List<ShipSnapshot> layout, double[] firstShotRates) {
+        double total = 0;
+        for (ShipSnapshot ship : layout) {
+            for (int[] pos : ship.getPositions()) total += firstShotRates[pos[0] * Board.SIZE + pos[1]];
+        }
+        return total;
+    }
+
+    private void cancelMachinePlacement() {
+        if (machinePlanner == null) return;
+        machinePlanner.cancel();
+        machinePlanner = null;
+    }
+
+    /**
+     * Resumes a game restored from a save, with the human player to shoot.
+     * <p>
+     * The human player and machine must have been set beforehand.
+     */
+    public void resumeGame() {
+        if (machine != null) machine.setTargetPriors(targetPriors());
+        // Los primeros disparos de una partida restaurada no se conocen
+        firstShotCount = HumanTendencies.FIRST_SHOTS;
+        forcePhase(GamePhase.HUMAN_TURN);
+        startReplay();
+    }
+
+    /**
+     * Starts recording a replay of the current game.
+     * <p>
+     * The current boards are written as the initial position, so this also
+     * works for games restored from a save. Any replay in progress is finished
+     * first. Recording errors never interrupt the game; they only stop the replay.
+     */
+    public void startReplay() {
+        finishReplay();
+        if (human == null || machine == null) return;
+        try {
+            Files.createDirectories(REPLAY_DIR);
+            Path file = REPLAY_DIR.resolve("replay-" + System.currentTimeMillis() + ".bnr");
+            replay = ReplayWriter.create(file, ReplayWriter.DEFAULT_KEYFRAME_INTERVAL, human, machine);
+        } catch (IOException e) {
+            e.printStackTrace();
+            replay = null;
+        }
+    }
+
+    /**
+     * Records a shot in the current replay, if one is being recorded.
+     *
+     * @param shooter {@link edu.univalle.battleship.model.replay.ReplayMove#HUMAN} or
+     *                {@link edu.univalle.battleship.model.replay.ReplayMove#MACHINE}
+     * @param row     the target row
+     * @param col     the target column
+     * @param result  the result returned by {@link Board#receiveShot}
+     */
+    public void recordShot(int shooter, int row, int col, String result) {
+        if (shooter == ReplayMove.HUMAN && firstShotCount < firstShots.length && !result.equals("already")) {
+            firstShots[firstShotCount++] = row * Board.SIZE + col;
+        }
+        if (shooter == ReplayMove.HUMAN) restartTurnClock();
+        if (replay == null) return;
+        try {
+            replay.record(shooter, row, col, result);
+        } catch (IOException e) {
+            e.printStackTrace();
+            replay = null;
+        }
+    }
+
+    /**
+     * Returns what the machine learned about the human, loading it on first use.
+     *
+     * @return the model, never null
+     */
+    public synchronized HumanTendencies tendencies() {
+        if (tendencies == null) tendencies = GameStateHandler.loadTendencies();
+        return tendencies;
+    }
+
+    /**
+     * Returns the weights the machine uses to look for the human's ships: what
+     * it learned about this human, or, before their first game, what the
+     * machines of every game in this JVM learned ({@link SharedTendencies}).
+     */
+    private double[] targetPriors() {
+        HumanTendencies model = tendencies();
+        if (model.getGames() > 0 && model.getSize() == Board.SIZE) return model.shipPriors();
+        return SharedTendencies.getInstance().snapshot(Board.SIZE).shipPriors();
+    }
+
+    /**
+     * Closes what the game that just ended leaves open. The last shot is
+     * recorded before the move to {@link GamePhase#OVER}, so the replay is complete.
+     */
+    private void endGame() {
+        learnFromGame();
+        finishReplay();
+    }
+
+    /**
+     * Adds the game that just ended to the human's tendencies and saves them
+     * in the background. One pass over the board; the game never waits for the file.
+     */
+    private void learnFromGame() {
+        if (human == null) return;
+        BoardSnapshot board = human.snapshot().getBoard();
+        SharedTendencies.getInstance().recordGame(board, firstShots, firstShotCount);
+        HumanTendencies model = tendencies();
+        model.recordGame(board, firstShots, firstShotCount);
+        HumanTendencies copy = model.copy();
+        CompletableFuture.runAsync(() -> GameStateHandler.saveTendencies(copy));
+    }
+
+    /**
+     * Finishes the current replay, writing its keyframe index.
+     */
+    public void finishReplay() {
+        if (replay == null) return;
+        try {
+            replay.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        replay = null;
     }
 
     /**
@@ -97,11 +450,13 @@ public class GameManager implements Serializable {
      * Clears players, board, turn, and position controller.
      */
     public void resetGame() {
+        turnTimeoutHandler = null;
+        finishReplay();
+        cancelMachinePlacement();
         this.human = null;
         this.machine = null;
-        this.isPlayerTurn = true;
+        forcePhase(GamePhase.PLACEMENT);
         this.playerBoardGrid = null;
-        this.gameOver = false;
         this.positionController = null;
     }
 
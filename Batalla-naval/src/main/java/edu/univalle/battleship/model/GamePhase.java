@@ -0,0 +1,59 @@
+package edu.univalle.battleship.model;
+
+/**
+ * Phases of a game, in the order they are normally visited.
+ * <p>
+ * {@link GameManager} keeps the current phase and only accepts the moves
+ * listed by {@link #canMoveTo(GamePhase)}.
+ */
+public enum GamePhase {
+    /** The human player is placing the fleet. */
+    PLACEMENT,
+
+    /** The human player may shoot. */
+    HUMAN_TURN,
+
+    /** The machine's shot is scheduled but has not started yet. */
+    MACHINE_THINKING,
+
+    /** The machine is shooting. */
+    MACHINE_TURN,
+
+    /** One of the fleets has been sunk. */
+    OVER;
+
+    /** Bit mask of the phases each phase may move to, indexed by ordinal. */
+    private static final int[] NEXT = {
+            bit(HUMAN_TURN),                                     // PLACEMENT
+            bit(MACHINE_THINKING) | bit(OVER),                   // HUMAN_TURN
+            bit(MACHINE_TURN),                                   // MACHINE_THINKING
+            bit(HUMAN_TURN) | bit(MACHINE_THINKING) | bit(OVER), // MACHINE_TURN
+            0                                                    // OVER
+    };
+
+    private static final GamePhase[] VALUES = values();
+
+    private static int bit(GamePhase phase) {
+        return 1 << phase.ordinal();
+    }
+
+    /**
+     * Returns whether a game in this phase may move to the given phase.
+     *
+     * @param next the phase to move to
+     * @return true if the move is allowed
+     */
+    public boolean canMoveTo(GamePhase next) {
+        return (NEXT[ordinal()] & bit(next)) != 0;
+    }
+
+    /**
+     * Returns the phase with the given ordinal.
+     *
+     * @param ordinal the ordinal of the phase
+     * @return the phase
+     */
+    static GamePhase of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -1,6 +1,15 @@
 package edu.univalle.battleship.model;
 
+import edu.univalle.battleship.model.codec.CodecException;
+import edu.univalle.battleship.model.codec.CodecFiles;
+import edu.univalle.battleship.model.codec.Compression;
+import edu.univalle.battleship.model.codec.HumanTendenciesCodec;
+import edu.univalle.battleship.model.serializable.ISerializableFileHandler;
+import edu.univalle.battleship.model.serializable.SerializableFileHandler;
+
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,10 +23,19 @@ public class GameStateHandler {
 
     private static final String SAVE_FILE = "savegame.dat";
 
+    private static final ISerializableFileHandler FILE_HANDLER = new SerializableFileHandler();
+
+    /** File with what the machine learned about the human, next to the save file. */
+    private static final Path TENDENCIES_FILE = Paths.get("tendencies.dat");
+
+    private static final HumanTendenciesCodec TENDENCIES_CODEC = new HumanTendenciesCodec();
+
     /**
      * Represents the state of a single ship for serialization.
      */
     public static class ShipState implements Serializable {
+        private static final long serialVersionUID = 4224263933281179978L;
+
         private String name;
         private int size;
         private int row, col;
@@ -30,6 +48,15 @@ public class GameStateHandler {
          * @param ship the ship to save
          */
         public ShipState(Ship ship) {
+            this(ship.snapshot());
+        }
+
+        /**
+         * Constructs a ShipState from an immutable ship snapshot.
+         *
+         * @param ship the snapshot to save
+         */
+        public ShipState(ShipSnapshot ship) {
             name = ship.getName();
             size = ship.getSize();
             row = ship.getRow();
@@ -56,6 +83,8 @@ public class GameStateHandler {
      * Stores the fleet and board cells.
      */
     public static class PlayerState implements Serializable {
+        private static final long serialVersionUID = 1988759136009749909L;
+
         private List<ShipState> fleet;
         private int[][] boardCells;
 
@@ -65,8 +94,20 @@ public class GameStateHandler {
          * @param player the player to save
          */
         public PlayerState(Player player) {
+            this(player.snapshot());
+        }
+
+        /**
+         * Constructs a PlayerState from an immutable player snapshot.
+         * <p>
+         * The board cells are copied out of the snapshot, so the saved state
+         * never shares the live array with the running game.
+         *
+         * @param player the snapshot to save
+         */
+        public PlayerState(PlayerSnapshot player) {
             fleet = new ArrayList<>();
-            for (Ship s : player.getFleet()) fleet.add(new ShipState(s));
+            for (ShipSnapshot s : player.getFleet()) fleet.add(new ShipState(s));
             boardCells = player.getBoard().getCells();
         }
 
@@ -92,6 +133,8 @@ public class GameStateHandler {
      * Contains the state of the human player and the machine.
      */
     public static class GameState implements Serializable {
+        private static final long serialVersionUID = 5684169809440243073L;
+
         private PlayerState playerState;
         private PlayerState machineState;
 
@@ -102,24 +145,18 @@ public class GameStateHandler {
          * @param machine the machine player
          */
         public GameState(Player player, MachinePlayer machine) {
-            this.playerState = new PlayerState(player);
-            this.machineState = new PlayerState(machineToPlayer(machine));
+            this(player.snapshot(), machine.snapshot());
         }
 
         /**
-         * Converts a MachinePlayer to a Player object for saving.
+         * Constructs a GameState from snapshots of both players.
          *
-         * @param m the machine player
-         * @return a Player object representing the machine
+         * @param player  snapshot of the human player
+         * @param machine snapshot of the machine player
          */
-        private Player machineToPlayer(MachinePlayer m) {
-            Player temp = new Player();
-            for (Ship s : m.getFleet()) {
-                temp.addShip(s);
-                temp.getBoard().placeShip(s);
-            }
-            temp.getBoard().setCells(m.getBoard().getCells());
-            return temp;
+        public GameState(PlayerSnapshot player, PlayerSnapshot machine) {
+            this.playerState = new PlayerState(player);
+            this.machineState = new PlayerState(machine);
         }
 
         public PlayerState getPlayerState() { return playerState; }
@@ -133,10 +170,23 @@ public class GameStateHandler {
      * @param machine the machine player
      */
     public static void saveGame(Player player, MachinePlayer machine) {
+        saveGame(player.snapshot(), machine.snapshot());
+    }
+
+    /**
+     * Saves the game state captured in the given snapshots.
+     * <p>
+     * Snapshots are immutable, so this can run on any thread while the
+     * game keeps going.
+     *
+     * @param player  snapshot of the human player
+     * @param machine snapshot of the machine player
+     */
+    public static void saveGame(PlayerSnapshot player, PlayerSnapshot machine) {
         GameState state = new GameState(player, machine);
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
-            out.writeObject(state);
-        } catch (IOException e) {
+        try {
+            FILE_HANDLER.serialize(SAVE_FILE, state);
+        } catch (CodecException e) {
             e.printStackTrace();
         }
     }
@@ -144,17 +194,46 @@ public class GameStateHandler {
     /**
      * Loads the game state from the save file.
      *
-     * @return the GameState object, or null if an error occurs
+     * @return the GameState object, or null if there is no save or an error occurs
      */
     public static GameState loadGame() {
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(SAVE_FILE))) {
-            return (GameState) in.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
+        try {
+            Object state = FILE_HANDLER.deserialize(SAVE_FILE);
+            if (state instanceof GameState gameState) return gameState;
+        } catch (CodecException e) {
+            if (e.getKind() != CodecException.Kind.NOT_FOUND) e.printStackTrace();
         }
         return null;
     }
 
+    /**
+     * Saves what the machine learned about the human.
+     *
+     * @param tendencies the model to save; should not change while it is written
+     */
+    public static void saveTendencies(HumanTendencies tendencies) {
+        try {
+            CodecFiles.write(TENDENCIES_FILE, TENDENCIES_CODEC, Compression.NONE, tendencies);
+        } catch (CodecException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads what the machine learned about the human.
+     *
+     * @return the stored model, or an empty one for the current board size if
+     *         there is none or it cannot be read
+     */
+    public static HumanTendencies loadTendencies() {
+        try {
+            return CodecFiles.read(TENDENCIES_FILE, TENDENCIES_CODEC, Compression.NONE);
+        } catch (CodecException e) {
+            if (e.getKind() != CodecException.Kind.NOT_FOUND) e.printStackTrace();
+        }
+        return new HumanTendencies(Board.SIZE);
+    }
+
     /**
      * Loads the human player from the saved game.
      *
@@ -0,0 +1,232 @@
+package edu.univalle.battleship.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer for large numbers of short-lived timeouts, such as one turn clock per game.
+ * <p>
+ * Timeouts are kept in a ring of buckets, one per tick; a single daemon thread
+ * advances one bucket per tick and runs the timeouts that are due. Scheduling
+ * pushes the timeout on a lock-free stack that the thread drains into the
+ * ring, and cancelling only flips its state; the thread unlinks it the next
+ * time it visits the bucket. Both are O(1) and allocate nothing besides the
+ * {@link Timeout} itself, unlike one task per timeout in a
+ * {@link java.util.concurrent.ScheduledExecutorService}, whose heap costs
+ * O(log n) per operation.
+ * <p>
+ * Timeouts fire up to one tick late. Tasks run on the timer's thread, so they
+ * must be short; anything longer should be handed to another thread.
+ */
+public class HashedWheelTimer {
+
+    /** Tick used by {@link #getShared()}. */
+    public static final long SHARED_TICK_MS = 10;
+
+    /** Buckets in the ring of {@link #getShared()}; one turn of the ring is about 5 seconds. */
+    public static final int SHARED_WHEEL_SIZE = 512;
+
+    private static class Holder {
+        private static final HashedWheelTimer SHARED =
+                new HashedWheelTimer(SHARED_TICK_MS, TimeUnit.MILLISECONDS, SHARED_WHEEL_SIZE, "turn-timer");
+    }
+
+    /**
+     * Returns the timer shared by every game in this JVM, for turn clocks.
+     *
+     * @return the shared timer
+     */
+    public static HashedWheelTimer getShared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * A scheduled task, which may be cancelled until it runs.
+     */
+    public static final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final Runnable task;
+
+        /** Deadline, in nanoseconds since the timer started. */
+        private final long deadline;
+
+        private volatile int state;
+
+        // Solo los usa el hilo del temporizador
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private boolean linked;
+
+        /** Next timeout in the stack of timeouts waiting to enter the ring. */
+        private Timeout nextPending;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task unless it already ran or is running.
+         *
+         * @return true if this call cancelled it
+         */
+        public boolean cancel() {
+            return STATE.compareAndSet(this, PENDING, CANCELLED);
+        }
+
+        /** @return true if the task was cancelled */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /** @return true if the task ran or is running */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout[] heads;
+    private final Timeout[] tails;
+
+    /** Timeouts scheduled since the thread last drained them, newest first. */
+    private final AtomicReference<Timeout> pending = new AtomicReference<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean stopped;
+
+    /** Ticks completed; only used by the timer's thread. */
+    private long tick;
+
+    /**
+     * Creates a timer and starts its thread.
+     *
+     * @param tickDuration time between two buckets
+     * @param unit         unit of {@code tickDuration}
+     * @param wheelSize    number of buckets, rounded up to a power of two
+     * @param threadName   name of the timer's daemon thread
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.heads = new Timeout[size];
+        this.tails = new Timeout[size];
+        this.worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param task  the task, run on the timer's thread
+     * @param delay time until the task runs
+     * @param unit  unit of {@code delay}
+     * @return the timeout, to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) throw new IllegalStateException("Timer is stopped");
+        Timeout timeout = new Timeout(task, System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay)));
+        Timeout head;
+        do {
+            head = pending.get();
+            timeout.nextPending = head;
+        } while (!pending.compareAndSet(head, timeout));
+        return timeout;
+    }
+
+    /**
+     * Stops the timer; tasks not yet run never run.
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime() - startNanos) < deadline) {
+                LockSupport.parkNanos(this, deadline - now);
+                if (stopped) return;
+            }
+            transferPending();
+            expire((int) (tick & mask), now);
+            tick++;
+        }
+    }
+
+    /**
+     * Moves scheduled timeouts from the stack into their buckets.
+     */
+    private void transferPending() {
+        Timeout timeout = pending.getAndSet(null);
+        while (timeout != null) {
+            Timeout nextPending = timeout.nextPending;
+            timeout.nextPending = null;
+            if (timeout.state == Timeout.PENDING) {
+                long due = timeout.deadline / tickNanos;
+                // Un plazo ya vencido va al bucket actual
+                long slot = Math.max(due, tick);
+                timeout.remainingRounds = (slot - tick) / heads.length;
+                link((int) (slot & mask), timeout);
+            }
+            timeout = nextPending;
+        }
+    }
+
+    private void expire(int bucket, long now) {
+        Timeout timeout = heads[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state != Timeout.PENDING) {
+                unlink(bucket, timeout);
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= now) {
+                unlink(bucket, timeout);
+                if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    private void link(int bucket, Timeout timeout) {
+        timeout.prev = tails[bucket];
+        timeout.next = null;
+        if (tails[bucket] != null) tails[bucket].next = timeout;
+        else heads[bucket] = timeout;
+        tails[bucket] = timeout;
+        timeout.linked = true;
+    }
+
+    private void unlink(int bucket, Timeout timeout) {
+        if (!timeout.linked) return;
+        if (timeout.prev != null) timeout.prev.next = timeout.next;
+        else heads[bucket] = timeout.next;
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        else tails[bucket] = timeout.prev;
+        timeout.next = null;
+        timeout.prev = null;
+        timeout.linked = false;
+    }
+}
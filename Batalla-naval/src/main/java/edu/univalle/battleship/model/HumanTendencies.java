@@ -0,0 +1,123 @@
+package edu.univalle.battleship.model;
+
+/**
+ * What the machine has learned about how this human plays.
+ * <p>
+ * Two counters are kept per cell: how many finished games had one of the
+ * human's ships on that cell, and how many times the human fired at that cell
+ * among their first {@link #FIRST_SHOTS} shots. Recording a game costs one pass
+ * over the board. The counters are stored with
+ * {@link edu.univalle.battleship.model.codec.HumanTendenciesCodec}.
+ * <p>
+ * Counters are only valid for one board size; recording a game of another size
+ * starts again from zero.
+ */
+public class HumanTendencies {
+
+    /** Number of shots at the start of a game that count as fired first. */
+    public static final int FIRST_SHOTS = 10;
+
+    private int size;
+    private int games;
+    private int[] shipCounts;
+    private int[] firstShotCounts;
+
+    /**
+     * Creates an empty model for the given board size.
+     *
+     * @param size the board size (NxN)
+     */
+    public HumanTendencies(int size) {
+        this(size, 0, new int[size * size], new int[size * size]);
+    }
+
+    /**
+     * Creates a model from stored counters.
+     *
+     * @param size            the board size (NxN)
+     * @param games           the number of games recorded
+     * @param shipCounts      games with a human ship per cell, in row-major order
+     * @param firstShotCounts early human shots per cell, in row-major order
+     */
+    public HumanTendencies(int size, int games, int[] shipCounts, int[] firstShotCounts) {
+        if (shipCounts.length != size * size || firstShotCounts.length != size * size) {
+            throw new IllegalArgumentException("Counters do not match a " + size + "x" + size + " board");
+        }
+        this.size = size;
+        this.games = games;
+        this.shipCounts = shipCounts;
+        this.firstShotCounts = firstShotCounts;
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param humanBoard the human's board at the end of the game
+     * @param firstShots cells of the human's first shots, as {@code row * size + col}
+     * @param shotCount  how many entries of {@code firstShots} are used
+     */
+    public synchronized void recordGame(BoardSnapshot humanBoard, int[] firstShots, int shotCount) {
+        if (humanBoard.getSize() != size) {
+            size = humanBoard.getSize();
+            games = 0;
+            shipCounts = new int[size * size];
+            firstShotCounts = new int[size * size];
+        }
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int cell = humanBoard.getCell(r, c);
+                if (cell >= 1 && cell <= 3) shipCounts[r * size + c]++; // barco, tocado o hundido
+            }
+        }
+        for (int i = 0; i < Math.min(shotCount, FIRST_SHOTS); i++) {
+            if (firstShots[i] >= 0 && firstShots[i] < firstShotCounts.length) firstShotCounts[firstShots[i]]++;
+        }
+        games++;
+    }
+
+    /**
+     * Returns, for each cell, the estimated chance that the human puts a ship
+     * there. With no games recorded every cell gets the same value.
+     *
+     * @return values in row-major order
+     */
+    public synchronized double[] shipPriors() {
+        double[] priors = new double[size * size];
+        for (int i = 0; i < priors.length; i++) priors[i] = (shipCounts[i] + 1.0) / (games + 2.0);
+        return priors;
+    }
+
+    /**
+     * Returns, for each cell, how often the human fired at it among their
+     * first shots, per game.
+     *
+     * @return values in row-major order, zero with no games recorded
+     */
+    public synchronized double[] firstShotRates() {
+        double[] rates = new double[size * size];
+        if (games == 0) return rates;
+        for (int i = 0; i < rates.length; i++) rates[i] = (double) firstShotCounts[i] / games;
+        return rates;
+    }
+
+    /**
+     * Returns a copy of this model, safe to write while this one keeps learning.
+     *
+     * @return a new HumanTendencies with the same counters
+     */
+    public synchronized HumanTendencies copy() {
+        return new HumanTendencies(size, games, shipCounts.clone(), firstShotCounts.clone());
+    }
+
+    /** @return the board size (NxN) */
+    public synchronized int getSize() { return size; }
+
+    /** @return the number of games recorded */
+    public synchronized int getGames() { return games; }
+
+    /** @return a copy of the ship counters, in row-major order */
+    public synchronized int[] getShipCounts() { return shipCounts.clone(); }
+
+    /** @return a copy of the first-shot counters, in row-major order */
+    public synchronized int[] getFirstShotCounts() { return firstShotCounts.clone(); }
+}
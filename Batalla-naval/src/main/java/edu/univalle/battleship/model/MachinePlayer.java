@@ -25,12 +25,34 @@ public class MachinePlayer implements Serializable {
      * using the HuntTargetShootingStrategy by default.
      */
     public MachinePlayer() {
+        this(new HuntTargetShootingStrategy()); // AI strategy
+    }
+
+    /**
+     * Constructs a new MachinePlayer with an empty board and fleet,
+     * shooting with the given strategy.
+     *
+     * @param strategy the shooting strategy to use
+     */
+    public MachinePlayer(IShootingStrategy strategy) {
         this.board = new Board();
         this.fleet = new ArrayList<>();
-        this.strategy = new HuntTargetShootingStrategy(); // AI strategy
+        this.strategy = strategy;
         this.random = new Random();
     }
 
+    /**
+     * Constructs a new MachinePlayer whose automatic fleet placement is
+     * reproducible, for simulations split by seed.
+     *
+     * @param strategy the shooting strategy to use
+     * @param seed     seed of the fleet placement
+     */
+    public MachinePlayer(IShootingStrategy strategy, long seed) {
+        this(strategy);
+        this.random = new Random(seed);
+    }
+
     /**
      * Returns the board of the machine player.
      *
@@ -49,6 +71,15 @@ public class MachinePlayer implements Serializable {
         return fleet;
     }
 
+    /**
+     * Takes an immutable snapshot of the machine's board and fleet.
+     *
+     * @return a new {@link PlayerSnapshot}
+     */
+    public PlayerSnapshot snapshot() {
+        return new PlayerSnapshot(board, fleet);
+    }
+
     /**
      * Automatically places a standard fleet on the board.
      * <p>
@@ -56,16 +87,7 @@ public class MachinePlayer implements Serializable {
      */
     public void placeFleetAutomatically() {
 
-        fleet.add(new Ship("Carrier", 4));
-        fleet.add(new Ship("Submarine 1", 3));
-        fleet.add(new Ship("Submarine 2", 3));
-        fleet.add(new Ship("Destroyer 1", 2));
-        fleet.add(new Ship("Destroyer 2", 2));
-        fleet.add(new Ship("Destroyer 3", 2));
-        fleet.add(new Ship("Patrol 1", 1));
-        fleet.add(new Ship("Patrol 2", 1));
-        fleet.add(new Ship("Patrol 3", 1));
-        fleet.add(new Ship("Patrol 4", 1));
+        fleet.addAll(standardFleet());
 
         // Try to place each ship randomly on the board
         for (Ship ship : fleet) {
@@ -87,6 +109,53 @@ public class MachinePlayer implements Serializable {
         }
     }
 
+    /**
+     * Places the fleet on the given layout, usually one chosen by a {@link FleetPlanner}.
+     * <p>
+     * If the layout does not fit this board (for example, it was planned for
+     * another board size), the fleet is placed randomly instead.
+     *
+     * @param layout the ships to place
+     */
+    public void placeFleet(List<ShipSnapshot> layout) {
+        Board check = new Board();
+        for (ShipSnapshot planned : layout) {
+            Ship ship = planned.toShip();
+            if (!check.canPlace(ship, planned.getRow(), planned.getColumn(), planned.getOrientation())) {
+                placeFleetAutomatically();
+                return;
+            }
+            check.placeShip(ship);
+        }
+        for (ShipSnapshot planned : layout) {
+            Ship ship = planned.toShip();
+            fleet.add(ship);
+            board.placeShip(ship);
+        }
+    }
+
+    /**
+     * Returns the ships of a standard fleet, not yet placed.
+     * <p>
+     * Uses the same ship sizes as in the PositionController.
+     *
+     * @return a new list of ships
+     */
+    public static List<Ship> standardFleet() {
+        List<Ship> ships = new ArrayList<>();
+        ships.add(new Ship("Carrier", 4));
+        ships.add(new Ship("Submarine 1", 3));
+        ships.add(new Ship("Submarine 2", 3));
+        ships.add(new Ship("Destroyer 1", 2));
+        ships.add(new Ship("Destroyer 2", 2));
+        ships.add(new Ship("Destroyer 3", 2));
+        ships.add(new Ship("Patrol 1", 1));
+        ships.add(new Ship("Patrol 2", 1));
+        ships.add(new Ship("Patrol 3", 1));
+        ships.add(new Ship("Patrol 4", 1));
+        return ships;
+    }
+
     /**
      * Returns the coordinates of the last shot fired by the machine.
      *
@@ -96,6 +165,16 @@ public class MachinePlayer implements Serializable {
         return strategy.getLastShotCoordinates();
     }
 
+    /**
+     * Biases where the machine looks for ships, for example by what it learned
+     * about the human in earlier games ({@link HumanTendencies#shipPriors()}).
+     *
+     * @param priors weights per cell in row-major order, or null for no bias
+     */
+    public void setTargetPriors(double[] priors) {
+        strategy.setPriors(priors);
+    }
+
     /**
      * Fires a shot at the given player's board using the machine's strategy.
      * <p>
@@ -107,4 +186,28 @@ public class MachinePlayer implements Serializable {
     public String shoot(Player player) {
         return strategy.shoot(player.getBoard());
     }
+
+    /**
+     * Fires a shot at the given board using the machine's strategy.
+     * Used when two machines play each other.
+     *
+     * @param target the board to shoot at
+     * @return a string describing the result of the shot
+     */
+    public String shoot(Board target) {
+        return strategy.shoot(target);
+    }
+
+    /**
+     * Checks if all ships of this machine have been sunk.
+     *
+     * @return true if the whole fleet is sunk; false while no ship is placed
+     */
+    public boolean isDefeated() {
+        if (fleet.isEmpty()) return false;
+        for (Ship ship : fleet) {
+            if (!ship.isSunk()) return false;
+        }
+        return true;
+    }
 }
@@ -51,4 +51,13 @@ public class Player implements Serializable {
     public void addShip(Ship ship) {
         fleet.add(ship);
     }
+
+    /**
+     * Takes an immutable snapshot of the player's board and fleet.
+     *
+     * @return a new {@link PlayerSnapshot}
+     */
+    public PlayerSnapshot snapshot() {
+        return new PlayerSnapshot(board, fleet);
+    }
 }
@@ -0,0 +1,60 @@
+package edu.univalle.battleship.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, point-in-time copy of a player's board and fleet.
+ * <p>
+ * Used to hand a consistent view of a {@link Player} or {@link MachinePlayer}
+ * to savers and background readers.
+ */
+public final class PlayerSnapshot implements Serializable {
+
+    /** Pinned to the value computed before it was declared, so existing saves still load. */
+    private static final long serialVersionUID = 260001578868713934L;
+
+    /** Snapshot of the player's board. */
+    private final BoardSnapshot board;
+
+    /** Snapshot of the player's fleet. */
+    private final List<ShipSnapshot> fleet;
+
+    /**
+     * Captures the given board and fleet.
+     *
+     * @param board the live board
+     * @param fleet the live fleet
+     */
+    PlayerSnapshot(Board board, List<Ship> fleet) {
+        this.board = board.snapshot();
+        List<ShipSnapshot> copy = new ArrayList<>(fleet.size());
+        for (Ship ship : fleet) copy.add(ship.snapshot());
+        this.fleet = Collections.unmodifiableList(copy);
+    }
+
+    /** @return the board snapshot */
+    public BoardSnapshot getBoard() {
+        return board;
+    }
+
+    /** @return the fleet, as an unmodifiable list */
+    public List<ShipSnapshot> getFleet() {
+        return fleet;
+    }
+
+    /**
+     * Checks if every ship of the fleet was sunk when the snapshot was taken.
+     *
+     * @return true if the fleet is not empty and all ships are sunk
+     */
+    public boolean isDefeated() {
+        if (fleet.isEmpty()) return false;
+        for (ShipSnapshot ship : fleet) {
+            if (!ship.isSunk()) return false;
+        }
+        return true;
+    }
+}
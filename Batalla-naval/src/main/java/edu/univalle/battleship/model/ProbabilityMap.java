@@ -0,0 +1,152 @@
+package edu.univalle.battleship.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Estimates, for each cell of an opponent board, how likely it is to hold a ship.
+ * <p>
+ * Only what the shooter can see is used: hits, misses, sunk cells and the sizes
+ * of the ships that are still afloat. Every way of placing a remaining ship that
+ * avoids misses and sunk cells adds its weight to the cells it covers; placements
+ * that cover known hits weigh more, so the cells around a hit stand out.
+ * <p>
+ * After a hit or a miss only the placements through the shot cell are updated.
+ * A sink changes the remaining ships, so the whole map is recomputed.
+ * <p>
+ * Not thread-safe; meant to be owned by a single background thread.
+ */
+public class ProbabilityMap {
+
+    /** Extra weight of a placement for each known hit it covers. */
+    private static final double HIT_WEIGHT = 8;
+
+    private static final int UNKNOWN = 0;
+    private static final int HIT = 2;
+    private static final int SUNK = 3;
+    private static final int MISS = 4;
+
+    private final int size;
+    private final int[] known;
+    private final double[] density;
+    private final List<Integer> remaining = new ArrayList<>();
+
+    /**
+     * Creates the map from the current state of a board.
+     *
+     * @param board a snapshot of the opponent board
+     */
+    public ProbabilityMap(BoardSnapshot board) {
+        this.size = board.getSize();
+        this.known = new int[size * size];
+        this.density = new double[size * size];
+        reset(board);
+    }
+
+    /**
+     * Recomputes the whole map from a board snapshot.
+     *
+     * @param board a snapshot of the opponent board
+     */
+    public void reset(BoardSnapshot board) {
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) known[r * size + c] = visible(board.getCell(r, c));
+        }
+        remaining.clear();
+        for (ShipSnapshot ship : board.getShips()) {
+            if (!ship.isSunk()) remaining.add(ship.getSize());
+        }
+
+        Arrays.fill(density, 0);
+        for (int length : remaining) {
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    addPlacement(r, c, 0, 1, length, 1);
+                    if (length > 1) addPlacement(r, c, 1, 0, length, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the map after a shot at the given cell.
+     *
+     * @param row   the row of the shot
+     * @param col   the column of the shot
+     * @param board a snapshot of the board taken after the shot
+     */
+    public void update(int row, int col, BoardSnapshot board) {
+        int index = row * size + col;
+        int after = visible(board.getCell(row, col));
+        if (after == SUNK || after == known[index]) {
+            if (after == SUNK) reset(board);
+            return;
+        }
+
+        // Quita el peso de las ubicaciones que pasan por la celda y lo vuelve a sumar con el nuevo estado
+        for (int length : remaining) {
+            forEachPlacementThrough(row, col, length, -1);
+        }
+        known[index] = after;
+        for (int length : remaining) {
+            forEachPlacementThrough(row, col, length, 1);
+        }
+    }
+
+    /**
+     * Returns the estimate for every cell, scaled so the most likely cell is 1.
+     * Cells already shot are 0.
+     *
+     * @return values in row-major order, between 0 and 1
+     */
+    public float[] normalized() {
+        double max = 0;
+        for (int i = 0; i < density.length; i++) {
+            if (known[i] == UNKNOWN && density[i] > max) max = density[i];
+        }
+        float[] heat = new float[density.length];
+        if (max <= 0) return heat;
+        for (int i = 0; i < density.length; i++) {
+            if (known[i] == UNKNOWN) heat[i] = (float) (density[i] / max);
+        }
+        return heat;
+    }
+
+    /** @return the size of the board (NxN) */
+    public int getSize() {
+        return size;
+    }
+
+    private void forEachPlacementThrough(int row, int col, int length, int sign) {
+        for (int k = 0; k < length; k++) {
+            addPlacement(row, col - k, 0, 1, length, sign);
+            if (length > 1) addPlacement(row - k, col, 1, 0, length, sign);
+        }
+    }
+
+    /**
+     * Adds (or removes, with sign -1) the weight of one placement to the cells it covers.
+     */
+    private void addPlacement(int row, int col, int dRow, int dCol, int length, int sign) {
+        int endRow = row + dRow * (length - 1);
+        int endCol = col + dCol * (length - 1);
+        if (row < 0 || col < 0 || endRow >= size || endCol >= size) return;
+
+        int hits = 0;
+        for (int k = 0; k < length; k++) {
+            int status = known[(row + dRow * k) * size + col + dCol * k];
+            if (status == MISS || status == SUNK) return;
+            if (status == HIT) hits++;
+        }
+        double weight = sign * (1 + HIT_WEIGHT * hits);
+        for (int k = 0; k < length; k++) {
+            density[(row + dRow * k) * size + col + dCol * k] += weight;
+        }
+    }
+
+    /** Hides intact ships, which the shooter cannot see. */
+    private static int visible(int cell) {
+        return cell == 1 ? UNKNOWN : cell;
+    }
+}
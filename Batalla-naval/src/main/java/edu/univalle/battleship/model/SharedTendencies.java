@@ -0,0 +1,179 @@
+package edu.univalle.battleship.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What the machines of every game in this JVM have learned about human players.
+ * <p>
+ * Where {@link HumanTendencies} follows one human across games, this model is
+ * fed by all sessions at once. Each cell counter is a {@link LongAdder}, which
+ * spreads concurrent increments over several padded cells instead of fighting
+ * over one word, so recording a game never takes a lock.
+ * <p>
+ * Readers never see the counters. A daemon thread sums them every
+ * {@link #PUBLISH_INTERVAL_MS} milliseconds, only if something was recorded,
+ * into an immutable {@link Snapshot} that any number of machines may share.
+ * Counters are kept separately for each board size.
+ */
+public class SharedTendencies {
+
+    /** Time between two published snapshots. */
+    public static final long PUBLISH_INTERVAL_MS = 1000;
+
+    private static class Holder {
+        private static final SharedTendencies INSTANCE = new SharedTendencies();
+    }
+
+    /**
+     * Returns the model shared by every game in this JVM.
+     *
+     * @return the single instance
+     */
+    public static SharedTendencies getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Published, immutable state of the counters for one board size.
+     */
+    public static final class Snapshot {
+        private final int size;
+        private final long games;
+        private final double[] shipPriors;
+        private final double[] firstShotRates;
+
+        private Snapshot(int size, long games, long[] shipCounts, long[] firstShotCounts) {
+            this.size = size;
+            this.games = games;
+            this.shipPriors = new double[size * size];
+            this.firstShotRates = new double[size * size];
+            for (int i = 0; i < shipPriors.length; i++) {
+                shipPriors[i] = (shipCounts[i] + 1.0) / (games + 2.0);
+                firstShotRates[i] = games == 0 ? 0 : (double) firstShotCounts[i] / games;
+            }
+        }
+
+        /** @return the board size (NxN) */
+        public int getSize() { return size; }
+
+        /** @return the number of games recorded when this snapshot was published */
+        public long getGames() { return games; }
+
+        /**
+         * Same estimate as {@link HumanTendencies#shipPriors()}, over all humans.
+         *
+         * @return a copy of the values, in row-major order
+         */
+        public double[] shipPriors() { return shipPriors.clone(); }
+
+        /**
+         * Same estimate as {@link HumanTendencies#firstShotRates()}, over all humans.
+         *
+         * @return a copy of the values, in row-major order
+         */
+        public double[] firstShotRates() { return firstShotRates.clone(); }
+    }
+
+    /**
+     * Live counters for one board size.
+     */
+    private static final class Counters {
+        final int size;
+        final LongAdder games = new LongAdder();
+        final LongAdder[] shipCounts;
+        final LongAdder[] firstShotCounts;
+
+        /** Set by writers, cleared by the publisher; only written when it changes. */
+        volatile boolean dirty;
+
+        Counters(int size) {
+            this.size = size;
+            this.shipCounts = new LongAdder[size * size];
+            this.firstShotCounts = new LongAdder[size * size];
+            for (int i = 0; i < shipCounts.length; i++) {
+                shipCounts[i] = new LongAdder();
+                firstShotCounts[i] = new LongAdder();
+            }
+        }
+
+        Snapshot sum() {
+            long[] ships = new long[shipCounts.length];
+            long[] shots = new long[firstShotCounts.length];
+            for (int i = 0; i < ships.length; i++) {
+                ships[i] = shipCounts[i].sum();
+                shots[i] = firstShotCounts[i].sum();
+            }
+            return new Snapshot(size, games.sum(), ships, shots);
+        }
+    }
+
+    private final Map<Integer, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<Integer, Snapshot> published = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tendency-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SharedTendencies() {
+        publisher.scheduleWithFixedDelay(this::publish, PUBLISH_INTERVAL_MS, PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a finished game. Safe to call from any number of threads.
+     *
+     * @param humanBoard the human's board at the end of the game
+     * @param firstShots cells of the human's first shots, as {@code row * size + col}
+     * @param shotCount  how many entries of {@code firstShots} are used
+     */
+    public void recordGame(BoardSnapshot humanBoard, int[] firstShots, int shotCount) {
+        int size = humanBoard.getSize();
+        Counters live = counters.computeIfAbsent(size, Counters::new);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int cell = humanBoard.getCell(r, c);
+                if (cell >= 1 && cell <= 3) live.shipCounts[r * size + c].increment();
+            }
+        }
+        for (int i = 0; i < Math.min(shotCount, HumanTendencies.FIRST_SHOTS); i++) {
+            if (firstShots[i] >= 0 && firstShots[i] < live.firstShotCounts.length) {
+                live.firstShotCounts[firstShots[i]].increment();
+            }
+        }
+        live.games.increment();
+        if (!live.dirty) live.dirty = true; // solo se escribe si cambia, para no invalidar la línea en cada partida
+    }
+
+    /**
+     * Returns the last published snapshot for a board size.
+     *
+     * @param size the board size (NxN)
+     * @return the snapshot; empty (no games) if nothing was published yet
+     */
+    public Snapshot snapshot(int size) {
+        Snapshot snapshot = published.get(size);
+        return snapshot != null ? snapshot : new Snapshot(size, 0, new long[size * size], new long[size * size]);
+    }
+
+    /**
+     * Publishes every board size with new games right away, without waiting
+     * for the next interval.
+     */
+    public synchronized void publish() {
+        try {
+            for (Counters live : counters.values()) {
+                if (!live.dirty) continue;
+                live.dirty = false;
+                published.put(live.size, live.sum());
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -142,6 +142,15 @@ public class Ship implements Serializable {
         return hits.clone();
     }
 
+    /**
+     * Takes an immutable snapshot of the ship's position and hits.
+     *
+     * @return a new ShipSnapshot
+     */
+    public ShipSnapshot snapshot() {
+        return new ShipSnapshot(this);
+    }
+
     /**
      * Restores the hits array from a previously saved state.
      *
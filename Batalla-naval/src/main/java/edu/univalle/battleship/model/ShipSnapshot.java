@@ -0,0 +1,125 @@
+package edu.univalle.battleship.model;
+
+import java.io.Serializable;
+
+/**
+ * Immutable, point-in-time copy of a {@link Ship}.
+ * <p>
+ * A snapshot never changes after it is created, so it can be handed to
+ * other threads (savers, spectators, AI workers) while the live ship keeps
+ * receiving hits.
+ */
+public final class ShipSnapshot implements Serializable {
+
+    /** Pinned to the value computed before it was declared, so existing saves still load. */
+    private static final long serialVersionUID = -4906934415694139262L;
+
+    /** The name of the ship. */
+    private final String name;
+
+    /** The size of the ship. */
+    private final int size;
+
+    /** The starting row of the ship. */
+    private final int row;
+
+    /** The starting column of the ship. */
+    private final int column;
+
+    /** The orientation of the ship. */
+    private final Orientation orientation;
+
+    /** Private copy of the hits per cell. */
+    private final boolean[] hits;
+
+    /**
+     * Captures the current state of the given ship.
+     *
+     * @param ship the ship to copy
+     */
+    ShipSnapshot(Ship ship) {
+        this.name = ship.getName();
+        this.size = ship.getSize();
+        this.row = ship.getRow();
+        this.column = ship.getColumn();
+        this.orientation = ship.getOrientation();
+        this.hits = ship.getHitsArray();
+    }
+
+    /** @return the name of the ship */
+    public String getName() {
+        return name;
+    }
+
+    /** @return the size of the ship */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return the starting row of the ship */
+    public int getRow() {
+        return row;
+    }
+
+    /** @return the starting column of the ship */
+    public int getColumn() {
+        return column;
+    }
+
+    /** @return the orientation of the ship */
+    public Orientation getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Returns a copy of the hits captured by this snapshot.
+     *
+     * @return a boolean array indicating hits on each cell
+     */
+    public boolean[] getHitsArray() {
+        return hits.clone();
+    }
+
+    /**
+     * Checks if the ship was sunk when the snapshot was taken.
+     *
+     * @return {@code true} if every cell had been hit
+     */
+    public boolean isSunk() {
+        for (boolean h : hits) {
+            if (!h) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the positions occupied by the ship.
+     *
+     * @return a 2D array where each element is a {row, column} coordinate
+     */
+    public int[][] getPositions() {
+        int[][] positions = new int[size][2];
+        for (int i = 0; i < size; i++) {
+            if (orientation == Orientation.HORIZONTAL) {
+                positions[i][0] = row;
+                positions[i][1] = column + i;
+            } else {
+                positions[i][0] = row + i;
+                positions[i][1] = column;
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Rebuilds a mutable {@link Ship} with the same position and hits.
+     *
+     * @return a new Ship object
+     */
+    public Ship toShip() {
+        Ship ship = new Ship(name, size);
+        ship.place(row, column, orientation);
+        ship.restoreHits(hits);
+        return ship;
+    }
+}
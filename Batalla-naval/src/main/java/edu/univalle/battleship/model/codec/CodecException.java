@@ -0,0 +1,56 @@
+package edu.univalle.battleship.model.codec;
+
+import java.io.IOException;
+
+/**
+ * Class {@code CodecException}
+ *
+ * <p>Typed failure raised by codecs and file handlers. The {@link Kind} tells the
+ * caller what went wrong without having to inspect messages or causes.</p>
+ */
+public class CodecException extends IOException {
+
+    /**
+     * Category of a codec failure.
+     */
+    public enum Kind {
+        /** The file does not exist. */
+        NOT_FOUND,
+        /** The data could not be decoded (bad header, truncated, wrong class). */
+        CORRUPT,
+        /** The codec cannot handle the given value or format. */
+        UNSUPPORTED,
+        /** Any other I/O error while reading or writing. */
+        IO
+    }
+
+    private final Kind kind;
+
+    /**
+     * Creates a new exception of the given kind.
+     *
+     * @param kind    the failure category
+     * @param message the detail message
+     */
+    public CodecException(Kind kind, String message) {
+        super(message);
+        this.kind = kind;
+    }
+
+    /**
+     * Creates a new exception of the given kind wrapping a cause.
+     *
+     * @param kind    the failure category
+     * @param message the detail message
+     * @param cause   the underlying error
+     */
+    public CodecException(Kind kind, String message, Throwable cause) {
+        super(message, cause);
+        this.kind = kind;
+    }
+
+    /** @return the failure category */
+    public Kind getKind() {
+        return kind;
+    }
+}
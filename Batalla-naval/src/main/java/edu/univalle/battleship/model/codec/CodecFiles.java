@@ -0,0 +1,135 @@
+package edu.univalle.battleship.model.codec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.ZipException;
+
+/**
+ * Class {@code CodecFiles}
+ *
+ * <p>Reads and writes files through a codec over a buffered {@link FileChannel},
+ * with optional compression. All failures are reported as {@link CodecException}.</p>
+ */
+public final class CodecFiles {
+
+    /** Buffer size used for file and compression streams. */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private CodecFiles() {}
+
+    /**
+     * Encodes a value into a file, replacing any previous content.
+     *
+     * @param path        the file to write
+     * @param codec       the codec to use
+     * @param compression the compression to apply
+     * @param value       the value to write
+     * @param <T>         the value type
+     * @throws CodecException if the value cannot be encoded or written
+     */
+    public static <T> void write(Path path, ICodec<T> codec, Compression compression, T value) throws CodecException {
+        try (OutputStream out = openOutput(path, compression)) {
+            codec.encode(value, out);
+        } catch (CodecException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot write " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes a value from a file.
+     *
+     * @param path        the file to read
+     * @param codec       the codec to use
+     * @param compression the compression the file was written with
+     * @param <T>         the value type
+     * @return the decoded value
+     * @throws CodecException if the file is missing, corrupt or cannot be read
+     */
+    public static <T> T read(Path path, ICodec<T> codec, Compression compression) throws CodecException {
+        try (InputStream in = openInput(path, compression)) {
+            return codec.decode(in);
+        } catch (CodecException e) {
+            throw e;
+        } catch (NoSuchFileException e) {
+            throw new CodecException(CodecException.Kind.NOT_FOUND, "File not found: " + path, e);
+        } catch (EOFException | ZipException e) {
+            throw new CodecException(CodecException.Kind.CORRUPT, "Corrupt file " + path + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot read " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens a buffered, optionally compressed stream that replaces the file's content.
+     *
+     * @param path        the file to write
+     * @param compression the compression to apply
+     * @return the stream to write to; closing it closes the channel
+     * @throws IOException if the file cannot be opened
+     */
+    public static OutputStream openOutput(Path path, Compression compression) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            return compression.wrap(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a buffered, optionally decompressing stream over the file.
+     *
+     * @param path        the file to read
+     * @param compression the compression the file was written with
+     * @return the stream to read from; closing it closes the channel
+     * @throws IOException if the file cannot be opened
+     */
+    public static InputStream openInput(Path path, Compression compression) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return compression.wrap(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a buffered, optionally compressed stream that appends to the file,
+     * creating it if needed.
+     * <p>
+     * Gzip members can be concatenated, so {@link Compression#GZIP} files stay
+     * readable after appending; zlib deflate streams cannot and are rejected.
+     *
+     * @param path        the file to append to
+     * @param compression the compression to apply
+     * @return the stream to write to; closing it closes the channel
+     * @throws IOException if the file cannot be opened or the compression cannot append
+     */
+    public static OutputStream openAppend(Path path, Compression compression) throws IOException {
+        if (compression == Compression.DEFLATE) {
+            throw new CodecException(CodecException.Kind.UNSUPPORTED, "Deflate files cannot be appended to");
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            return compression.wrap(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
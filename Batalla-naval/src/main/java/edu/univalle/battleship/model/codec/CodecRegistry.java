@@ -0,0 +1,78 @@
+package edu.univalle.battleship.model.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class {@code CodecRegistry}
+ *
+ * <p>Registry of the codecs available to the file handlers, looked up by name.
+ * The shared instance comes pre-loaded with the Java serialization, compact
+ * binary, line-oriented text and human tendencies codecs; more can be
+ * registered at runtime.</p>
+ */
+public class CodecRegistry {
+
+    private static final CodecRegistry INSTANCE = new CodecRegistry();
+
+    private final Map<String, ICodec<?>> codecs = new ConcurrentHashMap<>();
+
+    private CodecRegistry() {
+        register(new JavaSerializationCodec());
+        register(new CompactBinaryCodec());
+        register(new TextLinesCodec());
+        register(new HumanTendenciesCodec());
+    }
+
+    /**
+     * Returns the shared registry.
+     *
+     * @return the single instance
+     */
+    public static CodecRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers a codec under its own name, replacing any previous one.
+     *
+     * @param codec the codec to register
+     */
+    public void register(ICodec<?> codec) {
+        codecs.put(codec.getName(), codec);
+    }
+
+    /**
+     * Looks up a codec by name.
+     *
+     * @param name the codec name
+     * @return the registered codec
+     * @throws CodecException if no codec is registered under that name
+     */
+    public ICodec<?> get(String name) throws CodecException {
+        ICodec<?> codec = codecs.get(name);
+        if (codec == null) {
+            throw new CodecException(CodecException.Kind.UNSUPPORTED, "No codec registered as '" + name + "'");
+        }
+        return codec;
+    }
+
+    /**
+     * Looks up a codec by name and checks that it handles the given type.
+     *
+     * @param name the codec name
+     * @param type the expected value type
+     * @param <T>  the value type
+     * @return the registered codec
+     * @throws CodecException if the codec is missing or handles another type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ICodec<T> get(String name, Class<T> type) throws CodecException {
+        ICodec<?> codec = get(name);
+        if (codec.getType() != type) {
+            throw new CodecException(CodecException.Kind.UNSUPPORTED,
+                    "Codec '" + name + "' handles " + codec.getType().getSimpleName() + ", not " + type.getSimpleName());
+        }
+        return (ICodec<T>) codec;
+    }
+}
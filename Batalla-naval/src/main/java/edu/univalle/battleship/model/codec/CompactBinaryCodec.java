@@ -0,0 +1,166 @@
+package edu.univalle.battleship.model.codec;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.BoardSnapshot;
+import edu.univalle.battleship.model.GameStateHandler;
+import edu.univalle.battleship.model.Orientation;
+import edu.univalle.battleship.model.Player;
+import edu.univalle.battleship.model.PlayerSnapshot;
+import edu.univalle.battleship.model.Ship;
+import edu.univalle.battleship.model.ShipSnapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Class {@code CompactBinaryCodec}
+ *
+ * <p>Compact binary format for a {@link GameStateHandler.GameState}. A default
+ * 10x10 game takes a few hundred bytes instead of the several kilobytes of
+ * class metadata written by Java serialization.</p>
+ *
+ * <p>Layout: magic {@code "BNS"}, format version, then the human and the machine,
+ * each as board size, one byte per cell, ship count and, per ship, name, size,
+ * row, column, orientation and a bitmask of hits.</p>
+ */
+public class CompactBinaryCodec implements ICodec<GameStateHandler.GameState> {
+
+    /** Registry name of this codec. */
+    public static final String NAME = "binary";
+
+    private static final byte[] MAGIC = {'B', 'N', 'S'};
+    private static final int VERSION = 1;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Class<GameStateHandler.GameState> getType() {
+        return GameStateHandler.GameState.class;
+    }
+
+    /**
+     * Writes the game state in the compact layout.
+     *
+     * @param state the game state to encode
+     * @param out   the destination stream
+     * @throws IOException if an error occurs while writing
+     */
+    @Override
+    public void encode(GameStateHandler.GameState state, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        writePlayer(data, state.getPlayerState().toPlayer().snapshot());
+        writePlayer(data, state.getMachineState().toPlayer().snapshot());
+        data.flush();
+    }
+
+    /**
+     * Reads a game state written by {@link #encode}.
+     *
+     * @param in the source stream
+     * @return the decoded game state
+     * @throws IOException if the data is corrupt or cannot be read
+     */
+    @Override
+    public GameStateHandler.GameState decode(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        try {
+            for (byte b : MAGIC) {
+                if (data.readByte() != b) {
+                    throw new CodecException(CodecException.Kind.CORRUPT, "Not a compact binary save");
+                }
+            }
+            int version = data.readUnsignedByte();
+            if (version != VERSION) {
+                throw new CodecException(CodecException.Kind.UNSUPPORTED, "Unknown format version " + version);
+            }
+            Player human = readPlayer(data);
+            Player machine = readPlayer(data);
+            return new GameStateHandler.GameState(human.snapshot(), machine.snapshot());
+        } catch (EOFException e) {
+            throw new CodecException(CodecException.Kind.CORRUPT, "Truncated compact binary save", e);
+        }
+    }
+
+    private void writePlayer(DataOutputStream data, PlayerSnapshot player) throws IOException {
+        BoardSnapshot board = player.getBoard();
+        int size = board.getSize();
+        if (size > 255 || player.getFleet().size() > 255) {
+            throw new CodecException(CodecException.Kind.UNSUPPORTED, "Board or fleet too large for the compact format");
+        }
+        data.writeByte(size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                data.writeByte(board.getCell(r, c));
+            }
+        }
+
+        data.writeByte(player.getFleet().size());
+        for (ShipSnapshot ship : player.getFleet()) {
+            data.writeUTF(ship.getName());
+            data.writeByte(ship.getSize());
+            data.writeByte(ship.getRow());
+            data.writeByte(ship.getColumn());
+            data.writeByte(ship.getOrientation() == Orientation.HORIZONTAL ? 0 : 1);
+            boolean[] hits = ship.getHitsArray();
+            int mask = 0;
+            for (int i = 0; i < hits.length; i++) {
+                if (hits[i]) mask |= 1 << i;
+            }
+            data.writeInt(mask);
+        }
+    }
+
+    private Player readPlayer(DataInputStream data) throws IOException {
+        int size = data.readUnsignedByte();
+        if (size != Board.SIZE) {
+            throw new CodecException(CodecException.Kind.CORRUPT, "Board size " + size + " does not match " + Board.SIZE);
+        }
+        int[][] cells = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int value = data.readUnsignedByte();
+                if (value > 4) {
+                    throw new CodecException(CodecException.Kind.CORRUPT, "Invalid cell value " + value);
+                }
+                cells[r][c] = value;
+            }
+        }
+
+        Player player = new Player();
+        int ships = data.readUnsignedByte();
+        for (int i = 0; i < ships; i++) {
+            String name = data.readUTF();
+            int shipSize = data.readUnsignedByte();
+            int row = data.readUnsignedByte();
+            int col = data.readUnsignedByte();
+            Orientation orientation = data.readUnsignedByte() == 0 ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+            int mask = data.readInt();
+
+            boolean[] hits = new boolean[shipSize];
+            for (int h = 0; h < shipSize; h++) {
+                hits[h] = (mask & (1 << h)) != 0;
+            }
+
+            Ship ship = new Ship(name, shipSize);
+            // Un barco fuera del tablero o encima de otro es un archivo dañado
+            if (shipSize == 0 || !player.getBoard().canPlace(ship, row, col, orientation)) {
+                throw new CodecException(CodecException.Kind.CORRUPT, "Invalid position for ship " + name);
+            }
+            ship.place(row, col, orientation);
+            ship.restoreHits(hits);
+            player.addShip(ship);
+            player.getBoard().placeShip(ship);
+        }
+        player.getBoard().setCells(cells);
+        return player;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.univalle.battleship.model.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Enum {@code Compression}
+ *
+ * <p>Optional compression layer applied between a codec and the file channel.</p>
+ */
+public enum Compression {
+
+    /** Bytes are written as produced by the codec. */
+    NONE,
+
+    /** Gzip framing (compatible with the {@code gzip} command line tool). */
+    GZIP,
+
+    /** Zlib-wrapped deflate stream, slightly smaller than gzip. */
+    DEFLATE;
+
+    /**
+     * Wraps an output stream with this compression.
+     *
+     * @param out the underlying stream
+     * @return the stream the codec should write to
+     * @throws IOException if the compressor cannot be created
+     */
+    public OutputStream wrap(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, CodecFiles.BUFFER_SIZE);
+            case DEFLATE -> new DeflaterOutputStream(out);
+        };
+    }
+
+    /**
+     * Wraps an input stream with the matching decompression.
+     *
+     * @param in the underlying stream
+     * @return the stream the codec should read from
+     * @throws IOException if the header cannot be read
+     */
+    public InputStream wrap(InputStream in) throws IOException {
+        return switch (this) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, CodecFiles.BUFFER_SIZE);
+            case DEFLATE -> new InflaterInputStream(in);
+        };
+    }
+}
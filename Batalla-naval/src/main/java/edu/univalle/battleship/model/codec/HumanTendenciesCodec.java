@@ -0,0 +1,111 @@
+package edu.univalle.battleship.model.codec;
+
+import edu.univalle.battleship.model.HumanTendencies;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Class {@code HumanTendenciesCodec}
+ *
+ * <p>Compact binary format for a {@link HumanTendencies} model. Counters are
+ * small and mostly zero, so each one is written as a variable-length integer:
+ * a default 10x10 model usually fits in a couple of hundred bytes.</p>
+ *
+ * <p>Layout: magic {@code "BNT"}, format version, board size, number of games,
+ * then the ship counters and the first-shot counters in row-major order.</p>
+ */
+public class HumanTendenciesCodec implements ICodec<HumanTendencies> {
+
+    /** Registry name of this codec. */
+    public static final String NAME = "tendencies";
+
+    private static final byte[] MAGIC = {'B', 'N', 'T'};
+    private static final int VERSION = 1;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Class<HumanTendencies> getType() {
+        return HumanTendencies.class;
+    }
+
+    /**
+     * Writes the model in the compact layout.
+     *
+     * @param model the model to encode
+     * @param out   the destination stream
+     * @throws IOException if an error occurs while writing
+     */
+    @Override
+    public void encode(HumanTendencies model, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        writeVarInt(data, model.getSize());
+        writeVarInt(data, model.getGames());
+        for (int count : model.getShipCounts()) writeVarInt(data, count);
+        for (int count : model.getFirstShotCounts()) writeVarInt(data, count);
+        data.flush();
+    }
+
+    /**
+     * Reads a model written by {@link #encode}.
+     *
+     * @param in the source stream
+     * @return the decoded model
+     * @throws IOException if the data is corrupt or cannot be read
+     */
+    @Override
+    public HumanTendencies decode(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        try {
+            for (byte b : MAGIC) {
+                if (data.readByte() != b) {
+                    throw new CodecException(CodecException.Kind.CORRUPT, "Not a human tendencies file");
+                }
+            }
+            int version = data.readUnsignedByte();
+            if (version != VERSION) {
+                throw new CodecException(CodecException.Kind.UNSUPPORTED, "Unknown format version " + version);
+            }
+            int size = readVarInt(data);
+            if (size <= 0 || size > 1024) {
+                throw new CodecException(CodecException.Kind.CORRUPT, "Invalid board size " + size);
+            }
+            int games = readVarInt(data);
+            int[] shipCounts = new int[size * size];
+            int[] firstShotCounts = new int[size * size];
+            for (int i = 0; i < shipCounts.length; i++) shipCounts[i] = readVarInt(data);
+            for (int i = 0; i < firstShotCounts.length; i++) firstShotCounts[i] = readVarInt(data);
+            return new HumanTendencies(size, games, shipCounts, firstShotCounts);
+        } catch (EOFException e) {
+            throw new CodecException(CodecException.Kind.CORRUPT, "Truncated human tendencies file", e);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new CodecException(CodecException.Kind.CORRUPT, "Variable-length integer too long");
+    }
+}
@@ -0,0 +1,49 @@
+package edu.univalle.battleship.model.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface {@code ICodec}
+ *
+ * <p>Defines how a value is turned into bytes and back. Codecs only deal with
+ * streams; opening files, buffering and compression are handled by
+ * {@link CodecFiles}.</p>
+ *
+ * @param <T> the type of value handled by the codec
+ */
+public interface ICodec<T> {
+
+    /**
+     * Returns the name under which this codec is registered.
+     *
+     * @return the codec name
+     */
+    String getName();
+
+    /**
+     * Returns the type of value this codec accepts.
+     *
+     * @return the value class
+     */
+    Class<T> getType();
+
+    /**
+     * Encodes a value into the given stream.
+     *
+     * @param value the value to encode
+     * @param out   the destination stream (already buffered)
+     * @throws IOException if the value cannot be written
+     */
+    void encode(T value, OutputStream out) throws IOException;
+
+    /**
+     * Decodes a value from the given stream.
+     *
+     * @param in the source stream (already buffered)
+     * @return the decoded value
+     * @throws IOException if the data cannot be read or is corrupt
+     */
+    T decode(InputStream in) throws IOException;
+}
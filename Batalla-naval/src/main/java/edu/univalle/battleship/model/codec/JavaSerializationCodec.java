@@ -0,0 +1,67 @@
+package edu.univalle.battleship.model.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Class {@code JavaSerializationCodec}
+ *
+ * <p>Codec based on Java's built-in {@link ObjectOutputStream} and
+ * {@link ObjectInputStream}. Produces the same bytes as the original
+ * save files, so existing saves remain readable.</p>
+ */
+public class JavaSerializationCodec implements ICodec<Object> {
+
+    /** Registry name of this codec. */
+    public static final String NAME = "java";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Class<Object> getType() {
+        return Object.class;
+    }
+
+    /**
+     * Serializes the value; it must implement {@link java.io.Serializable}.
+     *
+     * @param value the value to encode
+     * @param out   the destination stream
+     * @throws IOException if the value is not serializable or cannot be written
+     */
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        try {
+            ObjectOutputStream obs = new ObjectOutputStream(out);
+            obs.writeObject(value);
+            obs.flush();
+        } catch (NotSerializableException e) {
+            throw new CodecException(CodecException.Kind.UNSUPPORTED, "Not serializable: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deserializes a single object from the stream.
+     *
+     * @param in the source stream
+     * @return the deserialized object
+     * @throws IOException if the data is corrupt or cannot be read
+     */
+    @Override
+    public Object decode(InputStream in) throws IOException {
+        try {
+            return new ObjectInputStream(in).readObject();
+        } catch (ClassNotFoundException | InvalidClassException | StreamCorruptedException e) {
+            throw new CodecException(CodecException.Kind.CORRUPT, "Cannot deserialize: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package edu.univalle.battleship.model.codec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@code TextLinesCodec}
+ *
+ * <p>Line-oriented UTF-8 text codec. Each element of the array is one line;
+ * lines are never joined or re-split, so commas and other separators inside a
+ * line are preserved as-is.</p>
+ */
+public class TextLinesCodec implements ICodec<String[]> {
+
+    /** Registry name of this codec. */
+    public static final String NAME = "text";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Class<String[]> getType() {
+        return String[].class;
+    }
+
+    /**
+     * Writes each element followed by a line break.
+     *
+     * @param lines the lines to write
+     * @param out   the destination stream
+     * @throws IOException if an error occurs while writing
+     */
+    @Override
+    public void encode(String[] lines, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (String line : lines) {
+            writer.write(line);
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads every line of the stream.
+     *
+     * @param in the source stream
+     * @return one element per line, without line terminators
+     * @throws IOException if an error occurs while reading
+     */
+    @Override
+    public String[] decode(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,249 @@
+package edu.univalle.battleship.model.notation;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.Orientation;
+import edu.univalle.battleship.model.Player;
+import edu.univalle.battleship.model.Ship;
+import edu.univalle.battleship.model.codec.CodecException;
+import edu.univalle.battleship.model.planeTextFiles.IPlaneTextFileHandler;
+import edu.univalle.battleship.model.replay.ReplayMove;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Parses archives written in the notation produced by {@link NotationWriter}.
+ * <p>
+ * Lines are streamed through {@link IPlaneTextFileHandler#forEachLine}, so the
+ * archive is never loaded in full. Move tokens are parsed straight from the
+ * reused {@link CharBuffer} and applied to the {@link Board}s with
+ * {@link Board#receiveShot}; no {@link String} is created per move. Each game
+ * is handed to a {@link GameHandler} as ready-to-use {@link Player}s.
+ */
+public class NotationReader {
+
+    /**
+     * Receives each parsed game.
+     */
+    public interface GameHandler {
+        /**
+         * Called once per game, after its result token.
+         *
+         * @param human     the human with fleet and board after the last move
+         * @param machine   the machine with fleet and board after the last move
+         * @param moveCount number of moves in the game
+         * @param result    the result token
+         */
+        void onGame(Player human, Player machine, int moveCount, String result);
+    }
+
+    private final IPlaneTextFileHandler fileHandler;
+    private final boolean verifyOutcomes;
+
+    private Player human;
+    private Player machine;
+    private int moveCount;
+    private long lineNumber;
+    private long games;
+
+    /**
+     * Creates a reader that checks each recorded outcome against the board.
+     *
+     * @param fileHandler the handler used to stream the archive
+     */
+    public NotationReader(IPlaneTextFileHandler fileHandler) {
+        this(fileHandler, true);
+    }
+
+    /**
+     * Creates a reader.
+     *
+     * @param fileHandler    the handler used to stream the archive
+     * @param verifyOutcomes whether a recorded outcome that differs from the
+     *                       board's result should be reported as corrupt
+     */
+    public NotationReader(IPlaneTextFileHandler fileHandler, boolean verifyOutcomes) {
+        this.fileHandler = fileHandler;
+        this.verifyOutcomes = verifyOutcomes;
+    }
+
+    /**
+     * Parses every game of the archive.
+     *
+     * @param filename the archive file
+     * @param handler  receives each game
+     * @return the number of games read
+     * @throws CodecException if the file cannot be read or a line is malformed
+     */
+    public long read(String filename, GameHandler handler) throws CodecException {
+        human = null;
+        machine = null;
+        moveCount = 0;
+        lineNumber = 0;
+        games = 0;
+        try {
+            fileHandler.forEachLine(filename, line -> parseLine(line, handler));
+        } catch (ParseFailure e) {
+            throw e.failure;
+        } catch (CodecException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot read " + filename, e);
+        }
+        if (human != null || machine != null) throw fail("Archive ends in the middle of a game").failure;
+        return games;
+    }
+
+    private void parseLine(CharBuffer line, GameHandler handler) {
+        lineNumber++;
+        int length = line.remaining();
+        int i = 0;
+        while (i < length && line.get(i) == ' ') i++;
+        if (i == length) return;
+
+        if (line.get(i) == '[') {
+            parseTag(line, i, length);
+            return;
+        }
+
+        while (i < length) {
+            int start = i;
+            while (i < length && line.get(i) != ' ') i++;
+            parseToken(line, start, i, handler);
+            while (i < length && line.get(i) == ' ') i++;
+        }
+    }
+
+    private void parseTag(CharBuffer line, int start, int end) {
+        int nameEnd = start + 1;
+        while (nameEnd < end && line.get(nameEnd) != ' ') nameEnd++;
+        int open = indexOf(line, '"', nameEnd, end);
+        int close = open < 0 ? -1 : indexOf(line, '"', open + 1, end);
+        if (close < 0) throw fail("Malformed tag");
+
+        if (matches(line, start + 1, nameEnd, "Human")) {
+            human = parseFleet(line, open + 1, close);
+        } else if (matches(line, start + 1, nameEnd, "Machine")) {
+            machine = parseFleet(line, open + 1, close);
+        } else if (matches(line, start + 1, nameEnd, "Size")) {
+            if (parseNumber(line, open + 1, close) != Board.SIZE) {
+                throw fail("Board size does not match " + Board.SIZE);
+            }
+        }
+    }
+
+    private Player parseFleet(CharBuffer line, int start, int end) {
+        Player player = new Player();
+        int i = start;
+        while (i < end) {
+            int shipEnd = indexOf(line, ';', i, end);
+            if (shipEnd < 0) shipEnd = end;
+
+            int nameEnd = indexOf(line, '/', i, shipEnd);
+            int sizeEnd = nameEnd < 0 ? -1 : indexOf(line, '/', nameEnd + 1, shipEnd);
+            int cellEnd = sizeEnd < 0 ? -1 : indexOf(line, '/', sizeEnd + 1, shipEnd);
+            if (cellEnd < 0 || cellEnd + 2 != shipEnd) throw fail("Malformed ship");
+
+            String name = line.subSequence(i, nameEnd).toString();
+            int size = parseNumber(line, nameEnd + 1, sizeEnd);
+            int col = line.get(sizeEnd + 1) - 'A';
+            int row = parseNumber(line, sizeEnd + 2, cellEnd) - 1;
+            Orientation orientation = line.get(cellEnd + 1) == 'H' ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+
+            Ship ship = new Ship(name, size);
+            if (!player.getBoard().canPlace(ship, row, col, orientation)) throw fail("Invalid ship placement");
+            ship.place(row, col, orientation);
+            player.addShip(ship);
+            player.getBoard().placeShip(ship);
+            i = shipEnd + 1;
+        }
+        return player;
+    }
+
+    private void parseToken(CharBuffer line, int start, int end, GameHandler handler) {
+        char first = line.get(start);
+        if (first == 'h' || first == 'm') {
+            parseMove(line, start, end, first == 'h' ? ReplayMove.HUMAN : ReplayMove.MACHINE);
+        } else if (matches(line, start, end, NotationWriter.HUMAN_WON)) {
+            finishGame(handler, NotationWriter.HUMAN_WON);
+        } else if (matches(line, start, end, NotationWriter.MACHINE_WON)) {
+            finishGame(handler, NotationWriter.MACHINE_WON);
+        } else if (matches(line, start, end, NotationWriter.UNFINISHED)) {
+            finishGame(handler, NotationWriter.UNFINISHED);
+        } else {
+            throw fail("Unknown token");
+        }
+    }
+
+    private void parseMove(CharBuffer line, int start, int end, int shooter) {
+        if (human == null || machine == null) throw fail("Move before fleet tags");
+        if (end - start < 4) throw fail("Malformed move");
+
+        int col = line.get(start + 1) - 'A';
+        int row = parseNumber(line, start + 2, end - 1) - 1;
+        if (row < 0 || row >= Board.SIZE || col < 0 || col >= Board.SIZE) throw fail("Move outside the board");
+
+        Board target = shooter == ReplayMove.HUMAN ? machine.getBoard() : human.getBoard();
+        String result = target.receiveShot(row, col);
+        moveCount++;
+
+        if (verifyOutcomes) {
+            ReplayMove.Outcome outcome = ReplayMove.Outcome.fromResult(result);
+            if (outcome == null || line.get(end - 1) != NotationWriter.symbol(outcome)) {
+                throw fail("Recorded outcome does not match the board");
+            }
+        }
+    }
+
+    private void finishGame(GameHandler handler, String result) {
+        if (human == null || machine == null) throw fail("Result before fleet tags");
+        handler.onGame(human, machine, moveCount, result);
+        human = null;
+        machine = null;
+        moveCount = 0;
+        games++;
+    }
+
+    private int parseNumber(CharBuffer line, int start, int end) {
+        if (start >= end) throw fail("Missing number");
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.get(i);
+            if (c < '0' || c > '9') throw fail("Invalid number");
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(CharBuffer line, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (line.get(i) == c) return i;
+        }
+        return -1;
+    }
+
+    private static boolean matches(CharBuffer line, int start, int end, String text) {
+        if (end - start != text.length()) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (line.get(start + i) != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private ParseFailure fail(String message) {
+        return new ParseFailure(new CodecException(CodecException.Kind.CORRUPT,
+                "Line " + lineNumber + ": " + message));
+    }
+
+    /**
+     * Carries a parse error out of the line callback, which cannot throw checked exceptions.
+     */
+    private static class ParseFailure extends RuntimeException {
+        private final CodecException failure;
+
+        ParseFailure(CodecException failure) {
+            super(failure.getMessage(), failure, false, false);
+            this.failure = failure;
+        }
+    }
+}
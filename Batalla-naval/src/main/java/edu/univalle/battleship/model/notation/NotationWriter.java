@@ -0,0 +1,181 @@
+package edu.univalle.battleship.model.notation;
+
+import edu.univalle.battleship.model.Orientation;
+import edu.univalle.battleship.model.PlayerSnapshot;
+import edu.univalle.battleship.model.ShipSnapshot;
+import edu.univalle.battleship.model.codec.CodecException;
+import edu.univalle.battleship.model.replay.ReplayFrame;
+import edu.univalle.battleship.model.replay.ReplayMove;
+import edu.univalle.battleship.model.replay.ReplayReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes games in the human-readable move notation.
+ * <p>
+ * A game is a block of tag lines followed by move tokens and a result:
+ * <pre>
+ *   [Size "10"]
+ *   [Human "Carrier/4/A1/V;Destroyer 1/2/C5/H"]
+ *   [Machine "..."]
+ *   hB7o mC3x mC4# mJ10o hA1x ...
+ *   1-0
+ * </pre>
+ * A move token is the shooter ({@code h} or {@code m}), the column letter,
+ * the 1-based row and the outcome: {@code o} miss, {@code x} hit, {@code #} sunk.
+ * The result is {@code 1-0} (human won), {@code 0-1} (machine won) or
+ * {@code *} (unfinished). Ship tags list name, size, starting cell and
+ * orientation; names must not contain {@code / ; "}.
+ * <p>
+ * Moves are written character by character, so no {@link String} is built
+ * per move. Wrap the target in a buffered writer, e.g. one obtained from
+ * {@link edu.univalle.battleship.model.planeTextFiles.IPlaneTextFileHandler#openAppender}.
+ */
+public class NotationWriter {
+
+    /** Result token when the human won. */
+    public static final String HUMAN_WON = "1-0";
+
+    /** Result token when the machine won. */
+    public static final String MACHINE_WON = "0-1";
+
+    /** Result token for an unfinished game. */
+    public static final String UNFINISHED = "*";
+
+    private static final int MOVES_PER_LINE = 16;
+
+    private final Writer out;
+    private int movesOnLine;
+
+    /**
+     * Creates a writer over the given character stream.
+     *
+     * @param out the destination, preferably buffered
+     */
+    public NotationWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Starts a game by writing its tags and initial fleets.
+     *
+     * @param human   the human's initial board and fleet
+     * @param machine the machine's initial board and fleet
+     * @throws IOException if an error occurs while writing
+     */
+    public void beginGame(PlayerSnapshot human, PlayerSnapshot machine) throws IOException {
+        out.write("[Size \"");
+        out.write(Integer.toString(human.getBoard().getSize()));
+        out.write("\"]\n");
+        writeFleetTag("Human", human.getFleet());
+        writeFleetTag("Machine", machine.getFleet());
+        movesOnLine = 0;
+    }
+
+    /**
+     * Writes one move token.
+     *
+     * @param shooter {@link ReplayMove#HUMAN} or {@link ReplayMove#MACHINE}
+     * @param row     the target row
+     * @param col     the target column
+     * @param outcome the outcome of the shot
+     * @throws IOException if an error occurs while writing
+     */
+    public void move(int shooter, int row, int col, ReplayMove.Outcome outcome) throws IOException {
+        if (movesOnLine > 0) out.write(movesOnLine % MOVES_PER_LINE == 0 ? '\n' : ' ');
+        out.write(shooter == ReplayMove.HUMAN ? 'h' : 'm');
+        writeCell(row, col);
+        out.write(symbol(outcome));
+        movesOnLine++;
+    }
+
+    /**
+     * Ends the current game with its result token.
+     *
+     * @param result {@link #HUMAN_WON}, {@link #MACHINE_WON} or {@link #UNFINISHED}
+     * @throws IOException if an error occurs while writing
+     */
+    public void endGame(String result) throws IOException {
+        if (movesOnLine > 0) out.write('\n');
+        out.write(result);
+        out.write("\n\n");
+        movesOnLine = 0;
+    }
+
+    /**
+     * Converts a binary replay into one notation game.
+     *
+     * @param reader the replay to export
+     * @throws IOException if the replay cannot be read or the output written
+     */
+    public void exportReplay(ReplayReader reader) throws IOException {
+        ReplayFrame start = reader.seek(0);
+        beginGame(start.getHuman(), start.getMachine());
+        try {
+            reader.forEachMove(m -> {
+                try {
+                    move(m.getShooter(), m.getRow(), m.getCol(), m.getOutcome());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        ReplayFrame end = reader.seek(reader.getMoveCount());
+        endGame(end.getMachine().isDefeated() ? HUMAN_WON
+                : end.getHuman().isDefeated() ? MACHINE_WON
+                : UNFINISHED);
+    }
+
+    private void writeFleetTag(String tag, List<ShipSnapshot> fleet) throws IOException {
+        out.write('[');
+        out.write(tag);
+        out.write(" \"");
+        for (int i = 0; i < fleet.size(); i++) {
+            ShipSnapshot ship = fleet.get(i);
+            if (hasReservedChar(ship.getName())) {
+                throw new CodecException(CodecException.Kind.UNSUPPORTED, "Ship name not allowed: " + ship.getName());
+            }
+            if (i > 0) out.write(';');
+            out.write(ship.getName());
+            out.write('/');
+            out.write(Integer.toString(ship.getSize()));
+            out.write('/');
+            writeCell(ship.getRow(), ship.getColumn());
+            out.write('/');
+            out.write(ship.getOrientation() == Orientation.HORIZONTAL ? 'H' : 'V');
+        }
+        out.write("\"]\n");
+    }
+
+    /**
+     * Returns the notation symbol of an outcome.
+     *
+     * @param outcome the outcome
+     * @return 'o' for a miss, 'x' for a hit, '#' for a sink
+     */
+    static char symbol(ReplayMove.Outcome outcome) {
+        return switch (outcome) {
+            case MISS -> 'o';
+            case HIT -> 'x';
+            case SUNK -> '#';
+        };
+    }
+
+    private static boolean hasReservedChar(String name) {
+        return name.indexOf('/') >= 0 || name.indexOf(';') >= 0 || name.indexOf('"') >= 0;
+    }
+
+    private void writeCell(int row, int col) throws IOException {
+        out.write('A' + col);
+        int number = row + 1;
+        if (number >= 100) out.write('0' + number / 100);
+        if (number >= 10) out.write('0' + number / 10 % 10);
+        out.write('0' + number % 10);
+    }
+}
@@ -1,6 +1,10 @@
 package edu.univalle.battleship.model.planeTextFiles;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interface {@code IPlaneTextFileHandler}
@@ -23,8 +27,43 @@ public interface IPlaneTextFileHandler {
      *
      * @param filename the name or path of the file to read.
      * @return an array of {@link String} objects, where each element represents
-     *         one line of the file's content. Returns {@code null} if the file
-     *         could not be read or was not found.
+     *         one line of the file's content, exactly as stored.
+     * @throws IOException if the file could not be read or was not found; the
+     *         implementation reports this as a
+     *         {@link edu.univalle.battleship.model.codec.CodecException}.
      */
-    String[] read(String filename);
-}
\ No newline at end of file
+    String[] read(String filename) throws IOException;
+    /**
+     * Streams the lines of the specified plain text file lazily.
+     *
+     * <p>Only the current line is kept in memory, so files of any size can be
+     * processed. The returned stream holds the file open and must be closed,
+     * preferably with try-with-resources.</p>
+     *
+     * @param filename the name or path of the file to read.
+     * @return a lazily populated stream of lines.
+     * @throws IOException if the file could not be opened.
+     */
+    Stream<String> lines(String filename) throws IOException;
+    /**
+     * Calls the given action once per line of the file, without allocating a
+     * {@link String} per line.
+     *
+     * <p>The {@link CharBuffer} passed to the action is reused for every line and
+     * is only valid during the call; copy it if the contents must be kept.</p>
+     *
+     * @param filename the name or path of the file to read.
+     * @param action   the action to run for each line, without line terminators.
+     * @return the number of lines read.
+     * @throws IOException if the file could not be read.
+     */
+    long forEachLine(String filename, Consumer<CharBuffer> action) throws IOException;
+    /**
+     * Opens a buffered writer that appends to the specified file, creating it if needed.
+     *
+     * @param filename the name or path of the file to append to.
+     * @return a buffered writer; closing it flushes and closes the file.
+     * @throws IOException if the file could not be opened for appending.
+     */
+    BufferedWriter openAppender(String filename) throws IOException;
+}
@@ -1,10 +1,24 @@
 package edu.univalle.battleship.model.planeTextFiles;
 
+import edu.univalle.battleship.model.codec.CodecException;
+import edu.univalle.battleship.model.codec.CodecFiles;
+import edu.univalle.battleship.model.codec.Compression;
+import edu.univalle.battleship.model.codec.TextLinesCodec;
+
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.FileReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Class {@code PlaneTextFileHandler}
@@ -14,11 +28,35 @@ import java.io.FileReader;
  * content from a text file line by line.</p>
  *
  * <p>Useful for saving logs, user data, or any configuration files that do not require
- * serialization.</p>
+ * serialization. Reading goes through the {@link TextLinesCodec}, so lines are returned
+ * as-is, including any commas they contain.</p>
  *
  * @see IPlaneTextFileHandler
  */
 public class PlaneTextFileHandler implements IPlaneTextFileHandler {
+
+    /** Number of characters read from the file per chunk in {@link #forEachLine}. */
+    private static final int CHUNK_SIZE = 8192;
+
+    private final TextLinesCodec codec = new TextLinesCodec();
+    private final Compression compression;
+
+    /**
+     * Creates a handler for uncompressed text files.
+     */
+    public PlaneTextFileHandler() {
+        this(Compression.NONE);
+    }
+
+    /**
+     * Creates a handler for text files with the given compression.
+     *
+     * @param compression the compression used on disk.
+     */
+    public PlaneTextFileHandler(Compression compression) {
+        this.compression = compression;
+    }
+
     /**
      * Writes the specified string content to a file, replacing any existing content.
      *
@@ -28,35 +66,144 @@ public class PlaneTextFileHandler implements IPlaneTextFileHandler {
      */
     @Override
     public void write(String filename, String content) throws IOException{
-        try(BufferedWriter writer = new BufferedWriter(new FileWriter(filename))){
+        try (Writer writer = new OutputStreamWriter(
+                CodecFiles.openOutput(Paths.get(filename), compression), StandardCharsets.UTF_8)) {
             writer.write(content);
-            writer.flush();
-        }catch (IOException e){
-            e.printStackTrace();
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot write " + filename + ": " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Writes the given lines to a file, replacing any existing content.
+     *
+     * @param filename the name or path of the file where the lines will be written.
+     * @param lines    the lines to write, one per line of the file.
+     * @throws CodecException if an error occurs while writing to the file.
+     */
+    public void write(String filename, String[] lines) throws CodecException {
+        CodecFiles.write(Paths.get(filename), codec, compression, lines);
+    }
+
     /**
      * Reads the contents of the specified text file line by line.
      *
-     * <p>Each line is returned as an element in a string array. If the file could not
-     * be read, the returned array will contain a single empty string.</p>
+     * <p>Each line is returned as an element in a string array.</p>
      *
      * @param filename the name or path of the file to read.
      * @return an array of strings representing each line of the file.
+     * @throws CodecException if the file is missing or cannot be read.
+     */
+    @Override
+    public String[] read(String filename) throws CodecException {
+        return CodecFiles.read(Paths.get(filename), codec, compression);
+    }
+
+    /**
+     * Streams the lines of the specified file lazily.
+     *
+     * <p>I/O errors raised while the stream is consumed are thrown as
+     * {@link UncheckedIOException}.</p>
+     *
+     * @param filename the name or path of the file to read.
+     * @return a stream of lines that must be closed after use.
+     * @throws CodecException if the file is missing or cannot be opened.
+     */
+    @Override
+    public Stream<String> lines(String filename) throws CodecException {
+        BufferedReader reader = new BufferedReader(openReader(filename), CodecFiles.BUFFER_SIZE);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Calls the given action for each line of the file.
+     *
+     * <p>The file is read in fixed-size chunks and every line is copied into one
+     * reusable buffer, so memory use stays constant regardless of file size and
+     * no {@link String} is created per line. Both {@code \n} and {@code \r\n}
+     * line endings are accepted.</p>
+     *
+     * @param filename the name or path of the file to read.
+     * @param action   the action to run for each line; the buffer is reused.
+     * @return the number of lines read.
+     * @throws CodecException if the file is missing or cannot be read.
      */
     @Override
-    public String[] read(String filename) {
-        StringBuilder content = new StringBuilder();
-        try(BufferedReader reader = new BufferedReader(new FileReader(filename))){
-            String line;
-            while ((line = reader.readLine()) != null){
-                content.append(line).append(",");
+    public long forEachLine(String filename, Consumer<CharBuffer> action) throws CodecException {
+        char[] chunk = new char[CHUNK_SIZE];
+        char[] line = new char[256];
+        CharBuffer view = CharBuffer.wrap(line);
+        int length = 0;
+        long count = 0;
+
+        try (Reader reader = openReader(filename)) {
+            int read;
+            while ((read = reader.read(chunk)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    char ch = chunk[i];
+                    if (ch == '\n') {
+                        if (length > 0 && line[length - 1] == '\r') length--;
+                        view.clear().limit(length);
+                        action.accept(view);
+                        count++;
+                        length = 0;
+                    } else {
+                        if (length == line.length) {
+                            char[] bigger = new char[line.length * 2];
+                            System.arraycopy(line, 0, bigger, 0, length);
+                            line = bigger;
+                            view = CharBuffer.wrap(line);
+                        }
+                        line[length++] = ch;
+                    }
+                }
             }
-        }catch (IOException e ){
-            e.printStackTrace();
+            if (length > 0) {
+                if (line[length - 1] == '\r') length--;
+                view.clear().limit(length);
+                action.accept(view);
+                count++;
+            }
+        } catch (CodecException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot read " + filename + ": " + e.getMessage(), e);
+        }
+        return count;
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer that appends to the file.
+     *
+     * @param filename the name or path of the file to append to.
+     * @return a buffered writer; closing it closes the file.
+     * @throws CodecException if the file cannot be opened for appending.
+     */
+    @Override
+    public BufferedWriter openAppender(String filename) throws CodecException {
+        try {
+            return new BufferedWriter(new OutputStreamWriter(
+                    CodecFiles.openAppend(Paths.get(filename), compression), StandardCharsets.UTF_8));
+        } catch (CodecException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot append to " + filename + ": " + e.getMessage(), e);
         }
-        return content.toString().split(",");
     }
-}
 
+    private Reader openReader(String filename) throws CodecException {
+        try {
+            return new InputStreamReader(CodecFiles.openInput(Paths.get(filename), compression), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            throw new CodecException(CodecException.Kind.NOT_FOUND, "File not found: " + filename, e);
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot open " + filename + ": " + e.getMessage(), e);
+        }
+    }
+}
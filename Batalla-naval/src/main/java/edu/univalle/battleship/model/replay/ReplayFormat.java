@@ -0,0 +1,47 @@
+package edu.univalle.battleship.model.replay;
+
+/**
+ * Constants and bit layout shared by {@link ReplayWriter} and {@link ReplayReader}.
+ * <p>
+ * File layout:
+ * <pre>
+ *   header    magic "BNR", version, board size, keyframe interval (varint),
+ *             human fleet, machine fleet, keyframe 0 (initial cells)
+ *   body      moves, with a keyframe after every K moves
+ *   index     move count, keyframe count, keyframe offsets (8 bytes each)
+ *   footer    index offset (8 bytes), magic "BNRI"
+ * </pre>
+ * A move is one varint: {@code zigzag(cell - previousCell) << 3 | shooter << 2 | outcome},
+ * where the previous cell is tracked per shooter and reset at every keyframe,
+ * so decoding can start at any keyframe. A keyframe stores both boards with
+ * two cells per byte.
+ */
+final class ReplayFormat {
+
+    static final byte[] MAGIC = {'B', 'N', 'R'};
+    static final byte[] FOOTER_MAGIC = {'B', 'N', 'R', 'I'};
+    static final int VERSION = 1;
+
+    /** Length of the footer: index offset plus footer magic. */
+    static final int FOOTER_SIZE = 8 + 4;
+
+    private ReplayFormat() {}
+
+    /**
+     * Returns the number of bytes used by one board in a keyframe.
+     *
+     * @param size the board size
+     * @return packed length of one board
+     */
+    static int packedBoardLength(int size) {
+        return (size * size + 1) / 2;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.univalle.battleship.model.replay;
+
+import edu.univalle.battleship.model.PlayerSnapshot;
+
+/**
+ * State of both players at a given turn of a replay.
+ */
+public final class ReplayFrame {
+
+    private final int turn;
+    private final PlayerSnapshot human;
+    private final PlayerSnapshot machine;
+
+    /**
+     * Creates a frame.
+     *
+     * @param turn    number of moves applied
+     * @param human   the human's board and fleet
+     * @param machine the machine's board and fleet
+     */
+    ReplayFrame(int turn, PlayerSnapshot human, PlayerSnapshot machine) {
+        this.turn = turn;
+        this.human = human;
+        this.machine = machine;
+    }
+
+    /** @return the number of moves applied to reach this frame */
+    public int getTurn() {
+        return turn;
+    }
+
+    /** @return the human's board and fleet */
+    public PlayerSnapshot getHuman() {
+        return human;
+    }
+
+    /** @return the machine's board and fleet */
+    public PlayerSnapshot getMachine() {
+        return machine;
+    }
+}
@@ -0,0 +1,83 @@
+package edu.univalle.battleship.model.replay;
+
+/**
+ * A single shot stored in a replay.
+ * <p>
+ * Holds who fired, the target cell and the outcome of the shot.
+ */
+public final class ReplayMove {
+
+    /** Shooter id of the human player. */
+    public static final int HUMAN = 0;
+
+    /** Shooter id of the machine player. */
+    public static final int MACHINE = 1;
+
+    /**
+     * Outcome of a recorded shot.
+     */
+    public enum Outcome {
+        MISS,
+        HIT,
+        SUNK;
+
+        /**
+         * Converts a result string returned by {@link edu.univalle.battleship.model.Board#receiveShot}.
+         *
+         * @param result "hit", "miss" or "sunk:ShipName"
+         * @return the matching outcome, or null for "already" and unknown results
+         */
+        public static Outcome fromResult(String result) {
+            if (result == null) return null;
+            if (result.equals("miss")) return MISS;
+            if (result.equals("hit")) return HIT;
+            if (result.startsWith("sunk")) return SUNK;
+            return null;
+        }
+    }
+
+    private final int shooter;
+    private final int row;
+    private final int col;
+    private final Outcome outcome;
+
+    /**
+     * Creates a move.
+     *
+     * @param shooter {@link #HUMAN} or {@link #MACHINE}
+     * @param row     the target row
+     * @param col     the target column
+     * @param outcome the outcome of the shot
+     */
+    public ReplayMove(int shooter, int row, int col, Outcome outcome) {
+        this.shooter = shooter;
+        this.row = row;
+        this.col = col;
+        this.outcome = outcome;
+    }
+
+    /** @return {@link #HUMAN} or {@link #MACHINE} */
+    public int getShooter() {
+        return shooter;
+    }
+
+    /** @return the target row */
+    public int getRow() {
+        return row;
+    }
+
+    /** @return the target column */
+    public int getCol() {
+        return col;
+    }
+
+    /** @return the outcome of the shot */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        return (shooter == HUMAN ? "human" : "machine") + " " + row + "," + col + " " + outcome;
+    }
+}
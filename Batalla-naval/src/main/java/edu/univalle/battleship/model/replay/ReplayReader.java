@@ -0,0 +1,255 @@
+package edu.univalle.battleship.model.replay;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.Orientation;
+import edu.univalle.battleship.model.Player;
+import edu.univalle.battleship.model.Ship;
+import edu.univalle.battleship.model.codec.CodecException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads replays written by {@link ReplayWriter}.
+ * <p>
+ * Only the header and the keyframe index are loaded when the file is opened.
+ * {@link #seek(int)} jumps to the closest keyframe at or before the requested
+ * turn and replays at most {@code K - 1} moves from there, so any turn can be
+ * reached in O(K) regardless of the length of the game.
+ */
+public class ReplayReader implements Closeable {
+
+    private final FileChannel channel;
+    private final int size;
+    private final int keyframeInterval;
+    private final int moveCount;
+    private final long[] keyframeOffsets;
+    private final long indexOffset;
+    private final List<Ship> humanFleet = new ArrayList<>();
+    private final List<Ship> machineFleet = new ArrayList<>();
+
+    /**
+     * Opens a replay file and loads its header and index.
+     *
+     * @param path the replay file
+     * @throws CodecException if the file is missing, incomplete or not a replay
+     */
+    public ReplayReader(Path path) throws CodecException {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            throw new CodecException(CodecException.Kind.NOT_FOUND, "File not found: " + path, e);
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot open " + path + ": " + e.getMessage(), e);
+        }
+
+        try {
+            long length = channel.size();
+            if (length < ReplayFormat.FOOTER_SIZE) throw corrupt("File too short");
+
+            ByteBuffer footer = read(length - ReplayFormat.FOOTER_SIZE, ReplayFormat.FOOTER_SIZE);
+            indexOffset = footer.getLong();
+            expectMagic(footer, ReplayFormat.FOOTER_MAGIC, "Missing replay index (unfinished recording?)");
+
+            ByteBuffer index = read(indexOffset, (int) (length - ReplayFormat.FOOTER_SIZE - indexOffset));
+            moveCount = index.getInt();
+            keyframeOffsets = new long[index.getInt()];
+            for (int i = 0; i < keyframeOffsets.length; i++) keyframeOffsets[i] = index.getLong();
+            if (keyframeOffsets.length == 0) throw corrupt("Replay has no keyframes");
+
+            ByteBuffer header = read(0, (int) keyframeOffsets[0]);
+            expectMagic(header, ReplayFormat.MAGIC, "Not a replay file");
+            int version = header.get() & 0xFF;
+            if (version != ReplayFormat.VERSION) {
+                throw new CodecException(CodecException.Kind.UNSUPPORTED, "Unknown replay version " + version);
+            }
+            size = header.get() & 0xFF;
+            if (size != Board.SIZE) {
+                throw new CodecException(CodecException.Kind.UNSUPPORTED,
+                        "Replay board size " + size + " does not match " + Board.SIZE);
+            }
+            keyframeInterval = readVarint(header);
+            readFleet(header, humanFleet);
+            readFleet(header, machineFleet);
+        } catch (CodecException e) {
+            closeQuietly();
+            throw e;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            closeQuietly();
+            throw new CodecException(CodecException.Kind.CORRUPT, "Cannot read replay " + path, e);
+        }
+    }
+
+    /** @return the number of moves in the replay */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /** @return the number of moves between keyframes */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Rebuilds the state of both players after the given number of moves.
+     *
+     * @param turn number of moves to apply, from 0 to {@link #getMoveCount()}
+     * @return the state at that turn
+     * @throws CodecException if the replay data cannot be read
+     */
+    public ReplayFrame seek(int turn) throws CodecException {
+        if (turn < 0 || turn > moveCount) {
+            throw new IllegalArgumentException("Turn " + turn + " outside 0.." + moveCount);
+        }
+        int keyframe = Math.min(turn / keyframeInterval, keyframeOffsets.length - 1);
+        ByteBuffer block = readBlock(keyframe);
+
+        Player human = restore(humanFleet, unpackBoard(block));
+        Player machine = restore(machineFleet, unpackBoard(block));
+
+        int[] previousCell = new int[2];
+        for (int i = keyframe * keyframeInterval; i < turn; i++) {
+            ReplayMove move = readMove(block, previousCell);
+            Board target = move.getShooter() == ReplayMove.HUMAN ? machine.getBoard() : human.getBoard();
+            target.receiveShot(move.getRow(), move.getCol());
+        }
+        return new ReplayFrame(turn, human.snapshot(), machine.snapshot());
+    }
+
+    /**
+     * Calls the given action for every move in order, skipping keyframes.
+     *
+     * @param action the action to run for each move
+     * @throws CodecException if the replay data cannot be read
+     */
+    public void forEachMove(Consumer<ReplayMove> action) throws CodecException {
+        int remaining = moveCount;
+        int boardBytes = 2 * ReplayFormat.packedBoardLength(size);
+        for (int k = 0; k < keyframeOffsets.length && remaining > 0; k++) {
+            ByteBuffer block = readBlock(k);
+            block.position(block.position() + boardBytes);
+            int[] previousCell = new int[2];
+            for (int i = 0; i < keyframeInterval && remaining > 0; i++, remaining--) {
+                action.accept(readMove(block, previousCell));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer readBlock(int keyframe) throws CodecException {
+        long start = keyframeOffsets[keyframe];
+        long end = keyframe + 1 < keyframeOffsets.length ? keyframeOffsets[keyframe + 1] : indexOffset;
+        try {
+            return read(start, (int) (end - start));
+        } catch (IOException e) {
+            throw new CodecException(CodecException.Kind.IO, "Cannot read replay block " + keyframe, e);
+        }
+    }
+
+    private ReplayMove readMove(ByteBuffer block, int[] previousCell) throws CodecException {
+        try {
+            int value = readVarint(block);
+            int shooter = (value >>> 2) & 1;
+            int cell = previousCell[shooter] + ReplayFormat.unzigzag(value >>> 3);
+            previousCell[shooter] = cell;
+            if (cell < 0 || cell >= size * size) throw corrupt("Move outside the board");
+            return new ReplayMove(shooter, cell / size, cell % size, ReplayMove.Outcome.values()[value & 3]);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw corrupt("Truncated or invalid move");
+        }
+    }
+
+    private int[][] unpackBoard(ByteBuffer block) {
+        int total = size * size;
+        int[][] cells = new int[size][size];
+        for (int i = 0; i < total; i += 2) {
+            int packed = block.get() & 0xFF;
+            cells[i / size][i % size] = packed & 0x0F;
+            if (i + 1 < total) cells[(i + 1) / size][(i + 1) % size] = packed >>> 4;
+        }
+        return cells;
+    }
+
+    private Player restore(List<Ship> fleet, int[][] cells) {
+        Player player = new Player();
+        for (Ship template : fleet) {
+            Ship ship = new Ship(template.getName(), template.getSize());
+            ship.place(template.getRow(), template.getColumn(), template.getOrientation());
+            player.addShip(ship);
+            player.getBoard().placeShip(ship);
+        }
+        player.getBoard().setCells(cells);
+        for (Ship ship : player.getFleet()) {
+            for (int[] pos : ship.getPositions()) {
+                int value = cells[pos[0]][pos[1]];
+                if (value == 2 || value == 3) ship.hitAt(pos[0], pos[1]);
+            }
+        }
+        return player;
+    }
+
+    private void readFleet(ByteBuffer header, List<Ship> fleet) {
+        int count = header.get() & 0xFF;
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[readVarint(header)];
+            header.get(name);
+            Ship ship = new Ship(new String(name, StandardCharsets.UTF_8), header.get() & 0xFF);
+            int row = header.get() & 0xFF;
+            int col = header.get() & 0xFF;
+            ship.place(row, col, header.get() == 0 ? Orientation.HORIZONTAL : Orientation.VERTICAL);
+            fleet.add(ship);
+        }
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) throw new EOFException("Invalid offset");
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new EOFException();
+        }
+        return buffer.flip();
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buffer.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static void expectMagic(ByteBuffer buffer, byte[] magic, String message) throws CodecException {
+        for (byte b : magic) {
+            if (buffer.get() != b) throw corrupt(message);
+        }
+    }
+
+    private static CodecException corrupt(String message) {
+        return new CodecException(CodecException.Kind.CORRUPT, message);
+    }
+
+    private void closeQuietly() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package edu.univalle.battleship.model.replay;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.MachinePlayer;
+import edu.univalle.battleship.model.Orientation;
+import edu.univalle.battleship.model.Player;
+import edu.univalle.battleship.model.Ship;
+import edu.univalle.battleship.model.codec.CodecFiles;
+import edu.univalle.battleship.model.codec.Compression;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a game as a compact binary replay.
+ * <p>
+ * Writes the initial fleets and boards, then one varint per shot, a keyframe
+ * with both boards every {@code K} shots and an index of keyframe offsets when
+ * closed. Recording a shot costs a few bytes of buffered output, so it can be
+ * left on during normal play. See {@link ReplayFormat} for the layout.
+ * <p>
+ * Keyframes read the live boards, so {@link #record} must be called on the
+ * thread that mutates them, right after the shot has been applied.
+ */
+public class ReplayWriter implements Closeable {
+
+    /** Default number of moves between keyframes. */
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 16;
+
+    private final OutputStream out;
+    private final int keyframeInterval;
+    private final Board humanBoard;
+    private final Board machineBoard;
+    private final int size;
+
+    private final List<Long> keyframeOffsets = new ArrayList<>();
+    private final int[] previousCell = new int[2];
+    private long position;
+    private int moveCount;
+    private boolean closed;
+
+    /**
+     * Creates a replay file for the given players.
+     *
+     * @param path             the file to write
+     * @param keyframeInterval number of moves between keyframes
+     * @param human            the human player
+     * @param machine          the machine player
+     * @return a writer positioned after the header
+     * @throws IOException if the file cannot be created
+     */
+    public static ReplayWriter create(Path path, int keyframeInterval, Player human, MachinePlayer machine)
+            throws IOException {
+        return new ReplayWriter(CodecFiles.openOutput(path, Compression.NONE), keyframeInterval,
+                human.getBoard(), human.getFleet(), machine.getBoard(), machine.getFleet());
+    }
+
+    /**
+     * Creates a writer and writes the header with the initial state.
+     *
+     * @param out              the destination stream (should be buffered)
+     * @param keyframeInterval number of moves between keyframes
+     * @param humanBoard       the human's live board
+     * @param humanFleet       the human's fleet
+     * @param machineBoard     the machine's live board
+     * @param machineFleet     the machine's fleet
+     * @throws IOException if the header cannot be written
+     */
+    public ReplayWriter(OutputStream out, int keyframeInterval,
+                        Board humanBoard, List<Ship> humanFleet,
+                        Board machineBoard, List<Ship> machineFleet) throws IOException {
+        if (keyframeInterval < 1) throw new IllegalArgumentException("keyframeInterval must be >= 1");
+        this.out = out;
+        this.keyframeInterval = keyframeInterval;
+        this.humanBoard = humanBoard;
+        this.machineBoard = machineBoard;
+        this.size = Board.SIZE;
+
+        writeBytes(ReplayFormat.MAGIC);
+        writeByte(ReplayFormat.VERSION);
+        writeByte(size);
+        writeVarint(keyframeInterval);
+        writeFleet(humanFleet);
+        writeFleet(machineFleet);
+        writeKeyframe();
+    }
+
+    /**
+     * Records a shot from a result string returned by {@link Board#receiveShot}.
+     * Repeated shots ("already") are ignored.
+     *
+     * @param shooter {@link ReplayMove#HUMAN} or {@link ReplayMove#MACHINE}
+     * @param row     the target row
+     * @param col     the target column
+     * @param result  the shot result
+     * @throws IOException if the move cannot be written
+     */
+    public void record(int shooter, int row, int col, String result) throws IOException {
+        ReplayMove.Outcome outcome = ReplayMove.Outcome.fromResult(result);
+        if (outcome != null) record(shooter, row, col, outcome);
+    }
+
+    /**
+     * Records a shot.
+     *
+     * @param shooter {@link ReplayMove#HUMAN} or {@link ReplayMove#MACHINE}
+     * @param row     the target row
+     * @param col     the target column
+     * @param outcome the outcome of the shot
+     * @throws IOException if the move cannot be written
+     */
+    public void record(int shooter, int row, int col, ReplayMove.Outcome outcome) throws IOException {
+        if (closed) throw new IOException("Replay already closed");
+        int cell = row * size + col;
+        int delta = ReplayFormat.zigzag(cell - previousCell[shooter]);
+        previousCell[shooter] = cell;
+        writeVarint(delta << 3 | shooter << 2 | outcome.ordinal());
+        moveCount++;
+
+        if (moveCount % keyframeInterval == 0) writeKeyframe();
+    }
+
+    /** @return the number of moves recorded so far */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Writes the keyframe index and footer and closes the stream.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            long indexOffset = position;
+            writeInt(moveCount);
+            writeInt(keyframeOffsets.size());
+            for (long offset : keyframeOffsets) writeLong(offset);
+            writeLong(indexOffset);
+            writeBytes(ReplayFormat.FOOTER_MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeFleet(List<Ship> fleet) throws IOException {
+        writeByte(fleet.size());
+        for (Ship ship : fleet) {
+            byte[] name = ship.getName().getBytes(StandardCharsets.UTF_8);
+            writeVarint(name.length);
+            writeBytes(name);
+            writeByte(ship.getSize());
+            writeByte(ship.getRow());
+            writeByte(ship.getColumn());
+            writeByte(ship.getOrientation() == Orientation.HORIZONTAL ? 0 : 1);
+        }
+    }
+
+    private void writeKeyframe() throws IOException {
+        keyframeOffsets.add(position);
+        writePackedBoard(humanBoard.getCells());
+        writePackedBoard(machineBoard.getCells());
+        previousCell[0] = 0;
+        previousCell[1] = 0;
+    }
+
+    private void writePackedBoard(int[][] cells) throws IOException {
+        int total = size * size;
+        for (int i = 0; i < total; i += 2) {
+            int low = cells[i / size][i % size];
+            int high = i + 1 < total ? cells[(i + 1) / size][(i + 1) % size] : 0;
+            writeByte(high << 4 | low);
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        for (int shift = 24; shift >= 0; shift -= 8) writeByte(value >>> shift);
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) writeByte((int) (value >>> shift));
+    }
+
+    private void writeByte(int value) throws IOException {
+        out.write(value);
+        position++;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        out.write(bytes);
+        position += bytes.length;
+    }
+}
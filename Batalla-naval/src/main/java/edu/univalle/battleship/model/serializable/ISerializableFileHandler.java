@@ -1,5 +1,7 @@
 package edu.univalle.battleship.model.serializable;
 
+import edu.univalle.battleship.model.codec.CodecException;
+
 import java.io.Serializable;
 
 /**
@@ -19,15 +21,16 @@ public interface ISerializableFileHandler {
      * @param element  the {@link Object} to be serialized and written to the file.
      *                  <p><b>Note:</b> The provided object should implement {@link Serializable}
      *                  for the serialization process to succeed.</p>
+     * @throws CodecException if the object cannot be encoded or the file cannot be written.
      */
-    void serialize(String filename, Object element);
+    void serialize(String filename, Object element) throws CodecException;
     /**
      * Deserializes an object from the specified file.
      *
      * @param filename the name or path of the file to read from.
-     * @return the {@link Object} that was deserialized from the file,
-     *         or {@code null} if the process failed or the file was not found.
+     * @return the {@link Object} that was deserialized from the file.
+     * @throws CodecException if the file is missing, corrupt or cannot be read;
+     *                        {@link CodecException#getKind()} tells which.
      */
-    Object deserialize(String filename);
+    Object deserialize(String filename) throws CodecException;
 }
-
@@ -1,6 +1,14 @@
 package edu.univalle.battleship.model.serializable;
 
+import edu.univalle.battleship.model.codec.CodecException;
+import edu.univalle.battleship.model.codec.CodecFiles;
+import edu.univalle.battleship.model.codec.CodecRegistry;
+import edu.univalle.battleship.model.codec.Compression;
+import edu.univalle.battleship.model.codec.ICodec;
+import edu.univalle.battleship.model.codec.JavaSerializationCodec;
+
 import java.io.*;
+import java.nio.file.Paths;
 
 /**
  * Class {@code SerializableFileHandler}
@@ -8,44 +16,77 @@ import java.io.*;
  * <p>Provides a concrete implementation of the {@link ISerializableFileHandler} interface,
  * enabling serialization and deserialization of objects to and from files.</p>
  *
- * <p>This class uses Java's built-in {@link ObjectOutputStream} and
- * {@link ObjectInputStream} for object persistence. Any object passed to
- * {@link #serialize(String, Object)} must implement {@link java.io.Serializable},
- * otherwise a {@link java.io.NotSerializableException} will be thrown.</p>
+ * <p>The byte format is delegated to a codec from the {@link CodecRegistry}; by default
+ * Java's built-in serialization ({@link JavaSerializationCodec}) without compression,
+ * which any object implementing {@link java.io.Serializable} can use. Files are accessed
+ * through buffered channels and failures are reported as {@link CodecException}.</p>
  *
  * @see ISerializableFileHandler
  * @see Serializable
  */
 public class SerializableFileHandler implements ISerializableFileHandler{
+
+    private final ICodec<?> codec;
+    private final Compression compression;
+
+    /**
+     * Creates a handler using Java serialization without compression.
+     */
+    public SerializableFileHandler() {
+        this(new JavaSerializationCodec(), Compression.NONE);
+    }
+
+    /**
+     * Creates a handler using a registered codec.
+     *
+     * @param codecName   the name of the codec in the {@link CodecRegistry}.
+     * @param compression the compression to apply to the file.
+     * @throws CodecException if no codec is registered under that name.
+     */
+    public SerializableFileHandler(String codecName, Compression compression) throws CodecException {
+        this(CodecRegistry.getInstance().get(codecName), compression);
+    }
+
+    /**
+     * Creates a handler using the given codec.
+     *
+     * @param codec       the codec used to encode and decode objects.
+     * @param compression the compression to apply to the file.
+     */
+    public SerializableFileHandler(ICodec<?> codec, Compression compression) {
+        this.codec = codec;
+        this.compression = compression;
+    }
+
     /**
      * Serializes the given object and saves it to the specified file.
      *
      * @param filename the path of the file where the object should be stored.
-     * @param element  the object to be serialized; must implement {@link Serializable}.
+     * @param element  the object to be serialized; must be accepted by the codec.
+     * @throws CodecException if the object cannot be encoded or written.
      */
     @Override
-    public void serialize(String filename, Object element) {
-        try(ObjectOutputStream obs = new ObjectOutputStream(new FileOutputStream(filename))){
-            obs.writeObject(element);
-        }catch (IOException e){
-            e.printStackTrace();
-        }
+    public void serialize(String filename, Object element) throws CodecException {
+        write(codec, filename, element);
     }
 
     /**
      * Deserializes an object from the specified file.
      *
      * @param filename the path of the file to read the serialized object from.
-     * @return the deserialized object, or {@code null} if an error occurred
-     *         or the object could not be found.
+     * @return the deserialized object.
+     * @throws CodecException if the file is missing, corrupt or cannot be read.
      */
     @Override
-    public Object deserialize(String filename) {
-        try(ObjectInputStream inp = new ObjectInputStream(new FileInputStream(filename))){
-            return (Object) inp.readObject();
-        }catch (IOException | ClassNotFoundException e){
-            e.printStackTrace();
+    public Object deserialize(String filename) throws CodecException {
+        return CodecFiles.read(Paths.get(filename), codec, compression);
+    }
+
+    private <T> void write(ICodec<T> typed, String filename, Object element) throws CodecException {
+        if (!typed.getType().isInstance(element)) {
+            throw new CodecException(CodecException.Kind.UNSUPPORTED,
+                    "Codec '" + typed.getName() + "' cannot encode " + element);
         }
-        return null;
+        CodecFiles.write(Paths.get(filename), typed, compression, typed.getType().cast(element));
     }
 }
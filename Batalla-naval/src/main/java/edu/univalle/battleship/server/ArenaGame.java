@@ -0,0 +1,210 @@
+package edu.univalle.battleship.server;
+
+import edu.univalle.battleship.designpatterns.strategy.IShootingStrategy;
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.MachinePlayer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * One game of the {@link BotArena}: a bot in seat 0 against one of our
+ * shooting strategies or against another bot in seat 1.
+ * <p>
+ * Every method is synchronized, since requests for the same game may arrive
+ * on several worker threads. The seat to move must shoot before its deadline;
+ * the deadline is checked whenever the game is touched, and a seat that missed
+ * it loses.
+ * <p>
+ * Each bot seat gets a random token when it is taken. The arena checks it with
+ * {@link #owns} before acting for a seat, so a bot cannot move for the other.
+ */
+final class ArenaGame {
+
+    /** Names of the {@code Protocol.OUTCOME_} constants in JSON replies. */
+    private static final String[] OUTCOMES = {"miss", "hit", "sunk", "already"};
+
+    private static final SecureRandom TOKENS = new SecureRandom();
+
+    private final long id;
+    private final long moveDeadlineNanos;
+    private final Match match = new Match();
+
+    /** The strategy in seat 1, or null when seat 1 is a bot. */
+    private final MachinePlayer machine;
+
+    /** Token of each bot seat, or null while the seat is free or held by a strategy. */
+    private final String[] tokens = new String[2];
+
+    /** Shots received by each seat, as {row, column, outcome}. */
+    private final List<List<int[]>> received = List.of(new ArrayList<>(), new ArrayList<>());
+
+    private long deadline;
+    private volatile long lastAccess;
+
+    /**
+     * Creates a game.
+     *
+     * @param id                the game id
+     * @param strategy          the strategy in seat 1, or null for a second bot
+     * @param moveDeadlineNanos time each seat has for a move
+     */
+    ArenaGame(long id, IShootingStrategy strategy, long moveDeadlineNanos) {
+        this.id = id;
+        this.moveDeadlineNanos = moveDeadlineNanos;
+        this.lastAccess = System.nanoTime();
+        tokens[0] = newToken();
+        if (strategy != null) {
+            machine = new MachinePlayer(strategy);
+            machine.placeFleetAutomatically();
+            match.placeMachine(1, machine);
+        } else {
+            machine = null;
+        }
+    }
+
+    /** @return the time of the last request for this game, from {@link System#nanoTime()} */
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Describes a seat to the bot that took it, with the seat's token.
+     *
+     * @param seat the seat
+     * @return the reply
+     */
+    synchronized String seatReply(int seat) {
+        return "{\"id\":" + id + ",\"seat\":" + seat + ",\"size\":" + Board.SIZE
+                + ",\"token\":\"" + tokens[seat] + "\"}";
+    }
+
+    /**
+     * Takes seat 1 of a bot-versus-bot game.
+     *
+     * @return the reply, or null if the seat is not free
+     */
+    synchronized String join() {
+        touch();
+        if (machine != null || tokens[1] != null) return null;
+        tokens[1] = newToken();
+        return seatReply(1);
+    }
+
+    /**
+     * Tells whether a token is the one handed out for a bot seat.
+     *
+     * @param seat  the seat claimed by the request
+     * @param token the token sent with it, or null
+     * @return true if the seat is a bot seat and the token matches
+     */
+    synchronized boolean owns(int seat, String token) {
+        if (seat != 0 && seat != 1 || tokens[seat] == null || token == null) return false;
+        // Comparación en tiempo constante para no filtrar el token por tiempos
+        return MessageDigest.isEqual(tokens[seat].getBytes(StandardCharsets.US_ASCII),
+                token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Places the fleet of a seat; the caller checked the seat with {@link #owns}.
+     *
+     * @param layout row, column and vertical flag of each ship, or null for a random fleet
+     * @return an error message, or null if the fleet was placed
+     */
+    synchronized String place(int seat, int[] layout) {
+        touch();
+        if (match.isPlaced(seat)) return "Fleet already placed";
+        if (layout == null) {
+            match.placeRandom(seat);
+        } else if (!match.placeLayout(seat, layout)) {
+            return "Fleet does not fit the board";
+        }
+        if (match.isStarted()) deadline = System.nanoTime() + moveDeadlineNanos;
+        return null;
+    }
+
+    /**
+     * Fires a shot from a seat and, against a strategy, plays its reply until it
+     * misses; the caller checked the seat with {@link #owns}.
+     *
+     * @return the reply, or null with the error in {@code error[0]}
+     */
+    synchronized String shoot(int seat, int row, int col, String[] error) {
+        touch();
+        if (!match.isStarted()) error[0] = "Fleets are not placed";
+        else if (match.isOver()) error[0] = "Game is over";
+        else if (match.getTurn() != seat) error[0] = "Not your turn";
+        else if (row < 0 || col < 0 || row >= Board.SIZE || col >= Board.SIZE) error[0] = "Shot outside the board";
+        if (error[0] != null) return null;
+
+        int outcome = match.fire(seat, row, col);
+        received.get(1 - seat).add(new int[]{row, col, outcome});
+
+        StringBuilder replies = new StringBuilder("[");
+        int limit = Board.SIZE * Board.SIZE * 4;
+        while (machine != null && !match.isOver() && match.getTurn() == 1 && limit-- > 0) {
+            String result = machine.shoot(match.getBoard(0));
+            int[] shot = machine.getLastShotCoordinates();
+            int reply = match.apply(1, shot[0], shot[1], result);
+            received.get(0).add(new int[]{shot[0], shot[1], reply});
+            if (replies.length() > 1) replies.append(',');
+            appendShot(replies, shot[0], shot[1], reply);
+        }
+        replies.append(']');
+        deadline = System.nanoTime() + moveDeadlineNanos;
+
+        return "{\"outcome\":\"" + OUTCOMES[outcome] + "\",\"turn\":" + match.getTurn()
+                + ",\"winner\":" + match.getWinner() + ",\"replies\":" + replies + "}";
+    }
+
+    /**
+     * Describes the game as seen from a seat.
+     *
+     * @param since number of received shots the caller already knows
+     * @return the reply
+     */
+    synchronized String state(int seat, int since) {
+        touch();
+        List<int[]> shots = received.get(seat);
+        StringBuilder json = new StringBuilder("{\"id\":").append(id)
+                .append(",\"started\":").append(match.isStarted())
+                .append(",\"turn\":").append(match.getTurn())
+                .append(",\"winner\":").append(match.getWinner())
+                .append(",\"deadlineMs\":").append(match.isStarted() && !match.isOver()
+                        ? Math.max(0, (deadline - System.nanoTime()) / 1_000_000) : 0)
+                .append(",\"receivedCount\":").append(shots.size())
+                .append(",\"received\":[");
+        for (int i = Math.max(0, since); i < shots.size(); i++) {
+            if (i > Math.max(0, since)) json.append(',');
+            int[] shot = shots.get(i);
+            appendShot(json, shot[0], shot[1], shot[2]);
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[16];
+        TOKENS.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private void touch() {
+        lastAccess = System.nanoTime();
+        expire();
+    }
+
+    /** Ends the game if the seat to move missed its deadline. */
+    private void expire() {
+        if (match.isStarted() && !match.isOver() && System.nanoTime() - deadline > 0) {
+            match.forfeit(match.getTurn());
+        }
+    }
+
+    private static void appendShot(StringBuilder json, int row, int col, int outcome) {
+        json.append('[').append(row).append(',').append(col).append(",\"").append(OUTCOMES[outcome]).append("\"]");
+    }
+}
@@ -0,0 +1,297 @@
+package edu.univalle.battleship.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.univalle.battleship.designpatterns.strategy.HuntTargetShootingStrategy;
+import edu.univalle.battleship.designpatterns.strategy.IShootingStrategy;
+import edu.univalle.battleship.designpatterns.strategy.ProbabilityShootingStrategy;
+import edu.univalle.battleship.designpatterns.strategy.RandomShootingStrategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Local HTTP/JSON endpoint where external bot programs play against our
+ * shooting strategies or against each other, without the desktop UI.
+ * <pre>
+ *   POST /games              {"opponent":"hunt"|"random"|"probability"|"bot"}
+ *                            -> {"id":1,"seat":0,"size":10,"token":"..."}
+ *   POST /games/{id}/join    second bot of a "bot" game -> {"id":1,"seat":1,"size":10,"token":"..."}
+ *   POST /games/{id}/fleet   {"seat":0,"token":"...","ships":[[row,col,vertical],...]}; without
+ *                            "ships" the fleet is placed at random. Ships follow
+ *                            the order of {@link edu.univalle.battleship.model.MachinePlayer#standardFleet()}
+ *   POST /games/{id}/shots   {"seat":0,"token":"...","row":3,"col":4}
+ *                            -> {"outcome":"hit","turn":0,"winner":-1,"replies":[[r,c,"miss"],...]}
+ *   GET  /games/{id}?seat=0&amp;token=...&amp;since=N
+ *                            -> turn, winner, time left for the move and shots received
+ * </pre>
+ * The token returned when a seat is taken must come with every later request
+ * for that seat; without it the arena answers 403. Each seat has {@link #DEFAULT_MOVE_DEADLINE_MS} per move by default and
+ * loses the game when it runs out. Responses always carry a length, so clients
+ * keep their connection alive between requests. Games idle for
+ * {@link #IDLE_TIMEOUT_MS} are dropped.
+ * <p>
+ * Requests run on a fixed pool of daemon threads; handlers never block, so a
+ * few threads per processor sustain thousands of requests per second.
+ * Run it with {@code java edu.univalle.battleship.server.BotArena [port]}.
+ */
+public class BotArena {
+
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 8088;
+
+    /** Time each seat has for a move unless another is given. */
+    public static final long DEFAULT_MOVE_DEADLINE_MS = 5000;
+
+    /** Time after which a game nobody asks about is dropped. */
+    public static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+    /** Strategies bots can play against, by the name used in {@code "opponent"}. */
+    static final Map<String, Supplier<IShootingStrategy>> STRATEGIES = Map.of(
+            "random", RandomShootingStrategy::new,
+            "hunt", HuntTargetShootingStrategy::new,
+            "probability", ProbabilityShootingStrategy::new);
+
+    static {
+        // Sin esto, cabeceras y cuerpo van en dos segmentos y el ACK retardado suma ~40 ms por respuesta
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper;
+    private final long moveDeadlineNanos;
+    private final Map<String, Supplier<IShootingStrategy>> strategies;
+
+    private final Map<Long, ArenaGame> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * Creates an arena bound to the given address; it serves requests once started.
+     *
+     * @param address        the address to listen on; port 0 picks a free port
+     * @param moveDeadlineMs time each seat has for a move
+     * @throws IOException if the address cannot be bound
+     */
+    public BotArena(InetSocketAddress address, long moveDeadlineMs) throws IOException {
+        this(address, moveDeadlineMs, STRATEGIES);
+    }
+
+    /**
+     * Creates an arena that offers the given strategies as opponents.
+     *
+     * @param address        the address to listen on; port 0 picks a free port
+     * @param moveDeadlineMs time each seat has for a move
+     * @param strategies     strategies by the name used in {@code "opponent"}
+     * @throws IOException if the address cannot be bound
+     */
+    BotArena(InetSocketAddress address, long moveDeadlineMs, Map<String, Supplier<IShootingStrategy>> strategies)
+            throws IOException {
+        this.strategies = strategies;
+        this.moveDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(moveDeadlineMs);
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, runnable -> {
+            Thread thread = new Thread(runnable, "arena-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "arena-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(address, 1024);
+        server.createContext("/games", this::handle);
+        server.setExecutor(workers);
+    }
+
+    /** @return the address the arena listens on, with the actual port */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+        sweeper.scheduleWithFixedDelay(this::dropIdleGames, IDLE_TIMEOUT_MS / 2, IDLE_TIMEOUT_MS / 2, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops serving requests and drops every game.
+     */
+    public void stop() {
+        server.stop(0);
+        sweeper.shutdownNow();
+        workers.shutdown();
+        games.clear();
+    }
+
+    /** @return the number of games being kept */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    private void dropIdleGames() {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MS);
+        games.values().removeIf(game -> now - game.getLastAccess() > timeout);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                // Se responde antes de cerrar el intercambio; si la respuesta ya empezó, esto falla
+                reply(exchange, 500, error("Internal error"));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+        String method = exchange.getRequestMethod();
+        URI uri = exchange.getRequestURI();
+        String[] path = uri.getPath().split("/");
+        // path[0] es vacío y path[1] es "games"
+
+        if (path.length == 2) {
+            if (!method.equals("POST")) {
+                reply(exchange, 405, error("Use POST to create a game"));
+                return;
+            }
+            create(exchange, body);
+            return;
+        }
+
+        ArenaGame game = parseId(path[2]);
+        if (game == null) {
+            reply(exchange, 404, error("No such game"));
+            return;
+        }
+
+        String action = path.length > 3 ? path[3] : "";
+        if (method.equals("GET") && action.isEmpty()) {
+            String query = uri.getRawQuery() == null ? "" : uri.getRawQuery();
+            int seat = queryInt(query, "seat", 0);
+            if (seat != 0 && seat != 1) reply(exchange, 400, error("Seat must be 0 or 1"));
+            else if (!game.owns(seat, queryString(query, "token"))) reply(exchange, 403, error("Wrong token for seat"));
+            else reply(exchange, 200, game.state(seat, queryInt(query, "since", 0)));
+        } else if (method.equals("POST") && action.equals("join")) {
+            String json = game.join();
+            reply(exchange, json != null ? 200 : 409, json != null ? json : error("Seat is taken"));
+        } else if (method.equals("POST") && (action.equals("fleet") || action.equals("shots"))) {
+            int seat = Json.intField(body, "seat", 0);
+            if (!game.owns(seat, Json.stringField(body, "token", null))) {
+                reply(exchange, 403, error("Wrong token for seat"));
+            } else if (action.equals("fleet")) {
+                String failure = game.place(seat, Json.intArray(body, "ships"));
+                reply(exchange, failure == null ? 200 : 409, failure == null ? "{\"ok\":true}" : error(failure));
+            } else {
+                String[] failure = new String[1];
+                String json = game.shoot(seat, Json.intField(body, "row", -1), Json.intField(body, "col", -1), failure);
+                reply(exchange, json != null ? 200 : 409, json != null ? json : error(failure[0]));
+            }
+        } else {
+            reply(exchange, 404, error("Unknown request"));
+        }
+    }
+
+    private void create(HttpExchange exchange, String body) throws IOException {
+        String opponent = Json.stringField(body, "opponent", "hunt");
+        Supplier<IShootingStrategy> strategy = strategies.get(opponent);
+        if (strategy == null && !opponent.equals("bot")) {
+            reply(exchange, 400, error("Unknown opponent " + opponent));
+            return;
+        }
+        long id = nextId.getAndIncrement();
+        ArenaGame game = new ArenaGame(id, strategy != null ? strategy.get() : null, moveDeadlineNanos);
+        games.put(id, game);
+        reply(exchange, 201, game.seatReply(0));
+    }
+
+    private ArenaGame parseId(String text) {
+        try {
+            return games.get(Long.parseLong(text));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int queryInt(String query, String name, int fallback) {
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(pair.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return fallback;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private static String queryString(String query, String name) {
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1);
+        }
+        return null;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        // Se lee el cuerpo completo para que la conexión pueda reutilizarse
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + Json.escape(message) + "\"}";
+    }
+
+    private static void reply(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Runs an arena until the process is stopped.
+     *
+     * @param args optional port number
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        BotArena arena = new BotArena(new InetSocketAddress(port), DEFAULT_MOVE_DEADLINE_MS);
+        arena.start();
+        System.out.println("Battleship bot arena listening on " + arena.getAddress());
+        // Los hilos del servidor son daemon: se mantiene vivo el proceso
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            arena.stop();
+        }
+    }
+}
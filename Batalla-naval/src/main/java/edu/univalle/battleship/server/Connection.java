@@ -0,0 +1,86 @@
+package edu.univalle.battleship.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * One client of the {@link GameServer}: its channel, its buffers and the seat
+ * it holds in a {@link ServerSession}.
+ * <p>
+ * Only used from the server's selector thread. Outgoing frames are appended to
+ * {@link #out} and written by {@link #flush()}; whatever the socket does not
+ * take at once waits for {@link SelectionKey#OP_WRITE}.
+ */
+final class Connection {
+
+    /** Initial size of the outgoing buffer; it grows for slow readers. */
+    private static final int OUT_CAPACITY = 256;
+
+    /** Largest backlog kept for a client that does not read; it is closed beyond this. */
+    private static final int MAX_BACKLOG = 64 * 1024;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+
+    /** Incoming bytes, in write mode between reads. */
+    final ByteBuffer in = ByteBuffer.allocate(2 + Protocol.MAX_PAYLOAD);
+
+    /** Outgoing bytes, in write mode between flushes. */
+    private ByteBuffer out = ByteBuffer.allocate(OUT_CAPACITY);
+
+    /** True while the connection is queued for {@link #flush()}. */
+    boolean pendingFlush;
+
+    ServerSession session;
+    int seat;
+
+    /** Place in the matchmaker while waiting for a human opponent, or null. */
+    Matchmaker.Ticket<Connection> ticket;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Queues a frame with the given payload.
+     *
+     * @param type   the message type
+     * @param fields the fields of the message, one byte each
+     */
+    void send(byte type, int... fields) {
+        int length = 1 + fields.length;
+        ensure(2 + length);
+        out.putShort((short) length);
+        out.put(type);
+        for (int field : fields) out.put((byte) field);
+    }
+
+    /**
+     * Writes as much of the queued output as the socket takes.
+     *
+     * @throws IOException if the connection is broken or its backlog is too large
+     */
+    void flush() throws IOException {
+        pendingFlush = false;
+        out.flip();
+        channel.write(out);
+        out.compact();
+        if (out.position() > 0) {
+            if (out.position() > MAX_BACKLOG) throw new IOException("Client is not reading");
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        } else if ((key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (out.remaining() >= bytes) return;
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + bytes));
+        out.flip();
+        larger.put(out);
+        out = larger;
+    }
+}
@@ -0,0 +1,171 @@
+package edu.univalle.battleship.server;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking client of the {@link GameServer}, used by simulated players.
+ * <p>
+ * {@link #playGame} plays a whole game: it joins, lets the server place the
+ * fleet and fires at random cells it has not tried yet, switching to the
+ * neighbours of a hit like the machine's hunt/target strategy. The
+ * {@link LoadGenerator} also times every move.
+ */
+public class GameClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocate(2 + Protocol.MAX_PAYLOAD);
+    private final ByteBuffer out = ByteBuffer.allocate(2 + Protocol.MAX_PAYLOAD);
+    /** Seed of the targets of the next game. */
+    private long seed;
+
+    /** Payload of the last message received, type first. */
+    private final int[] message = new int[Protocol.MAX_PAYLOAD];
+    private int messageLength;
+
+    /**
+     * Connects to a server.
+     *
+     * @param address the server address
+     * @param seed    seed of the random choice of targets
+     * @throws IOException if the connection fails
+     */
+    public GameClient(InetSocketAddress address, long seed) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.seed = seed;
+        in.flip();
+    }
+
+    /**
+     * Sends one message.
+     *
+     * @param type   the message type
+     * @param fields the fields of the message, one byte each
+     * @throws IOException if the connection is broken
+     */
+    public void send(byte type, int... fields) throws IOException {
+        out.clear();
+        out.putShort((short) (1 + fields.length));
+        out.put(type);
+        for (int field : fields) out.put((byte) field);
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+    }
+
+    /**
+     * Waits for the next message.
+     *
+     * @return its type; the fields are read with {@link #field(int)}
+     * @throws IOException if the connection is broken or closed
+     */
+    public int receive() throws IOException {
+        fill(2);
+        int length = Short.toUnsignedInt(in.getShort());
+        fill(length);
+        for (int i = 0; i < length; i++) message[i] = Byte.toUnsignedInt(in.get());
+        messageLength = length;
+        return message[0];
+    }
+
+    /**
+     * Returns a field of the last message received.
+     *
+     * @param index the index of the field, from 0
+     * @return the field value, from 0 to 255
+     */
+    public int field(int index) {
+        if (index + 1 >= messageLength) throw new IndexOutOfBoundsException("Message has no field " + index);
+        return message[index + 1];
+    }
+
+    private void fill(int bytes) throws IOException {
+        if (in.remaining() >= bytes) return;
+        in.compact();
+        while (in.position() < bytes) {
+            if (channel.read(in) < 0) throw new EOFException("Server closed the connection");
+        }
+        in.flip();
+    }
+
+    /**
+     * Plays a whole game with a fleet placed by the server.
+     *
+     * @param opponent {@link Protocol#OPPONENT_MACHINE} or {@link Protocol#OPPONENT_HUMAN}
+     * @return true if this client won
+     * @throws IOException if the connection is broken or the server reports an error
+     */
+    public boolean playGame(int opponent) throws IOException {
+        return playGame(opponent, true, 0, null);
+    }
+
+    /**
+     * Plays a whole game with a fleet placed by the server.
+     *
+     * @param opponent  {@link Protocol#OPPONENT_MACHINE} or {@link Protocol#OPPONENT_HUMAN}
+     * @param hunt      true to follow up hits on their neighbours, false to fire at random
+     * @param thinkMs   pause before each shot, in milliseconds
+     * @param latencies receives the time from each shot to its result, or null
+     * @return true if this client won
+     * @throws IOException if the connection is broken or the server reports an error
+     */
+    public boolean playGame(int opponent, boolean hunt, long thinkMs, LatencyHistogram latencies) throws IOException {
+        send(Protocol.JOIN, opponent);
+        int type;
+        while ((type = receive()) == Protocol.WAITING) {
+            // Espera a otro jugador humano
+        }
+        expect(type, Protocol.MATCHED);
+        int size = field(0);
+        send(Protocol.PLACE, 0);
+        expect(receive(), Protocol.START);
+
+        TargetPicker picker = new TargetPicker(size, hunt, seed++);
+        boolean myTurn = field(0) == 1;
+        boolean awaiting = false;
+        long sentAt = 0;
+        while (true) {
+            if (myTurn && !awaiting) {
+                if (thinkMs > 0) sleep(thinkMs);
+                int cell = picker.next();
+                sentAt = System.nanoTime();
+                send(Protocol.SHOOT, cell / size, cell % size);
+                awaiting = true;
+            }
+            type = receive();
+            if (type == Protocol.OVER) return field(0) == 1;
+            expect(type, Protocol.RESULT);
+            if (field(0) == Protocol.YOU) {
+                if (latencies != null) latencies.record(System.nanoTime() - sentAt);
+                picker.update(field(1), field(2), field(3));
+                awaiting = false;
+            }
+            myTurn = field(4) == 1;
+        }
+    }
+
+    private static void sleep(long ms) throws IOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    private void expect(int type, int expected) throws IOException {
+        if (type == expected) return;
+        if (type == Protocol.ERROR) throw new IOException("Server error " + field(0));
+        throw new IOException("Unexpected message " + type + ", expected " + expected);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
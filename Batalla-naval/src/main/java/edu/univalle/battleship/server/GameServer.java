@@ -0,0 +1,431 @@
+package edu.univalle.battleship.server;
+
+import edu.univalle.battleship.model.HashedWheelTimer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TCP server that hosts human-versus-human and human-versus-machine games
+ * over the binary {@link Protocol}.
+ * <p>
+ * Everything runs on one thread around a NIO {@link Selector}: accepting,
+ * reading, game logic and writing. Connections cost a key and two small
+ * buffers, so one server holds tens of thousands of idle clients, and a message
+ * is answered in the same pass of the loop that read it, without any hand-off
+ * between threads. Output produced for several clients in one pass is written
+ * once at the end of the pass.
+ * <p>
+ * Each client has {@link #DEFAULT_TURN_LIMIT_MS} per shot unless another limit
+ * is given; a client that runs out of time loses the game. The clocks of all
+ * sessions share one {@link HashedWheelTimer}, whose thread only hands expired
+ * clocks back to the selector thread.
+ * <p>
+ * Clients who ask for a human opponent go to a {@link Matchmaker}, which pairs
+ * them by rating once per pass of the loop and again every
+ * {@link #PAIRING_INTERVAL_MS} while some wait, accepting wider rating gaps
+ * the longer they wait.
+ * <p>
+ * Every game has an id, sent in {@link Protocol#MATCHED}, that spectators use
+ * to watch it. Each game publishes its moves once into a {@link MoveFeed};
+ * a {@link SpectatorHub} on other threads copies them to the spectators, so
+ * watchers add no work to this thread however many there are.
+ * <p>
+ * Run it headless with {@code java edu.univalle.battleship.server.GameServer [port]}.
+ */
+public class GameServer {
+
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 7777;
+
+    /** Time a client has for each shot unless another limit is given. */
+    public static final long DEFAULT_TURN_LIMIT_MS = 30_000;
+
+    /** Waiting time after which a client accepts opponents one more rating bucket away. */
+    public static final long MATCH_WIDEN_MS = 2000;
+
+    /** Time between two pairing passes while clients wait. */
+    public static final long PAIRING_INTERVAL_MS = 250;
+
+    private final InetSocketAddress address;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+
+    /** Connections with output queued during the current pass. */
+    private final ArrayDeque<Connection> dirty = new ArrayDeque<>();
+
+    /** Clients waiting for a human opponent, by rating. */
+    private final Matchmaker<Connection> matchmaker =
+            new Matchmaker<>(TimeUnit.MILLISECONDS.toNanos(MATCH_WIDEN_MS));
+
+    /** Clients that asked for a human opponent during the current pass. */
+    private final List<Connection> joined = new ArrayList<>();
+
+    /** Next pairing pass for clients still waiting, or null. */
+    private HashedWheelTimer.Timeout pairingTimeout;
+
+    /** Work handed to the selector thread by other threads, such as expired turn clocks. */
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private final long turnLimitMs;
+
+    /** Feeds of the games being played, by game id. */
+    private final Map<Integer, MoveFeed> feeds = new HashMap<>();
+    private int lastGameId;
+
+    private final SpectatorHub spectators;
+
+    /** True when a move was published during the current pass. */
+    private boolean feedsChanged;
+
+    private volatile Thread thread;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a server bound to the given address; it accepts clients once started.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_TURN_LIMIT_MS);
+    }
+
+    /**
+     * Creates a server bound to the given address; it accepts clients once started.
+     *
+     * @param address     the address to listen on; port 0 picks a free port
+     * @param turnLimitMs time a client has for each shot; 0 for no limit
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, long turnLimitMs) throws IOException {
+        this.turnLimitMs = Math.max(0, turnLimitMs);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(address, 1024);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.address = (InetSocketAddress) serverChannel.getLocalAddress();
+        this.spectators = new SpectatorHub(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /** @return the time a client has for each shot, or 0 for no limit */
+    long getTurnLimitMs() {
+        return turnLimitMs;
+    }
+
+    /**
+     * Runs a task on the selector thread, from any thread.
+     *
+     * @param task the task
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /** @return the address the server listens on, with the actual port */
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    /**
+     * Starts the server on its own thread.
+     */
+    public void start() {
+        spectators.start();
+        Thread t = new Thread(this::run, "game-server");
+        thread = t;
+        t.start();
+    }
+
+    /**
+     * Stops the server and closes every connection.
+     */
+    public void stop() {
+        stopped = true;
+        selector.wakeup();
+        spectators.stop();
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread()) {
+            try {
+                t.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (!stopped) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) task.run();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) read(connection);
+                        if (key.isValid() && key.isWritable()) connection.flush();
+                    } catch (IOException e) {
+                        close(connection);
+                    }
+                }
+                if (!joined.isEmpty()) pairPlayers();
+                flushDirty();
+                if (feedsChanged) {
+                    feedsChanged = false;
+                    spectators.signal();
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (!stopped) e.printStackTrace();
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.channel.read(in) < 0) throw new IOException("Client closed the connection");
+        in.flip();
+        while (in.remaining() >= 2) {
+            int length = Short.toUnsignedInt(in.getShort(in.position()));
+            if (length == 0 || length > Protocol.MAX_PAYLOAD) throw new IOException("Bad frame length " + length);
+            if (in.remaining() < 2 + length) break;
+            in.position(in.position() + 2);
+            int end = in.position() + length;
+            handle(connection, in, length);
+            in.position(end);
+            if (!connection.key.isValid()) return;
+        }
+        in.compact();
+    }
+
+    private void handle(Connection connection, ByteBuffer in, int length) {
+        byte type = in.get();
+        ServerSession session = connection.session;
+        switch (type) {
+            case Protocol.JOIN -> {
+                if (length != 2 && length != 4) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_BAD_MESSAGE);
+                } else if (session != null || connection.ticket != null) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_WRONG_STATE);
+                } else if (in.get() == Protocol.OPPONENT_HUMAN) {
+                    joinHuman(connection, length == 4 ? Short.toUnsignedInt(in.getShort()) : Matchmaker.DEFAULT_RATING);
+                } else {
+                    new ServerSession(this, connection, null);
+                }
+            }
+            case Protocol.PLACE -> {
+                int count = length >= 2 ? Byte.toUnsignedInt(in.get()) : -1;
+                if (count < 0 || length != 2 + count * 3) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_BAD_MESSAGE);
+                } else if (session == null) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_WRONG_STATE);
+                } else {
+                    int[] layout = new int[count * 3];
+                    for (int i = 0; i < layout.length; i++) layout[i] = Byte.toUnsignedInt(in.get());
+                    session.place(connection.seat, layout);
+                }
+            }
+            case Protocol.SHOOT -> {
+                if (length != 3) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_BAD_MESSAGE);
+                } else if (session == null) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_WRONG_STATE);
+                } else {
+                    session.shoot(connection.seat, Byte.toUnsignedInt(in.get()), Byte.toUnsignedInt(in.get()));
+                }
+            }
+            case Protocol.WATCH -> {
+                if (length != 3) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_BAD_MESSAGE);
+                } else if (session != null || connection.ticket != null) {
+                    send(connection, Protocol.ERROR, Protocol.ERROR_WRONG_STATE);
+                } else {
+                    watch(connection, Short.toUnsignedInt(in.getShort()));
+                }
+            }
+            default -> send(connection, Protocol.ERROR, Protocol.ERROR_BAD_MESSAGE);
+        }
+    }
+
+    private void watch(Connection connection, int gameId) {
+        MoveFeed feed = feeds.get(gameId);
+        if (feed == null) {
+            send(connection, Protocol.ERROR, Protocol.ERROR_NO_SUCH_GAME);
+            return;
+        }
+        // El canal deja este selector y pasa a un hilo de difusión
+        connection.key.cancel();
+        spectators.watch(connection.channel, feed);
+    }
+
+    /**
+     * Opens the feed of a new game, under an id no game being played has.
+     *
+     * @return the feed
+     */
+    MoveFeed openFeed() {
+        int id = lastGameId;
+        do {
+            id = id % 0xFFFF + 1; // ids de 1 a 65535, reutilizados al dar la vuelta
+        } while (feeds.containsKey(id) && id != lastGameId);
+        lastGameId = id;
+        MoveFeed feed = new MoveFeed(id);
+        feeds.put(id, feed);
+        return feed;
+    }
+
+    /**
+     * Notes that a game published a move; spectators are woken at the end of the pass.
+     */
+    void feedChanged() {
+        feedsChanged = true;
+    }
+
+    /**
+     * Closes the feed of a finished game; spectators already watching still get its end.
+     *
+     * @param feed the feed
+     */
+    void closeFeed(MoveFeed feed) {
+        feeds.remove(feed.getId(), feed);
+        feedsChanged = true;
+    }
+
+    /** @return the number of spectators connected */
+    int getSpectatorCount() {
+        return spectators.getSpectatorCount();
+    }
+
+    private void joinHuman(Connection connection, int rating) {
+        connection.ticket = matchmaker.enqueue(connection, rating);
+        joined.add(connection);
+    }
+
+    /**
+     * Starts a game for every pair the matchmaker finds, and tells the clients
+     * who joined during this pass and are still unpaired to wait.
+     */
+    private void pairPlayers() {
+        matchmaker.pair(System.nanoTime(), (first, second) -> {
+            first.ticket = null;
+            second.ticket = null;
+            new ServerSession(this, first, second);
+        });
+        for (Connection connection : joined) {
+            if (connection.ticket != null) send(connection, Protocol.WAITING);
+        }
+        joined.clear();
+        if (pairingTimeout == null && matchmaker.getWaiting() > 0) {
+            pairingTimeout = HashedWheelTimer.getShared().schedule(() -> execute(() -> {
+                pairingTimeout = null;
+                pairPlayers();
+            }), PAIRING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queues a message for a client; it is written at the end of the current pass.
+     *
+     * @param connection the client
+     * @param type       the message type
+     * @param fields     the fields of the message, one byte each
+     */
+    void send(Connection connection, byte type, int... fields) {
+        if (!connection.key.isValid()) return;
+        connection.send(type, fields);
+        if (!connection.pendingFlush) {
+            connection.pendingFlush = true;
+            dirty.add(connection);
+        }
+    }
+
+    private void flushDirty() {
+        Connection connection;
+        while ((connection = dirty.poll()) != null) {
+            if (!connection.key.isValid()) continue;
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                close(connection);
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        if (connection.ticket != null) {
+            connection.ticket.cancel();
+            connection.ticket = null;
+        }
+        ServerSession session = connection.session;
+        connection.session = null;
+        if (session != null) session.abandon(connection.seat);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void closeAll() {
+        if (pairingTimeout != null) pairingTimeout.cancel();
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args optional port number
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(new InetSocketAddress(port));
+        server.start();
+        System.out.println("Battleship server listening on " + server.getAddress());
+    }
+}
@@ -0,0 +1,122 @@
+package edu.univalle.battleship.server;
+
+import java.util.Arrays;
+
+/**
+ * Just enough JSON for the {@link BotArena}: reading integer and string fields
+ * of a flat object, and integer arrays, and escaping strings written back,
+ * without a parser library.
+ * <p>
+ * Field names are looked up as {@code "name"} followed by a colon, so values
+ * must not contain quoted field names of their own.
+ */
+final class Json {
+
+    private Json() {}
+
+    /**
+     * Reads an integer field.
+     *
+     * @param body     the JSON object
+     * @param name     the field name
+     * @param fallback the value when the field is missing or not a number
+     * @return the value
+     */
+    static int intField(String body, String name, int fallback) {
+        int i = valueStart(body, name);
+        if (i < 0) return fallback;
+        int end = i;
+        if (end < body.length() && body.charAt(end) == '-') end++;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) end++;
+        try {
+            return Integer.parseInt(body.substring(i, end));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Reads a string field; escapes are not supported.
+     *
+     * @param body     the JSON object
+     * @param name     the field name
+     * @param fallback the value when the field is missing or not a string
+     * @return the value
+     */
+    static String stringField(String body, String name, String fallback) {
+        int i = valueStart(body, name);
+        if (i < 0 || i >= body.length() || body.charAt(i) != '"') return fallback;
+        int end = body.indexOf('"', i + 1);
+        return end < 0 ? fallback : body.substring(i + 1, end);
+    }
+
+    /**
+     * Reads every integer of an array field, flattening nested arrays, so
+     * {@code [[1,2,0],[3,4,1]]} and {@code [1,2,0,3,4,1]} give the same result.
+     *
+     * @param body the JSON object
+     * @param name the field name
+     * @return the integers, or null if the field is missing or not an array
+     */
+    static int[] intArray(String body, String name) {
+        int i = valueStart(body, name);
+        if (i < 0 || i >= body.length() || body.charAt(i) != '[') return null;
+        int[] values = new int[16];
+        int count = 0;
+        int depth = 0;
+        for (; i < body.length(); i++) {
+            char ch = body.charAt(i);
+            if (ch == '[') {
+                depth++;
+            } else if (ch == ']') {
+                if (--depth == 0) return Arrays.copyOf(values, count);
+            } else if (ch == '-' || Character.isDigit(ch)) {
+                int end = i + 1;
+                while (end < body.length() && Character.isDigit(body.charAt(end))) end++;
+                if (count == values.length) values = Arrays.copyOf(values, count * 2);
+                try {
+                    values[count++] = Integer.parseInt(body.substring(i, end));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                i = end - 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Escapes a string for use inside a JSON string literal.
+     *
+     * @param text the raw text
+     * @return the text with quotes, backslashes and control characters escaped
+     */
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (ch < 0x20) escaped.append(String.format("\\u%04x", (int) ch));
+                    else escaped.append(ch);
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static int valueStart(String body, String name) {
+        int i = body.indexOf('"' + name + '"');
+        if (i < 0) return -1;
+        i = body.indexOf(':', i + name.length() + 2);
+        if (i < 0) return -1;
+        i++;
+        while (i < body.length() && Character.isWhitespace(body.charAt(i))) i++;
+        return i;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.univalle.battleship.server;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Histogram of latencies in nanoseconds, with log-linear buckets.
+ * <p>
+ * Each power of two is split into 32 buckets, so any recorded value is
+ * reported within about 3% and recording is a couple of shifts and an
+ * increment, with no allocation. Not thread-safe: each thread keeps its own
+ * histogram and they are {@link #merge merged} at the end. Histograms travel
+ * between processes with {@link #writeTo} and {@link #readFrom}.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS) * SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Adds every value recorded by another histogram.
+     *
+     * @param other the histogram to add
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Writes the histogram; only the buckets in use are written.
+     *
+     * @param out the destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int used = 0;
+        for (long c : counts) if (c != 0) used++;
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeLong(max);
+        out.writeInt(used);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            out.writeShort(i);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    /**
+     * Reads a histogram written by {@link #writeTo}.
+     *
+     * @param in the source
+     * @return the histogram
+     * @throws IOException if reading fails or the data is not a histogram
+     */
+    public static LatencyHistogram readFrom(DataInput in) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.count = in.readLong();
+        histogram.sum = in.readLong();
+        histogram.max = in.readLong();
+        int used = in.readInt();
+        if (used < 0 || used > histogram.counts.length) throw new IOException("Bad histogram");
+        for (int i = 0; i < used; i++) {
+            int index = in.readUnsignedShort();
+            if (index >= histogram.counts.length) throw new IOException("Bad histogram bucket " + index);
+            histogram.counts[index] = in.readLong();
+        }
+        return histogram;
+    }
+
+    /** @return the number of values recorded */
+    public long getCount() { return count; }
+
+    /** @return the largest value recorded, in nanoseconds */
+    public long getMax() { return max; }
+
+    /** @return the mean of the values recorded, in nanoseconds */
+    public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+
+    /**
+     * Returns the value below which a fraction of the recorded values fall.
+     *
+     * @param fraction between 0 and 1, for example 0.99 for the 99th percentile
+     * @return the upper bound of the bucket holding that value, in nanoseconds
+     */
+    public long percentile(double fraction) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long lower = (long) (SUB_BUCKETS | index % SUB_BUCKETS) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,308 @@
+package edu.univalle.battleship.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Standalone load generator for the {@link GameServer} and the {@link BotArena}.
+ * <p>
+ * Starts N simulated players, each on its own thread, that play whole games
+ * with a given think time and targeting. Every shot is timed from the moment
+ * it is sent until its result arrives; the report gives the p50, p99 and
+ * p99.9 latencies, the throughput in moves per second and the error rate.
+ * <pre>
+ *   java edu.univalle.battleship.server.LoadGenerator --mode tcp|http
+ *        [--host 127.0.0.1] [--port N | --embedded] [--players 100] [--games 10]
+ *        [--think-ms 0] [--strategy hunt|random] [--opponent machine|human|hunt|random|probability]
+ *        [--report load-report.txt]
+ * </pre>
+ * With {@code --embedded} a server is started in this JVM on a free port, so
+ * capacity can be measured with nothing else running. Over TCP the opponent is
+ * {@code machine} or {@code human} (players are paired with each other, so
+ * their number should be even); over
+ * HTTP it is one of the arena's strategies.
+ */
+public class LoadGenerator {
+
+    /**
+     * Settings of a run, read from the command line.
+     */
+    public static final class Config {
+        String mode = "tcp";
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port = -1;
+        boolean embedded;
+        int players = 100;
+        int games = 10;
+        long thinkMs;
+        boolean hunt = true;
+        String opponent;
+        Path report = Paths.get("load-report.txt");
+
+        /**
+         * Reads the settings from command-line arguments.
+         *
+         * @param args the arguments, as described in {@link LoadGenerator}
+         * @return the settings
+         * @throws IllegalArgumentException if an argument is unknown or has no value
+         */
+        public static Config parse(String[] args) {
+            Config config = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String name = args[i];
+                if (name.equals("--embedded")) {
+                    config.embedded = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + name);
+                String value = args[++i];
+                switch (name) {
+                    case "--mode" -> config.mode = value;
+                    case "--host" -> config.host = value;
+                    case "--port" -> config.port = Integer.parseInt(value);
+                    case "--players" -> config.players = Integer.parseInt(value);
+                    case "--games" -> config.games = Integer.parseInt(value);
+                    case "--think-ms" -> config.thinkMs = Long.parseLong(value);
+                    case "--strategy" -> config.hunt = !value.equals("random");
+                    case "--opponent" -> config.opponent = value;
+                    case "--report" -> config.report = Paths.get(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + name);
+                }
+            }
+            if (!config.mode.equals("tcp") && !config.mode.equals("http")) {
+                throw new IllegalArgumentException("Mode must be tcp or http");
+            }
+            if (config.opponent == null) config.opponent = config.mode.equals("tcp") ? "machine" : "hunt";
+            if (config.port < 0 && !config.embedded) {
+                config.port = config.mode.equals("tcp") ? GameServer.DEFAULT_PORT : BotArena.DEFAULT_PORT;
+            }
+            return config;
+        }
+    }
+
+    /**
+     * Results of a run.
+     */
+    public static final class Report {
+        private final Config config;
+        private final LatencyHistogram latencies;
+        private final long games;
+        private final long errors;
+        private final long elapsedNanos;
+
+        private Report(Config config, LatencyHistogram latencies, long games, long errors, long elapsedNanos) {
+            this.config = config;
+            this.latencies = latencies;
+            this.games = games;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return the latency of every move */
+        public LatencyHistogram getLatencies() { return latencies; }
+
+        /** @return the number of games played to the end */
+        public long getGames() { return games; }
+
+        /** @return the number of games that failed */
+        public long getErrors() { return errors; }
+
+        /** @return moves per second over the whole run */
+        public double getThroughput() {
+            return elapsedNanos == 0 ? 0 : latencies.getCount() * 1e9 / elapsedNanos;
+        }
+
+        /** @return failed games over all games attempted */
+        public double getErrorRate() {
+            return games + errors == 0 ? 0 : (double) errors / (games + errors);
+        }
+
+        /**
+         * Writes the report as {@code key=value} lines.
+         *
+         * @param file the destination
+         * @throws IOException if the file cannot be written
+         */
+        public void write(Path file) throws IOException {
+            Files.writeString(file, toString(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "mode=%s%nopponent=%s%nstrategy=%s%nplayers=%d%ngames_per_player=%d%nthink_ms=%d%n"
+                            + "duration_s=%.3f%ngames=%d%nmoves=%d%nerrors=%d%nerror_rate=%.6f%n"
+                            + "throughput_moves_per_s=%.1f%nlatency_p50_us=%.1f%nlatency_p99_us=%.1f%n"
+                            + "latency_p999_us=%.1f%nlatency_max_us=%.1f%nlatency_mean_us=%.1f%n",
+                    config.mode, config.opponent, config.hunt ? "hunt" : "random", config.players,
+                    config.games, config.thinkMs, elapsedNanos / 1e9, games, latencies.getCount(), errors,
+                    getErrorRate(), getThroughput(), latencies.percentile(0.50) / 1e3,
+                    latencies.percentile(0.99) / 1e3, latencies.percentile(0.999) / 1e3,
+                    latencies.getMax() / 1e3, latencies.getMean() / 1e3);
+        }
+    }
+
+    private static final String[] OUTCOMES = {"miss", "hit", "sunk", "already"};
+
+    private LoadGenerator() {}
+
+    /**
+     * Runs the players until all their games are over, and writes the report.
+     *
+     * @param config the settings
+     * @return the results
+     * @throws IOException if the embedded server cannot start or the report cannot be written
+     * @throws InterruptedException if interrupted while waiting for the players
+     */
+    public static Report run(Config config) throws IOException, InterruptedException {
+        GameServer server = null;
+        BotArena arena = null;
+        InetSocketAddress address;
+        if (!config.embedded) {
+            address = new InetSocketAddress(config.host, config.port);
+        } else {
+            InetSocketAddress local = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+            if (config.mode.equals("tcp")) {
+                server = new GameServer(local);
+                server.start();
+                address = server.getAddress();
+            } else {
+                arena = new BotArena(local, BotArena.DEFAULT_MOVE_DEADLINE_MS);
+                arena.start();
+                address = arena.getAddress();
+            }
+        }
+
+        try {
+            List<LatencyHistogram> histograms = new ArrayList<>();
+            AtomicLong games = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+            CountDownLatch done = new CountDownLatch(config.players);
+            InetSocketAddress target = address;
+
+            long start = System.nanoTime();
+            for (int p = 0; p < config.players; p++) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                histograms.add(histogram);
+                long seed = p;
+                Thread player = new Thread(() -> {
+                    try {
+                        for (int g = 0; g < config.games; g++) {
+                            try {
+                                if (config.mode.equals("tcp")) playTcp(config, target, seed * config.games + g, histogram);
+                                else playHttp(config, target, seed * config.games + g, histogram);
+                                games.incrementAndGet();
+                            } catch (IOException | RuntimeException e) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }, "load-player-" + p);
+                player.setDaemon(true);
+                player.start();
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+
+            LatencyHistogram all = new LatencyHistogram();
+            for (LatencyHistogram histogram : histograms) all.merge(histogram);
+            Report report = new Report(config, all, games.get(), errors.get(), elapsed);
+            if (config.report != null) report.write(config.report);
+            return report;
+        } finally {
+            if (server != null) server.stop();
+            if (arena != null) arena.stop();
+        }
+    }
+
+    private static void playTcp(Config config, InetSocketAddress address, long seed, LatencyHistogram latencies)
+            throws IOException {
+        int opponent = config.opponent.equals("human") ? Protocol.OPPONENT_HUMAN : Protocol.OPPONENT_MACHINE;
+        try (GameClient client = new GameClient(address, seed)) {
+            client.playGame(opponent, config.hunt, config.thinkMs, latencies);
+        }
+    }
+
+    private static void playHttp(Config config, InetSocketAddress address, long seed, LatencyHistogram latencies)
+            throws IOException {
+        String base = "http://" + address.getHostString() + ":" + address.getPort() + "/games";
+        String created = post(base, "{\"opponent\":\"" + config.opponent + "\"}");
+        int id = Json.intField(created, "id", -1);
+        int size = Json.intField(created, "size", -1);
+        String token = Json.stringField(created, "token", null);
+        if (id < 0 || size <= 0 || token == null) throw new IOException("Bad reply " + created);
+        String seat = "{\"seat\":0,\"token\":\"" + token + "\"";
+        post(base + "/" + id + "/fleet", seat + "}");
+
+        TargetPicker picker = new TargetPicker(size, config.hunt, seed);
+        int winner = -1;
+        while (winner < 0) {
+            if (config.thinkMs > 0) {
+                try {
+                    Thread.sleep(config.thinkMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            int cell = picker.next();
+            long sentAt = System.nanoTime();
+            String reply = post(base + "/" + id + "/shots",
+                    seat + ",\"row\":" + cell / size + ",\"col\":" + cell % size + "}");
+            latencies.record(System.nanoTime() - sentAt);
+            picker.update(cell / size, cell % size, outcomeOf(Json.stringField(reply, "outcome", "")));
+            winner = Json.intField(reply, "winner", -1);
+        }
+    }
+
+    private static int outcomeOf(String name) throws IOException {
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            if (OUTCOMES[i].equals(name)) return i;
+        }
+        throw new IOException("Unknown outcome " + name);
+    }
+
+    private static String post(String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        InputStream stream = status < 300 ? connection.getInputStream() : connection.getErrorStream();
+        String reply = stream == null ? "" : new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        if (stream != null) stream.close(); // devuelve la conexión al pool de keep-alive
+        if (status >= 300) throw new IOException("HTTP " + status + " " + reply);
+        return reply;
+    }
+
+    /**
+     * Runs the load generator from the command line.
+     *
+     * @param args the options described in {@link LoadGenerator}
+     * @throws Exception if the run cannot start
+     */
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        Report report = run(config);
+        System.out.print(report);
+        System.out.println("Report written to " + config.report.toAbsolutePath());
+    }
+}
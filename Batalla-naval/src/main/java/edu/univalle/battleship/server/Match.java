@@ -0,0 +1,147 @@
+package edu.univalle.battleship.server;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.HumanTendencies;
+import edu.univalle.battleship.model.MachinePlayer;
+import edu.univalle.battleship.model.Orientation;
+import edu.univalle.battleship.model.SharedTendencies;
+import edu.univalle.battleship.model.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rules of one game between two seats, shared by every way the server hosts
+ * games ({@link ServerSession}, {@link BotArena}).
+ * <p>
+ * Runs on the core model: each seat has a {@link Board} and a fleet, and shots
+ * go through {@link Board#receiveShot}. Seat 0 shoots first; a seat keeps
+ * shooting after a hit or a sink and the turn passes on a miss. Not thread-safe;
+ * callers serialize access.
+ */
+final class Match {
+
+    /** Winner of a game that has not ended. */
+    static final int NONE = -1;
+
+    private final Board[] boards = {new Board(), new Board()};
+    private final List<List<Ship>> fleets = List.of(new ArrayList<>(), new ArrayList<>());
+    private final boolean[] placed = new boolean[2];
+
+    private final int[][] firstShots = new int[2][HumanTendencies.FIRST_SHOTS];
+    private final int[] firstShotCount = new int[2];
+
+    private int turn;
+    private int winner = NONE;
+
+    /** @return true once the seat has a fleet */
+    boolean isPlaced(int seat) { return placed[seat]; }
+
+    /** @return true once both seats have a fleet */
+    boolean isStarted() { return placed[0] && placed[1]; }
+
+    /** @return true once one of the seats has won */
+    boolean isOver() { return winner != NONE; }
+
+    /** @return the seat to shoot */
+    int getTurn() { return turn; }
+
+    /** @return the winning seat, or {@link #NONE} */
+    int getWinner() { return winner; }
+
+    /** @return the board of a seat, where the other seat's shots land */
+    Board getBoard(int seat) { return boards[seat]; }
+
+    /**
+     * Gives a seat the board and fleet of a machine whose fleet is already placed.
+     */
+    void placeMachine(int seat, MachinePlayer machine) {
+        boards[seat] = machine.getBoard();
+        fleets.get(seat).addAll(machine.getFleet());
+        placed[seat] = true;
+    }
+
+    /**
+     * Places a random standard fleet for a seat.
+     */
+    void placeRandom(int seat) {
+        MachinePlayer random = new MachinePlayer();
+        random.placeFleetAutomatically();
+        placeMachine(seat, random);
+    }
+
+    /**
+     * Places a standard fleet for a seat.
+     *
+     * @param seat   the seat
+     * @param layout row, column and vertical flag (0 or 1) of each ship of
+     *               {@link MachinePlayer#standardFleet()}, in order
+     * @return false, placing nothing, if the layout does not fit the board
+     */
+    boolean placeLayout(int seat, int[] layout) {
+        List<Ship> fleet = MachinePlayer.standardFleet();
+        if (layout.length != fleet.size() * 3) return false;
+        Board board = new Board();
+        for (int i = 0; i < fleet.size(); i++) {
+            Ship ship = fleet.get(i);
+            int row = layout[i * 3];
+            int col = layout[i * 3 + 1];
+            Orientation orientation = layout[i * 3 + 2] != 0 ? Orientation.VERTICAL : Orientation.HORIZONTAL;
+            if (!board.canPlace(ship, row, col, orientation)) return false;
+            ship.place(row, col, orientation);
+            board.placeShip(ship);
+        }
+        boards[seat] = board;
+        fleets.get(seat).addAll(fleet);
+        placed[seat] = true;
+        return true;
+    }
+
+    /**
+     * Fires a shot from a seat at the other seat's board. The caller checks
+     * that the game is started, not over, and that it is the seat's turn.
+     *
+     * @return one of the {@code Protocol.OUTCOME_} constants
+     */
+    int fire(int seat, int row, int col) {
+        return apply(seat, row, col, boards[1 - seat].receiveShot(row, col));
+    }
+
+    /**
+     * Applies a shot a machine already fired at the other seat's board.
+     *
+     * @param result the result returned by {@link Board#receiveShot}
+     * @return one of the {@code Protocol.OUTCOME_} constants
+     */
+    int apply(int seat, int row, int col, String result) {
+        int outcome = Protocol.outcomeOf(result);
+        if (outcome == Protocol.OUTCOME_MISS) turn = 1 - seat;
+        if (outcome != Protocol.OUTCOME_ALREADY && firstShotCount[seat] < HumanTendencies.FIRST_SHOTS) {
+            firstShots[seat][firstShotCount[seat]++] = row * Board.SIZE + col;
+        }
+        if (outcome == Protocol.OUTCOME_SUNK && isDefeated(1 - seat)) winner = seat;
+        return outcome;
+    }
+
+    /**
+     * Ends the game in favour of the other seat.
+     */
+    void forfeit(int seat) {
+        if (winner == NONE) winner = 1 - seat;
+    }
+
+    private boolean isDefeated(int seat) {
+        for (Ship ship : fleets.get(seat)) {
+            if (!ship.isSunk()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Feeds the board and first shots of a seat played by a human to
+     * {@link SharedTendencies}.
+     */
+    void recordHuman(int seat) {
+        SharedTendencies.getInstance().recordGame(boards[seat].snapshot(), firstShots[seat], firstShotCount[seat]);
+    }
+}
@@ -0,0 +1,212 @@
+package edu.univalle.battleship.server;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiConsumer;
+
+/**
+ * Pairs waiting players, human or bot, by rating and time waited.
+ * <p>
+ * Ratings are split into buckets of {@link #BUCKET_WIDTH} points, each with
+ * its own lock-free queue, so players can enter from any thread without
+ * contending on a shared lock. Pairing is done in batches by {@link #pair}:
+ * players in the same bucket are paired in arrival order, and the one left
+ * over in each bucket waits for the next pass. Every {@code widenEveryNanos}
+ * of waiting, a player accepts opponents one bucket further away; two leftovers
+ * in different buckets are paired once both accept the distance. A pass only
+ * touches the new arrivals and one leftover per bucket, so its cost does not
+ * grow with the number of players waiting.
+ *
+ * @param <T> the players
+ */
+final class Matchmaker<T> {
+
+    /** Rating points covered by one bucket. */
+    static final int BUCKET_WIDTH = 100;
+
+    /** Highest rating told apart; higher ratings share the top bucket. */
+    static final int MAX_RATING = 3000;
+
+    /** Rating of a player who does not give one. */
+    static final int DEFAULT_RATING = 1500;
+
+    /**
+     * A player's place in the queue.
+     *
+     * @param <T> the players
+     */
+    static final class Ticket<T> {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int MATCHED = 2;
+        /** Held by a pass while it claims the opponent; lasts a few instructions. */
+        private static final int CLAIMING = 3;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Ticket> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Ticket.class, "state");
+
+        private final T player;
+        private final int bucket;
+        private final long enqueuedAt;
+        private final AtomicInteger waiting;
+        private volatile int state;
+
+        private Ticket(T player, int bucket, long enqueuedAt, AtomicInteger waiting) {
+            this.player = player;
+            this.bucket = bucket;
+            this.enqueuedAt = enqueuedAt;
+            this.waiting = waiting;
+        }
+
+        /**
+         * Leaves the queue, unless the player was already paired.
+         *
+         * @return true if this call took the player out
+         */
+        boolean cancel() {
+            while (true) {
+                int current = state;
+                if (current == CLAIMING) {
+                    Thread.onSpinWait();
+                } else if (current != WAITING) {
+                    return false;
+                } else if (STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                    waiting.decrementAndGet();
+                    return true;
+                }
+            }
+        }
+
+        /** @return true while the player waits for an opponent */
+        boolean isWaiting() {
+            return state == WAITING;
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Ticket<T>>[] queues;
+
+    /** Player left over in each bucket by the last pass; only used by the pass. */
+    private final Ticket<T>[] leftovers;
+
+    private final long widenEveryNanos;
+    private final AtomicBoolean pairing = new AtomicBoolean();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Creates an empty matchmaker.
+     *
+     * @param widenEveryNanos time after which a waiting player accepts opponents
+     *                        one more bucket away
+     */
+    @SuppressWarnings("unchecked")
+    Matchmaker(long widenEveryNanos) {
+        int buckets = MAX_RATING / BUCKET_WIDTH + 1;
+        this.queues = (ConcurrentLinkedQueue<Ticket<T>>[]) new ConcurrentLinkedQueue<?>[buckets];
+        for (int i = 0; i < buckets; i++) queues[i] = new ConcurrentLinkedQueue<>();
+        this.leftovers = (Ticket<T>[]) new Ticket<?>[buckets];
+        this.widenEveryNanos = Math.max(1, widenEveryNanos);
+    }
+
+    /**
+     * Puts a player in the queue; may be called from any thread.
+     *
+     * @param player the player
+     * @param rating the player's rating
+     * @return the ticket, to leave the queue
+     */
+    Ticket<T> enqueue(T player, int rating) {
+        int bucket = Math.min(Math.max(rating, 0), MAX_RATING) / BUCKET_WIDTH;
+        Ticket<T> ticket = new Ticket<>(player, bucket, System.nanoTime(), waiting);
+        waiting.incrementAndGet();
+        queues[bucket].add(ticket);
+        return ticket;
+    }
+
+    /** @return the number of players waiting */
+    int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Pairs the players waiting now. Only one pass runs at a time; a call made
+     * while another thread is pairing returns at once.
+     *
+     * @param now    the current time, from {@link System#nanoTime()}
+     * @param onPair receives each pair, the player who waited longer first
+     * @return the number of pairs made
+     */
+    int pair(long now, BiConsumer<T, T> onPair) {
+        if (!pairing.compareAndSet(false, true)) return 0;
+        try {
+            int pairs = 0;
+            for (int b = 0; b < queues.length; b++) {
+                Ticket<T> held = live(leftovers[b]);
+                Ticket<T> next;
+                while ((next = queues[b].poll()) != null) {
+                    if (!next.isWaiting()) continue;
+                    if (held == null) {
+                        held = next;
+                    } else if (match(held, next, onPair)) {
+                        pairs++;
+                        held = null;
+                    } else {
+                        // Solo falla si uno de los dos canceló en medio
+                        held = held.isWaiting() ? held : live(next);
+                    }
+                }
+                leftovers[b] = held;
+            }
+
+            // Los que sobran, de cubeta en cubeta, cuando ambos aceptan la distancia
+            Ticket<T> previous = null;
+            for (int b = 0; b < leftovers.length; b++) {
+                Ticket<T> current = live(leftovers[b]);
+                leftovers[b] = current;
+                if (current == null) continue;
+                if (previous != null && isWithinReach(previous, current, now) && match(previous, current, onPair)) {
+                    pairs++;
+                    leftovers[previous.bucket] = null;
+                    leftovers[b] = null;
+                    previous = null;
+                } else {
+                    previous = current;
+                }
+            }
+            return pairs;
+        } finally {
+            pairing.set(false);
+        }
+    }
+
+    private boolean match(Ticket<T> first, Ticket<T> second, BiConsumer<T, T> onPair) {
+        if (!Ticket.STATE.compareAndSet(first, Ticket.WAITING, Ticket.CLAIMING)) return false;
+        if (!Ticket.STATE.compareAndSet(second, Ticket.WAITING, Ticket.MATCHED)) {
+            first.state = Ticket.WAITING;
+            return false;
+        }
+        first.state = Ticket.MATCHED;
+        waiting.addAndGet(-2);
+        if (first.enqueuedAt <= second.enqueuedAt) onPair.accept(first.player, second.player);
+        else onPair.accept(second.player, first.player);
+        return true;
+    }
+
+    /** Tells whether two players in different buckets both accept each other. */
+    private boolean isWithinReach(Ticket<T> first, Ticket<T> second, long now) {
+        long distance = Math.abs(first.bucket - second.bucket);
+        return distance <= reach(first, now) && distance <= reach(second, now);
+    }
+
+    /** Number of buckets away a player accepts opponents from. */
+    private long reach(Ticket<T> ticket, long now) {
+        return (now - ticket.enqueuedAt) / widenEveryNanos;
+    }
+
+    /** @return the ticket if its player still waits, otherwise null */
+    private static <T> Ticket<T> live(Ticket<T> ticket) {
+        return ticket != null && ticket.isWaiting() ? ticket : null;
+    }
+}
@@ -0,0 +1,172 @@
+package edu.univalle.battleship.server;
+
+import edu.univalle.battleship.model.Board;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live record of one game for its spectators: a ring of the latest moves plus
+ * a keyframe with the whole public state of both boards.
+ * <p>
+ * The game's {@link ServerSession} is the only writer; it stores a move in the
+ * next slot and then advances {@link #published()}, so readers on any thread
+ * see complete moves without locks. Each reader keeps its own cursor. The
+ * writer never waits for readers: a reader that falls more than
+ * {@link #CAPACITY} moves behind finds its slots overwritten and starts again
+ * from {@link #keyframe()}, which is rebuilt every {@link #KEYFRAME_INTERVAL}
+ * moves.
+ * <p>
+ * A move is packed in a long: kind, seat, row, column and outcome, one byte each.
+ */
+final class MoveFeed {
+
+    /** Moves kept in the ring; a power of two. */
+    static final int CAPACITY = 256;
+
+    /** Moves between two keyframes; well below {@link #CAPACITY}, so a fresh keyframe is always in reach. */
+    static final int KEYFRAME_INTERVAL = 32;
+
+    /** Move kind: a shot; seat is the shooter. */
+    static final int KIND_SHOT = 1;
+    /** Move kind: the game ended; seat is the winner. */
+    static final int KIND_END = 2;
+
+    /**
+     * Public state of both boards after a given number of moves.
+     *
+     * @param sequence number of moves the keyframe includes
+     * @param fields   board size, then the cells of seat 0's board and of seat 1's
+     *                 board row by row, ready to be sent as {@link Protocol#KEYFRAME}
+     */
+    record Keyframe(long sequence, int[] fields) {}
+
+    private final int id;
+    private final AtomicLongArray slots = new AtomicLongArray(CAPACITY);
+    private final AtomicLong published = new AtomicLong();
+    private volatile Keyframe keyframe;
+
+    /** Number of moves until the next keyframe; only used by the writer. */
+    private int untilKeyframe = KEYFRAME_INTERVAL;
+
+    /**
+     * Creates the feed of a game that has not started.
+     *
+     * @param id the game id spectators ask for
+     */
+    MoveFeed(int id) {
+        this.id = id;
+        int[] fields = new int[1 + 2 * Board.SIZE * Board.SIZE];
+        fields[0] = Board.SIZE;
+        this.keyframe = new Keyframe(0, fields);
+    }
+
+    /** @return the game id */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Publishes a shot. Only called by the game's session.
+     *
+     * @param match   the game, after the shot
+     * @param shooter the seat that fired
+     * @param row     the target row
+     * @param col     the target column
+     * @param outcome one of the {@code Protocol.OUTCOME_} constants
+     */
+    void publishShot(Match match, int shooter, int row, int col, int outcome) {
+        publish(match, pack(KIND_SHOT, shooter, row, col, outcome));
+    }
+
+    /**
+     * Publishes the end of the game. Only called by the game's session.
+     *
+     * @param match  the finished game
+     * @param winner the winning seat
+     */
+    void publishEnd(Match match, int winner) {
+        publish(match, pack(KIND_END, winner, 0, 0, 0));
+    }
+
+    private void publish(Match match, long move) {
+        long sequence = published.get();
+        slots.lazySet((int) (sequence & (CAPACITY - 1)), move);
+        // La escritura con orden de liberación hace visible el slot antes que el contador
+        published.lazySet(sequence + 1);
+        if (--untilKeyframe == 0 || kindOf(move) == KIND_END) {
+            untilKeyframe = KEYFRAME_INTERVAL;
+            // El fin no cambia los tableros: queda fuera para que un lector atrasado aún lo reciba
+            keyframe = buildKeyframe(match, kindOf(move) == KIND_END ? sequence : sequence + 1);
+        }
+    }
+
+    private static Keyframe buildKeyframe(Match match, long sequence) {
+        int size = Board.SIZE;
+        int[] fields = new int[1 + 2 * size * size];
+        fields[0] = size;
+        for (int seat = 0; seat < 2; seat++) {
+            Board board = match.getBoard(seat);
+            if (board == null) continue;
+            int[][] cells = board.getCells();
+            int base = 1 + seat * size * size;
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    fields[base + r * size + c] = switch (cells[r][c]) {
+                        case 2 -> Protocol.CELL_HIT;
+                        case 3 -> Protocol.CELL_SUNK;
+                        case 4 -> Protocol.CELL_MISS;
+                        default -> Protocol.CELL_UNKNOWN; // el agua y los barcos intactos no se revelan
+                    };
+                }
+            }
+        }
+        return new Keyframe(sequence, fields);
+    }
+
+    /** @return number of moves published so far */
+    long published() {
+        return published.get();
+    }
+
+    /**
+     * Reads a published move. The slot may have been overwritten by a newer
+     * move; callers check {@link #isOverwritten} after reading.
+     *
+     * @param sequence the move number, below {@link #published()}
+     * @return the packed move
+     */
+    long get(long sequence) {
+        return slots.get((int) (sequence & (CAPACITY - 1)));
+    }
+
+    /**
+     * Tells whether a move is no longer in the ring.
+     *
+     * @param sequence the move number
+     * @return true if a newer move took its slot or may be taking it now
+     */
+    boolean isOverwritten(long sequence) {
+        // El escritor rellena el slot de published() antes de avanzarlo
+        return published.get() - sequence >= CAPACITY;
+    }
+
+    /** @return the latest keyframe */
+    Keyframe keyframe() {
+        return keyframe;
+    }
+
+    static long pack(int kind, int seat, int row, int col, int outcome) {
+        return (long) kind << 32 | (long) seat << 24 | row << 16 | col << 8 | outcome;
+    }
+
+    static int kindOf(long move) { return (int) (move >>> 32) & 0xFF; }
+
+    static int seatOf(long move) { return (int) (move >>> 24) & 0xFF; }
+
+    static int rowOf(long move) { return (int) (move >>> 16) & 0xFF; }
+
+    static int colOf(long move) { return (int) (move >>> 8) & 0xFF; }
+
+    static int outcomeOf(long move) { return (int) move & 0xFF; }
+}
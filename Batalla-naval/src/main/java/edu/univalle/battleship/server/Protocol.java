@@ -0,0 +1,109 @@
+package edu.univalle.battleship.server;
+
+/**
+ * Message types and layout of the binary protocol spoken by {@link GameServer}.
+ * <p>
+ * Every message is a frame: payload length (2 bytes, big-endian), then the
+ * payload, whose first byte is the message type. All fields are single
+ * unsigned bytes, so a shot travels in 5 bytes and its result in 8.
+ * <pre>
+ *   client to server
+ *     JOIN     opponent ({@link #OPPONENT_MACHINE} or {@link #OPPONENT_HUMAN}),
+ *              optionally followed by a rating (2 bytes) used to pick a
+ *              human opponent; 1500 when absent
+ *     PLACE    ship count, then row, column, vertical for each ship of
+ *              {@link edu.univalle.battleship.model.MachinePlayer#standardFleet()}
+ *              in order; a count of 0 asks the server to place the fleet
+ *     SHOOT    row, column
+ *     WATCH    game id (2 bytes); the connection becomes a spectator of
+ *              that game and sends nothing else
+ *
+ *   server to client
+ *     WAITING  (no fields) no human opponent of a close rating yet
+ *     MATCHED  board size, game id (2 bytes); the fleet may now be placed
+ *     START    1 if it is your turn
+ *     RESULT   shooter ({@link #YOU} or {@link #OPPONENT}), row, column,
+ *              outcome, 1 if it is now your turn
+ *     OVER     1 if you won
+ *     ERROR    error code
+ *
+ *   server to spectator
+ *     KEYFRAME board size, then the cells of seat 0's board and of seat 1's
+ *              board row by row, each one of the {@code CELL_} constants;
+ *              replaces everything seen so far
+ *     MOVE     shooter seat, row, column, outcome
+ *     ENDED    winning seat; the server then closes the connection
+ * </pre>
+ * Two-byte fields are big-endian. Keyframes fit boards of up to 19 cells a side.
+ * The usual rules apply: a player keeps shooting after a hit or a sink and the
+ * turn passes on a miss.
+ */
+public final class Protocol {
+
+    /** Largest payload accepted, enough for a placement of 255 ships. */
+    public static final int MAX_PAYLOAD = 2 + 255 * 3;
+
+    public static final byte JOIN = 0x01;
+    public static final byte PLACE = 0x02;
+    public static final byte SHOOT = 0x03;
+    public static final byte WATCH = 0x04;
+
+    public static final byte WAITING = 0x10;
+    public static final byte MATCHED = 0x11;
+    public static final byte START = 0x12;
+    public static final byte RESULT = 0x13;
+    public static final byte OVER = 0x14;
+    public static final byte KEYFRAME = 0x15;
+    public static final byte MOVE = 0x16;
+    public static final byte ENDED = 0x17;
+    public static final byte ERROR = 0x1F;
+
+    /** JOIN: play against a {@link edu.univalle.battleship.model.MachinePlayer}. */
+    public static final int OPPONENT_MACHINE = 0;
+    /** JOIN: play against the next human who asks for one. */
+    public static final int OPPONENT_HUMAN = 1;
+
+    /** RESULT: the shot was fired by the receiver. */
+    public static final int YOU = 0;
+    /** RESULT: the shot was fired by the receiver's opponent. */
+    public static final int OPPONENT = 1;
+
+    public static final int OUTCOME_MISS = 0;
+    public static final int OUTCOME_HIT = 1;
+    public static final int OUTCOME_SUNK = 2;
+    public static final int OUTCOME_ALREADY = 3;
+
+    /** KEYFRAME: the cell was not shot. */
+    public static final int CELL_UNKNOWN = 0;
+    public static final int CELL_MISS = 1;
+    public static final int CELL_HIT = 2;
+    public static final int CELL_SUNK = 3;
+
+    /** ERROR: unknown message type or wrong length. */
+    public static final int ERROR_BAD_MESSAGE = 1;
+    /** ERROR: the message is not allowed at this point of the game. */
+    public static final int ERROR_WRONG_STATE = 2;
+    /** ERROR: a shot out of turn. */
+    public static final int ERROR_NOT_YOUR_TURN = 3;
+    /** ERROR: the fleet does not fit the board; it may be sent again. */
+    public static final int ERROR_BAD_PLACEMENT = 4;
+    /** ERROR: a shot outside the board. */
+    public static final int ERROR_OUT_OF_BOARD = 5;
+    /** ERROR: WATCH for a game that is not being played. */
+    public static final int ERROR_NO_SUCH_GAME = 6;
+
+    private Protocol() {}
+
+    /**
+     * Converts a result returned by {@link edu.univalle.battleship.model.Board#receiveShot}.
+     *
+     * @param result "hit", "miss", "sunk:ShipName" or "already"
+     * @return one of the {@code OUTCOME_} constants
+     */
+    public static int outcomeOf(String result) {
+        if (result.equals("miss")) return OUTCOME_MISS;
+        if (result.equals("hit")) return OUTCOME_HIT;
+        if (result.startsWith("sunk")) return OUTCOME_SUNK;
+        return OUTCOME_ALREADY;
+    }
+}
@@ -0,0 +1,200 @@
+package edu.univalle.battleship.server;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.HashedWheelTimer;
+import edu.univalle.battleship.model.MachinePlayer;
+import edu.univalle.battleship.model.SharedTendencies;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One game hosted by the {@link GameServer}, between two clients or between
+ * a client and a {@link MachinePlayer}.
+ * <p>
+ * The rules are kept by a {@link Match}; this class turns its moves into
+ * protocol messages. Sessions are only used from the server's selector thread,
+ * so they need no locking; a machine's reply is computed inline, since it
+ * takes microseconds.
+ * <p>
+ * The client to move has {@link GameServer#getTurnLimitMs()} for each shot,
+ * timed on the shared {@link HashedWheelTimer}; if it runs out, that client
+ * loses.
+ * <p>
+ * Every shot and the end of the game are also published to the game's
+ * {@link MoveFeed} for spectators.
+ * <p>
+ * When the game ends, the boards and first shots of the human seats feed
+ * {@link SharedTendencies}, and the machine targets with its published priors.
+ */
+final class ServerSession {
+
+    private final GameServer server;
+
+    /** Clients in each seat; seat 1 is null when the opponent is the machine. */
+    private final Connection[] clients = new Connection[2];
+    private final Match match = new Match();
+    private final MachinePlayer machine;
+    private final MoveFeed feed;
+
+    /** True once the game ended, by a win or because a client left. */
+    private boolean over;
+
+    private HashedWheelTimer.Timeout turnTimeout;
+
+    /** Token of the running turn clock; changes every time the clock restarts. */
+    private long clock;
+
+    /**
+     * Creates a game for the given clients.
+     *
+     * @param server the server that delivers messages
+     * @param first  the client in seat 0
+     * @param second the client in seat 1, or null to play against a machine
+     */
+    ServerSession(GameServer server, Connection first, Connection second) {
+        this.server = server;
+        this.feed = server.openFeed();
+        seat(first, 0);
+        if (second != null) {
+            seat(second, 1);
+            machine = null;
+        } else {
+            machine = new MachinePlayer();
+            machine.placeFleetAutomatically();
+            machine.setTargetPriors(SharedTendencies.getInstance().snapshot(Board.SIZE).shipPriors());
+            match.placeMachine(1, machine);
+        }
+    }
+
+    private void seat(Connection client, int seat) {
+        clients[seat] = client;
+        client.session = this;
+        client.seat = seat;
+        server.send(client, Protocol.MATCHED, Board.SIZE, feed.getId() >> 8, feed.getId());
+    }
+
+    /**
+     * Places the fleet of a seat.
+     *
+     * @param seat   the seat
+     * @param layout row, column and vertical flag of each ship of the standard fleet,
+     *               or an empty array for a random placement
+     */
+    void place(int seat, int[] layout) {
+        if (over || match.isPlaced(seat)) {
+            server.send(clients[seat], Protocol.ERROR, Protocol.ERROR_WRONG_STATE);
+            return;
+        }
+        if (layout.length == 0) {
+            match.placeRandom(seat);
+        } else if (!match.placeLayout(seat, layout)) {
+            server.send(clients[seat], Protocol.ERROR, Protocol.ERROR_BAD_PLACEMENT);
+            return;
+        }
+
+        if (match.isStarted()) {
+            for (int s = 0; s < 2; s++) {
+                if (clients[s] != null) server.send(clients[s], Protocol.START, s == match.getTurn() ? 1 : 0);
+            }
+            restartClock();
+        }
+    }
+
+    /**
+     * Fires a shot from a seat and, against the machine, plays the machine's
+     * turn until it misses.
+     *
+     * @param seat the seat that shoots
+     * @param row  the target row
+     * @param col  the target column
+     */
+    void shoot(int seat, int row, int col) {
+        if (over || !match.isStarted()) {
+            server.send(clients[seat], Protocol.ERROR, Protocol.ERROR_WRONG_STATE);
+            return;
+        }
+        if (match.getTurn() != seat) {
+            server.send(clients[seat], Protocol.ERROR, Protocol.ERROR_NOT_YOUR_TURN);
+            return;
+        }
+        if (row >= Board.SIZE || col >= Board.SIZE) {
+            server.send(clients[seat], Protocol.ERROR, Protocol.ERROR_OUT_OF_BOARD);
+            return;
+        }
+        report(seat, row, col, match.fire(seat, row, col));
+
+        int limit = Board.SIZE * Board.SIZE * 4;
+        while (machine != null && !over && match.getTurn() == 1 && limit-- > 0) {
+            String result = machine.shoot(match.getBoard(0));
+            int[] shot = machine.getLastShotCoordinates();
+            report(1, shot[0], shot[1], match.apply(1, shot[0], shot[1], result));
+        }
+        restartClock();
+    }
+
+    /**
+     * Gives the client to move a fresh turn clock; stops it when the game is over.
+     */
+    private void restartClock() {
+        long token = ++clock;
+        if (turnTimeout != null) turnTimeout.cancel();
+        turnTimeout = null;
+        long limit = server.getTurnLimitMs();
+        if (over || limit <= 0 || clients[match.getTurn()] == null) return;
+        // El temporizador solo devuelve el vencimiento al hilo del selector
+        turnTimeout = HashedWheelTimer.getShared().schedule(
+                () -> server.execute(() -> timeOut(token)), limit, TimeUnit.MILLISECONDS);
+    }
+
+    private void timeOut(long token) {
+        if (over || token != clock) return;
+        match.forfeit(match.getTurn());
+        finish();
+    }
+
+    private void report(int seat, int row, int col, int outcome) {
+        // Con la partida terminada no es el turno de nadie
+        boolean won = match.isOver();
+        for (int s = 0; s < 2; s++) {
+            if (clients[s] == null) continue;
+            server.send(clients[s], Protocol.RESULT, s == seat ? Protocol.YOU : Protocol.OPPONENT,
+                    row, col, outcome, !won && match.getTurn() == s ? 1 : 0);
+        }
+        feed.publishShot(match, seat, row, col, outcome);
+        server.feedChanged();
+        if (won) finish();
+    }
+
+    private void finish() {
+        over = true;
+        restartClock();
+        feed.publishEnd(match, match.getWinner());
+        server.closeFeed(feed);
+        for (int s = 0; s < 2; s++) {
+            if (clients[s] == null) continue;
+            server.send(clients[s], Protocol.OVER, s == match.getWinner() ? 1 : 0);
+            match.recordHuman(s);
+            clients[s].session = null;
+        }
+    }
+
+    /**
+     * Ends the game because a client left; the other side wins.
+     *
+     * @param seat the seat of the client that left
+     */
+    void abandon(int seat) {
+        clients[seat] = null;
+        if (over) return;
+        over = true;
+        restartClock();
+        match.forfeit(seat);
+        feed.publishEnd(match, match.getWinner());
+        server.closeFeed(feed);
+        Connection other = clients[1 - seat];
+        if (other != null) {
+            server.send(other, Protocol.OVER, 1);
+            other.session = null;
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package edu.univalle.battleship.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Splits a self-play simulation between {@link SimulationWorker} processes,
+ * so it can use more than one JVM.
+ * <p>
+ * A {@link Job} names two strategies and a range of seeds, one game per seed.
+ * The coordinator cuts the range into chunks and hands one to each worker that
+ * asks for work. When no chunk is left, an idle worker steals: the
+ * coordinator asks the worker with the largest chunk to give away the second
+ * half of the seeds it has not started, and passes them on. Each worker
+ * reports the wins and two {@link LatencyHistogram}s per chunk, which the
+ * coordinator merges. If a worker's connection breaks, the seeds it was
+ * playing go back to the front of the queue; results only count once per seed
+ * range, so nothing is lost or counted twice.
+ * <p>
+ * Workers connect over TCP with a small binary protocol of
+ * {@link DataOutputStream} fields. Each one is served by its own daemon
+ * thread; all the bookkeeping is guarded by the coordinator's monitor, which
+ * is held for a few microseconds per message.
+ * <pre>
+ *   java edu.univalle.battleship.server.SimulationCoordinator [--port 7788]
+ *        [--first hunt] [--second random] [--seed 0] [--games 100000]
+ *        [--chunk 500] [--workers 4] [--report simulation-report.txt]
+ * </pre>
+ * {@code --workers} launches that many local worker JVMs with the same class
+ * path; workers on other machines join with
+ * {@code java edu.univalle.battleship.server.SimulationWorker host port}.
+ */
+public class SimulationCoordinator implements Closeable {
+
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 7788;
+
+    /** Games per chunk unless another size is given. */
+    public static final int DEFAULT_CHUNK = 500;
+
+    // Worker a coordinador
+    static final int READY = 0x01;
+    static final int SPLIT = 0x02;
+    static final int RESULT = 0x03;
+
+    // Coordinador a worker
+    static final int JOB = 0x10;
+    static final int STEAL = 0x11;
+    static final int SHUTDOWN = 0x12;
+
+    /**
+     * A simulation: games between two strategies, one per seed.
+     */
+    public static final class Job {
+        private final String first;
+        private final String second;
+        private final long firstSeed;
+        private final long games;
+
+        /**
+         * Creates a job.
+         *
+         * @param first     strategy of one side, as named by the {@link BotArena}
+         * @param second    strategy of the other side
+         * @param firstSeed seed of the first game
+         * @param games     number of games
+         * @throws IllegalArgumentException if a strategy is unknown or there are no games
+         */
+        public Job(String first, String second, long firstSeed, long games) {
+            if (!BotArena.STRATEGIES.containsKey(first)) throw new IllegalArgumentException("Unknown strategy " + first);
+            if (!BotArena.STRATEGIES.containsKey(second)) throw new IllegalArgumentException("Unknown strategy " + second);
+            if (games <= 0 || firstSeed < 0) throw new IllegalArgumentException("Need a positive number of games");
+            this.first = first;
+            this.second = second;
+            this.firstSeed = firstSeed;
+            this.games = games;
+        }
+
+        /** @return the strategy of one side */
+        public String getFirst() { return first; }
+
+        /** @return the strategy of the other side */
+        public String getSecond() { return second; }
+
+        /** @return the seed of the first game */
+        public long getFirstSeed() { return firstSeed; }
+
+        /** @return the number of games */
+        public long getGames() { return games; }
+    }
+
+    /**
+     * Merged results of a job.
+     */
+    public static final class Result {
+        private final Job job;
+        private final long[] wins;
+        private final LatencyHistogram moves;
+        private final LatencyHistogram times;
+        private final int workers;
+        private final long steals;
+        private final long reissued;
+        private final long elapsedNanos;
+
+        private Result(Job job, long[] wins, LatencyHistogram moves, LatencyHistogram times, int workers,
+                       long steals, long reissued, long elapsedNanos) {
+            this.job = job;
+            this.wins = wins;
+            this.moves = moves;
+            this.times = times;
+            this.workers = workers;
+            this.steals = steals;
+            this.reissued = reissued;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** @return the number of games played */
+        public long getGames() { return moves.getCount(); }
+
+        /** @return the games won by the first strategy */
+        public long getFirstWins() { return wins[0]; }
+
+        /** @return the games won by the second strategy */
+        public long getSecondWins() { return wins[1]; }
+
+        /** @return the number of shots of each game */
+        public LatencyHistogram getMoves() { return moves; }
+
+        /** @return the time each game took, in nanoseconds */
+        public LatencyHistogram getTimes() { return times; }
+
+        /** @return the number of times an idle worker took seeds from a busy one */
+        public long getSteals() { return steals; }
+
+        /** @return the number of seed ranges played again because their worker was lost */
+        public long getReissued() { return reissued; }
+
+        /**
+         * Writes the result as {@code key=value} lines.
+         *
+         * @param file the destination
+         * @throws IOException if the file cannot be written
+         */
+        public void write(Path file) throws IOException {
+            Files.writeString(file, toString(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "first=%s%nsecond=%s%nfirst_seed=%d%ngames=%d%nfirst_wins=%d%nsecond_wins=%d%n"
+                            + "workers_seen=%d%nsteals=%d%nreissued=%d%nduration_s=%.3f%ngames_per_s=%.1f%n"
+                            + "moves_p50=%d%nmoves_p99=%d%nmoves_mean=%.2f%ngame_time_p50_us=%.1f%n"
+                            + "game_time_p99_us=%.1f%n",
+                    job.first, job.second, job.firstSeed, getGames(), wins[0], wins[1], workers, steals,
+                    reissued, elapsedNanos / 1e9, elapsedNanos == 0 ? 0 : getGames() * 1e9 / elapsedNanos,
+                    moves.percentile(0.50), moves.percentile(0.99), moves.getMean(),
+                    times.percentile(0.50) / 1e3, times.percentile(0.99) / 1e3);
+        }
+    }
+
+    /** A range of seeds handed out as a unit. */
+    private static final class Chunk {
+        final long id;
+        final long from;
+        /** End of the range, exclusive; lowered when part of it is stolen. */
+        long to;
+        /** True while a steal request for this chunk is unanswered. */
+        boolean stealing;
+        /** True once its worker had nothing left to give away. */
+        boolean exhausted;
+
+        Chunk(long id, long from, long to) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /** One connected worker. */
+    private final class Link {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        /** The chunk the worker is playing, or null when idle. */
+        Chunk chunk;
+
+        Link(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    private final ServerSocket server;
+    private final int chunkSize;
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    // Todo lo que sigue está protegido por el monitor del coordinador
+    private final List<Link> links = new ArrayList<>();
+    private final ArrayDeque<Link> idle = new ArrayDeque<>();
+    private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+    private Job job;
+    private long nextChunkId;
+    private long remaining;
+    private long[] wins;
+    private LatencyHistogram moves;
+    private LatencyHistogram times;
+    private int workersSeen;
+    private long steals;
+    private long reissued;
+
+    /**
+     * Creates a coordinator bound to the given address and starts accepting workers.
+     *
+     * @param address   the address to listen on; port 0 picks a free port
+     * @param chunkSize games per chunk
+     * @throws IOException if the address cannot be bound
+     */
+    public SimulationCoordinator(InetSocketAddress address, int chunkSize) throws IOException {
+        this.chunkSize = Math.max(1, chunkSize);
+        this.server = new ServerSocket();
+        server.bind(address, 128);
+        this.acceptor = new Thread(this::accept, "simulation-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** @return the address workers connect to, with the actual port */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) server.getLocalSocketAddress();
+    }
+
+    /**
+     * Runs a job on the workers connected now or later, and waits for its results.
+     *
+     * @param job     the job
+     * @param timeout longest time to wait
+     * @param unit    unit of {@code timeout}
+     * @return the merged results
+     * @throws InterruptedException if interrupted while waiting
+     * @throws TimeoutException     if the job does not finish in time
+     */
+    public synchronized Result run(Job job, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        if (this.job != null) throw new IllegalStateException("A job is running");
+        this.job = job;
+        remaining = job.games;
+        wins = new long[2];
+        moves = new LatencyHistogram();
+        times = new LatencyHistogram();
+        steals = 0;
+        reissued = 0;
+        long end = job.firstSeed + job.games;
+        for (long from = job.firstSeed; from < end; from += chunkSize) {
+            pending.add(new Chunk(nextChunkId++, from, Math.min(end, from + chunkSize)));
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        try {
+            dispatch();
+            while (remaining > 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) throw new TimeoutException(remaining + " games were not played in time");
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            return new Result(job, wins, moves, times, workersSeen, steals, reissued, System.nanoTime() - start);
+        } finally {
+            this.job = null;
+            pending.clear();
+            for (Link link : links) link.chunk = null;
+        }
+    }
+
+    /**
+     * Tells the workers to exit and stops accepting new ones.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Link link : new ArrayList<>(links)) {
+            try {
+                link.out.writeByte(SHUTDOWN);
+                link.out.flush();
+            } catch (IOException e) {
+                // ya se había ido
+            }
+            closeQuietly(link.socket);
+        }
+        links.clear();
+        idle.clear();
+        closeQuietly(server);
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Link link = new Link(socket);
+                synchronized (this) {
+                    if (closed) {
+                        closeQuietly(socket);
+                        return;
+                    }
+                    links.add(link);
+                    workersSeen++;
+                }
+                Thread reader = new Thread(() -> serve(link), "simulation-link-" + socket.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!closed) e.printStackTrace();
+            }
+        }
+    }
+
+    private void serve(Link link) {
+        try {
+            while (true) {
+                int type = link.in.readUnsignedByte();
+                switch (type) {
+                    case READY -> ready(link);
+                    case SPLIT -> split(link, link.in.readLong(), link.in.readLong());
+                    case RESULT -> result(link, link.in.readLong(), link.in.readLong(), link.in.readLong(),
+                            link.in.readLong(), link.in.readLong(),
+                            LatencyHistogram.readFrom(link.in), LatencyHistogram.readFrom(link.in));
+                    default -> throw new IOException("Unknown message " + type);
+                }
+            }
+        } catch (IOException e) {
+            lost(link);
+        }
+    }
+
+    private synchronized void ready(Link link) {
+        link.chunk = null;
+        if (!idle.contains(link)) idle.add(link);
+        dispatch();
+    }
+
+    private synchronized void split(Link link, long chunkId, long at) {
+        Chunk chunk = link.chunk;
+        if (chunk == null || chunk.id != chunkId) return;
+        chunk.stealing = false;
+        if (at >= 0 && at < chunk.to) {
+            pending.addFirst(new Chunk(nextChunkId++, at, chunk.to));
+            chunk.to = at;
+            steals++;
+        } else {
+            chunk.exhausted = true;
+        }
+        dispatch();
+    }
+
+    private synchronized void result(Link link, long chunkId, long from, long to, long firstWins, long secondWins,
+                                     LatencyHistogram chunkMoves, LatencyHistogram chunkTimes) {
+        Chunk chunk = link.chunk;
+        if (job == null || chunk == null || chunk.id != chunkId || chunk.from != from || to > chunk.to) return;
+        // Si el worker se quedó corto, lo que falta vuelve a la cola
+        if (to < chunk.to) pending.addFirst(new Chunk(nextChunkId++, to, chunk.to));
+        link.chunk = null;
+        wins[0] += firstWins;
+        wins[1] += secondWins;
+        moves.merge(chunkMoves);
+        times.merge(chunkTimes);
+        remaining -= to - from;
+        if (remaining <= 0) notifyAll();
+    }
+
+    private synchronized void lost(Link link) {
+        closeQuietly(link.socket);
+        links.remove(link);
+        idle.remove(link);
+        Chunk chunk = link.chunk;
+        link.chunk = null;
+        if (chunk != null && job != null) {
+            pending.addFirst(new Chunk(nextChunkId++, chunk.from, chunk.to));
+            reissued++;
+            dispatch();
+        }
+    }
+
+    /**
+     * Gives pending chunks to idle workers and, when none is left, asks busy
+     * workers to share theirs.
+     */
+    private void dispatch() {
+        if (job == null) return;
+        while (!idle.isEmpty() && !pending.isEmpty()) {
+            Link link = idle.poll();
+            Chunk chunk = pending.poll();
+            try {
+                link.out.writeByte(JOB);
+                link.out.writeLong(chunk.id);
+                link.out.writeUTF(job.first);
+                link.out.writeUTF(job.second);
+                link.out.writeLong(chunk.from);
+                link.out.writeLong(chunk.to);
+                link.out.flush();
+                link.chunk = chunk;
+            } catch (IOException e) {
+                pending.addFirst(chunk);
+                closeQuietly(link.socket); // su hilo lector lo da por perdido
+            }
+        }
+        // Una petición de robo por worker ocioso, a los rangos más grandes
+        int thieves = idle.size();
+        for (Link victim : victims(thieves)) {
+            try {
+                victim.out.writeByte(STEAL);
+                victim.out.writeLong(victim.chunk.id);
+                victim.out.flush();
+                victim.chunk.stealing = true;
+            } catch (IOException e) {
+                closeQuietly(victim.socket);
+            }
+        }
+    }
+
+    private List<Link> victims(int count) {
+        List<Link> victims = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Link largest = null;
+            for (Link link : links) {
+                Chunk chunk = link.chunk;
+                if (chunk == null || chunk.stealing || chunk.exhausted || chunk.to - chunk.from < 2
+                        || victims.contains(link)) continue;
+                if (largest == null || chunk.to - chunk.from > largest.chunk.to - largest.chunk.from) largest = link;
+            }
+            if (largest == null) break;
+            victims.add(largest);
+        }
+        return victims;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Launches a worker JVM on this machine with the class path of this one.
+     *
+     * @param address the coordinator address
+     * @param extra   more worker arguments, such as {@code --crash-after 10}
+     * @return the worker process
+     * @throws IOException if the process cannot be started
+     */
+    public static Process startLocalWorker(InetSocketAddress address, String... extra) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        // Con módulos, las clases pueden estar en el module path; el worker las toma todas del class path
+        String classPath = String.join(File.pathSeparator, List.of(
+                System.getProperty("java.class.path", ""), System.getProperty("jdk.module.path", "")));
+        List<String> command = new ArrayList<>(List.of(java, "-cp", classPath, SimulationWorker.class.getName(),
+                address.getHostString(), String.valueOf(address.getPort())));
+        command.addAll(List.of(extra));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * Runs a simulation from the command line.
+     *
+     * @param args the options described in {@link SimulationCoordinator}
+     * @throws Exception if the simulation cannot run
+     */
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        String first = "hunt";
+        String second = "random";
+        long seed = 0;
+        long games = 100_000;
+        int chunk = DEFAULT_CHUNK;
+        int workers = Runtime.getRuntime().availableProcessors();
+        Path report = Paths.get("simulation-report.txt");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(value);
+                case "--first" -> first = value;
+                case "--second" -> second = value;
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--games" -> games = Long.parseLong(value);
+                case "--chunk" -> chunk = Integer.parseInt(value);
+                case "--workers" -> workers = Integer.parseInt(value);
+                case "--report" -> report = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Job job = new Job(first, second, seed, games);
+        List<Process> processes = new ArrayList<>();
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(new InetSocketAddress(port), chunk)) {
+            InetSocketAddress local = new InetSocketAddress(InetAddress.getLoopbackAddress(), coordinator.getAddress().getPort());
+            for (int i = 0; i < workers; i++) processes.add(startLocalWorker(local));
+            Result result = coordinator.run(job, 1, TimeUnit.DAYS);
+            result.write(report);
+            System.out.print(result);
+            System.out.println("Report written to " + report.toAbsolutePath());
+        } finally {
+            for (Process process : processes) process.destroy();
+        }
+    }
+}
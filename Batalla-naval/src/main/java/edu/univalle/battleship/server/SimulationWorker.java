@@ -0,0 +1,204 @@
+package edu.univalle.battleship.server;
+
+import edu.univalle.battleship.designpatterns.strategy.IShootingStrategy;
+import edu.univalle.battleship.model.AutoMatch;
+import edu.univalle.battleship.model.MachinePlayer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.function.Supplier;
+
+/**
+ * Worker process of a distributed self-play simulation; see
+ * {@link SimulationCoordinator}.
+ * <p>
+ * Connects to the coordinator, asks for a range of seeds and plays one
+ * {@link AutoMatch} per seed at unlimited speed. The seed fixes both fleets
+ * and which side shoots first. The range can shrink while it is played: when
+ * another worker runs out of work, the coordinator asks this one to give away
+ * the second half of what it has not started yet. At the end of the range the
+ * worker reports the wins and the histograms of moves and time per game, then
+ * asks for more.
+ * <pre>
+ *   java edu.univalle.battleship.server.SimulationWorker host port [--crash-after N]
+ * </pre>
+ * {@code --crash-after} halts the process after N games, to test that the
+ * coordinator reissues the work of a worker that dies.
+ */
+public class SimulationWorker {
+
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final Socket socket;
+    private final long crashAfter;
+    private long played;
+
+    /** Guards the range being played, shared with the thread that answers the coordinator. */
+    private final Object lock = new Object();
+    private long chunkId = -1;
+    private long next;
+    private long end;
+
+    /**
+     * Connects to a coordinator.
+     *
+     * @param address    the coordinator address
+     * @param crashAfter games after which the process halts, or 0 to never crash
+     * @throws IOException if the connection fails
+     */
+    public SimulationWorker(InetSocketAddress address, long crashAfter) throws IOException {
+        this.socket = new Socket(address.getAddress(), address.getPort());
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.crashAfter = crashAfter;
+    }
+
+    /**
+     * Works until the coordinator says the simulation is over or goes away.
+     *
+     * @throws IOException if the connection breaks
+     */
+    public void run() throws IOException {
+        try (socket) {
+            send(SimulationCoordinator.READY);
+            while (true) {
+                int type;
+                try {
+                    type = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                switch (type) {
+                    case SimulationCoordinator.JOB -> startChunk();
+                    case SimulationCoordinator.STEAL -> split(in.readLong());
+                    case SimulationCoordinator.SHUTDOWN -> {
+                        return;
+                    }
+                    default -> throw new IOException("Unknown message " + type);
+                }
+            }
+        }
+    }
+
+    private void startChunk() throws IOException {
+        long id = in.readLong();
+        Supplier<IShootingStrategy> first = strategy(in.readUTF());
+        Supplier<IShootingStrategy> second = strategy(in.readUTF());
+        long from = in.readLong();
+        long to = in.readLong();
+        synchronized (lock) {
+            chunkId = id;
+            next = from;
+            end = to;
+        }
+        // Se juega en otro hilo para seguir atendiendo las peticiones de robo
+        Thread player = new Thread(() -> {
+            try {
+                playChunk(id, from, first, second);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "simulation-chunk-" + id);
+        player.setDaemon(true);
+        player.start();
+    }
+
+    private void playChunk(long id, long from, Supplier<IShootingStrategy> first, Supplier<IShootingStrategy> second)
+            throws IOException {
+        long[] wins = new long[2];
+        LatencyHistogram moves = new LatencyHistogram();
+        LatencyHistogram times = new LatencyHistogram();
+        while (true) {
+            long seed;
+            synchronized (lock) {
+                if (next >= end) break;
+                seed = next++;
+            }
+            long start = System.nanoTime();
+            // Con semilla impar empieza el segundo, para no favorecer a ningún lado
+            boolean swapped = (seed & 1) == 1;
+            MachinePlayer a = new MachinePlayer(first.get(), seed * 2);
+            MachinePlayer b = new MachinePlayer(second.get(), seed * 2 + 1);
+            a.placeFleetAutomatically();
+            b.placeFleetAutomatically();
+            AutoMatch match = swapped ? new AutoMatch(b, a) : new AutoMatch(a, b);
+            match.setSpeed(AutoMatch.UNLIMITED);
+            match.run();
+            AutoMatch.Frame frame = match.latest();
+            wins[swapped ? 1 - frame.getWinner() : frame.getWinner()]++;
+            moves.record(frame.getMoves());
+            times.record(System.nanoTime() - start);
+            if (crashAfter > 0 && ++played >= crashAfter) Runtime.getRuntime().halt(3);
+        }
+        long to;
+        synchronized (lock) {
+            to = end;
+            chunkId = -1;
+        }
+        synchronized (out) {
+            out.writeByte(SimulationCoordinator.RESULT);
+            out.writeLong(id);
+            out.writeLong(from);
+            out.writeLong(to);
+            out.writeLong(wins[0]);
+            out.writeLong(wins[1]);
+            moves.writeTo(out);
+            times.writeTo(out);
+            out.writeByte(SimulationCoordinator.READY);
+            out.flush();
+        }
+    }
+
+    /** Gives away the second half of the seeds not started yet. */
+    private void split(long id) throws IOException {
+        // La respuesta sale antes de que el rango pueda darse por terminado
+        synchronized (lock) {
+            long at = -1; // ese rango ya terminó
+            if (id == chunkId) {
+                at = next + (end - next + 1) / 2;
+                end = at;
+            }
+            synchronized (out) {
+                out.writeByte(SimulationCoordinator.SPLIT);
+                out.writeLong(id);
+                out.writeLong(at);
+                out.flush();
+            }
+        }
+    }
+
+    private void send(int type) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            out.flush();
+        }
+    }
+
+    private static Supplier<IShootingStrategy> strategy(String name) throws IOException {
+        Supplier<IShootingStrategy> strategy = BotArena.STRATEGIES.get(name);
+        if (strategy == null) throw new IOException("Unknown strategy " + name);
+        return strategy;
+    }
+
+    /**
+     * Runs a worker from the command line.
+     *
+     * @param args host, port and optionally {@code --crash-after N}
+     * @throws IOException if the connection fails or breaks
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SimulationWorker host port [--crash-after N]");
+            System.exit(2);
+        }
+        long crashAfter = args.length >= 4 && args[2].equals("--crash-after") ? Long.parseLong(args[3]) : 0;
+        new SimulationWorker(new InetSocketAddress(args[0], Integer.parseInt(args[1])), crashAfter).run();
+    }
+}
@@ -0,0 +1,272 @@
+package edu.univalle.battleship.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends live games to spectators, away from the {@link GameServer}'s selector
+ * thread.
+ * <p>
+ * Spectators are spread over a few fan-out threads, each with its own
+ * {@link Selector}. A fan-out thread reads the {@link MoveFeed} of each of its
+ * spectators from that spectator's own cursor, without locks, and writes the
+ * new moves into a small fixed buffer. A spectator whose socket does not keep
+ * up simply stops receiving moves until its buffer drains; if the game has
+ * moved on by more than the ring holds, it gets the latest keyframe instead of
+ * the moves it missed. The game never waits for spectators, and one game can
+ * feed thousands of them.
+ * <p>
+ * The game server calls {@link #signal()} once per pass of its loop in which a
+ * move was published; each fan-out thread then wakes up at most once.
+ */
+final class SpectatorHub {
+
+    /** Outgoing buffer of a spectator: a keyframe and well over a hundred moves. */
+    private static final int OUT_CAPACITY = 4096;
+
+    /** Bytes of a MOVE frame: length, type and four fields. */
+    private static final int MOVE_FRAME = 2 + 1 + 4;
+
+    private final FanOut[] fanOuts;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates a hub; its threads run once started.
+     *
+     * @param threads number of fan-out threads
+     * @throws IOException if a selector cannot be opened
+     */
+    SpectatorHub(int threads) throws IOException {
+        fanOuts = new FanOut[Math.max(1, threads)];
+        for (int i = 0; i < fanOuts.length; i++) fanOuts[i] = new FanOut(i);
+    }
+
+    /**
+     * Starts the fan-out threads.
+     */
+    void start() {
+        for (FanOut fanOut : fanOuts) fanOut.thread.start();
+    }
+
+    /**
+     * Stops the fan-out threads and closes every spectator.
+     */
+    void stop() {
+        for (FanOut fanOut : fanOuts) {
+            fanOut.stopped = true;
+            fanOut.selector.wakeup();
+        }
+    }
+
+    /**
+     * Hands a connection over to the hub; from now on it only receives the game.
+     *
+     * @param channel the spectator's channel, non-blocking and no longer registered with the game server
+     * @param feed    the game to watch
+     */
+    void watch(SocketChannel channel, MoveFeed feed) {
+        FanOut fanOut = fanOuts[Math.floorMod(next.getAndIncrement(), fanOuts.length)];
+        fanOut.arrivals.add(new Spectator(channel, feed));
+        fanOut.selector.wakeup();
+    }
+
+    /**
+     * Tells the fan-out threads that moves were published.
+     */
+    void signal() {
+        for (FanOut fanOut : fanOuts) {
+            if (!fanOut.signalled.getAndSet(true)) fanOut.selector.wakeup();
+        }
+    }
+
+    /** @return the number of spectators connected */
+    int getSpectatorCount() {
+        int count = 0;
+        for (FanOut fanOut : fanOuts) count += fanOut.count;
+        return count;
+    }
+
+    /**
+     * One spectator: its channel, the game it watches and how far it got.
+     */
+    private static final class Spectator {
+        final SocketChannel channel;
+        final MoveFeed feed;
+        final ByteBuffer out = ByteBuffer.allocate(OUT_CAPACITY);
+        SelectionKey key;
+
+        /** Next move to send. */
+        long cursor;
+        boolean needsKeyframe = true;
+        boolean ended;
+
+        Spectator(SocketChannel channel, MoveFeed feed) {
+            this.channel = channel;
+            this.feed = feed;
+        }
+    }
+
+    private static final class FanOut implements Runnable {
+        final Selector selector;
+        final Thread thread;
+        final ConcurrentLinkedQueue<Spectator> arrivals = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean signalled = new AtomicBoolean();
+        volatile boolean stopped;
+        volatile int count;
+
+        /** Only used by the fan-out thread. */
+        private final List<Spectator> spectators = new ArrayList<>();
+        private final ByteBuffer discard = ByteBuffer.allocate(256);
+
+        FanOut(int index) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "spectator-fan-out-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped) {
+                    selector.select();
+                    // Se limpia antes de leer los feeds: una señal posterior vuelve a despertar
+                    signalled.set(false);
+                    Spectator arrival;
+                    while ((arrival = arrivals.poll()) != null) register(arrival);
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (key.isValid() && key.isReadable()) read((Spectator) key.attachment());
+                    }
+                    pumpAll();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (!stopped) e.printStackTrace();
+            } finally {
+                for (Spectator spectator : spectators) close(spectator);
+                spectators.clear();
+                count = 0;
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void register(Spectator spectator) {
+            try {
+                spectator.key = spectator.channel.register(selector, SelectionKey.OP_READ, spectator);
+                spectators.add(spectator);
+                count = spectators.size();
+            } catch (IOException e) {
+                close(spectator);
+            }
+        }
+
+        /** Spectators send nothing; anything they do send is dropped, and a closed socket ends the spectator. */
+        private void read(Spectator spectator) {
+            try {
+                discard.clear();
+                if (spectator.channel.read(discard) < 0) close(spectator);
+            } catch (IOException e) {
+                close(spectator);
+            }
+        }
+
+        private void pumpAll() {
+            Iterator<Spectator> it = spectators.iterator();
+            while (it.hasNext()) {
+                Spectator spectator = it.next();
+                if (spectator.channel.isOpen()) {
+                    try {
+                        pump(spectator);
+                    } catch (IOException e) {
+                        close(spectator);
+                    }
+                }
+                if (!spectator.channel.isOpen()) it.remove();
+            }
+            count = spectators.size();
+        }
+
+        private void pump(Spectator spectator) throws IOException {
+            MoveFeed feed = spectator.feed;
+            ByteBuffer out = spectator.out;
+            long published = feed.published();
+            if (!spectator.ended && spectator.cursor < published && feed.isOverwritten(spectator.cursor)) {
+                spectator.needsKeyframe = true;
+            }
+            if (spectator.needsKeyframe) {
+                MoveFeed.Keyframe keyframe = feed.keyframe();
+                int[] fields = keyframe.fields();
+                // Si no cabe, espera a que el socket vacíe el buffer
+                if (out.remaining() >= 3 + fields.length) {
+                    putFrame(out, Protocol.KEYFRAME, fields);
+                    spectator.cursor = keyframe.sequence();
+                    spectator.needsKeyframe = false;
+                }
+            }
+            while (!spectator.needsKeyframe && !spectator.ended && spectator.cursor < published
+                    && out.remaining() >= MOVE_FRAME) {
+                long move = feed.get(spectator.cursor);
+                if (feed.isOverwritten(spectator.cursor)) {
+                    spectator.needsKeyframe = true;
+                    break;
+                }
+                if (MoveFeed.kindOf(move) == MoveFeed.KIND_END) {
+                    putFrame(out, Protocol.ENDED, MoveFeed.seatOf(move));
+                    spectator.ended = true;
+                } else {
+                    putFrame(out, Protocol.MOVE, MoveFeed.seatOf(move), MoveFeed.rowOf(move),
+                            MoveFeed.colOf(move), MoveFeed.outcomeOf(move));
+                }
+                spectator.cursor++;
+            }
+            flush(spectator);
+        }
+
+        private void flush(Spectator spectator) throws IOException {
+            ByteBuffer out = spectator.out;
+            if (out.position() > 0) {
+                out.flip();
+                spectator.channel.write(out);
+                out.compact();
+            }
+            SelectionKey key = spectator.key;
+            if (out.position() > 0) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else if (spectator.ended) {
+                close(spectator);
+            } else if (key.interestOps() != SelectionKey.OP_READ) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private static void putFrame(ByteBuffer out, byte type, int... fields) {
+            out.putShort((short) (1 + fields.length));
+            out.put(type);
+            for (int field : fields) out.put((byte) field);
+        }
+
+        private static void close(Spectator spectator) {
+            if (spectator.key != null) spectator.key.cancel();
+            try {
+                spectator.channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
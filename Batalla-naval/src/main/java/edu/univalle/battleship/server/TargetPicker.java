@@ -0,0 +1,67 @@
+package edu.univalle.battleship.server;
+
+import java.util.Random;
+
+/**
+ * Chooses the shots of a simulated remote player, who only learns the outcome
+ * of each shot and cannot run our {@link edu.univalle.battleship.designpatterns.strategy.IShootingStrategy}
+ * implementations, since they shoot at a local board.
+ * <p>
+ * Fires at random untried cells; in hunt mode it first tries the untried
+ * neighbours of its hits, like the machine's hunt/target strategy.
+ */
+final class TargetPicker {
+
+    private static final int UNTRIED = 0;
+    private static final int WATER = 1;
+    private static final int HIT = 2;
+
+    private final int size;
+    private final boolean hunt;
+    private final Random random;
+    private final int[] cells;
+
+    /**
+     * @param size board size (NxN)
+     * @param hunt true to follow up hits on their neighbours
+     * @param seed seed of the random choices
+     */
+    TargetPicker(int size, boolean hunt, long seed) {
+        this.size = size;
+        this.hunt = hunt;
+        this.random = new Random(seed);
+        this.cells = new int[size * size];
+    }
+
+    /**
+     * @return the next cell to fire at, as {@code row * size + col}
+     */
+    int next() {
+        if (hunt) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] != HIT) continue;
+                int r = cell / size, c = cell % size;
+                if (r > 0 && cells[cell - size] == UNTRIED) return cell - size;
+                if (r < size - 1 && cells[cell + size] == UNTRIED) return cell + size;
+                if (c > 0 && cells[cell - 1] == UNTRIED) return cell - 1;
+                if (c < size - 1 && cells[cell + 1] == UNTRIED) return cell + 1;
+            }
+        }
+        int cell;
+        do {
+            cell = random.nextInt(cells.length);
+        } while (cells[cell] != UNTRIED);
+        return cell;
+    }
+
+    /**
+     * Records the outcome of a shot.
+     *
+     * @param row     the target row
+     * @param col     the target column
+     * @param outcome one of the {@code Protocol.OUTCOME_} constants
+     */
+    void update(int row, int col, int outcome) {
+        cells[row * size + col] = outcome == Protocol.OUTCOME_MISS ? WATER : HIT;
+    }
+}
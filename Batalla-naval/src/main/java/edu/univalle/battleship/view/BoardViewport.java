@@ -0,0 +1,189 @@
+package edu.univalle.battleship.view;
+
+import edu.univalle.battleship.model.Board;
+
+import java.util.BitSet;
+
+/**
+ * Geometry and repaint bookkeeping of a {@link CanvasBoardView}.
+ * <p>
+ * Maps board cells to pixels and back for the current zoom and scroll, and
+ * remembers which cells must be painted on the next pulse: every visible cell
+ * after the viewport moves, otherwise only the cells marked dirty. Holds no
+ * JavaFX state, so it works without the toolkit.
+ */
+final class BoardViewport {
+
+    /**
+     * Receives a cell to paint.
+     */
+    interface CellPainter {
+        /**
+         * Paints one cell.
+         *
+         * @param row the row index
+         * @param col the column index
+         */
+        void paint(int row, int col);
+    }
+
+    static final double MIN_CELL = 4;
+    static final double MAX_CELL = 80;
+
+    private final BitSet dirty = new BitSet();
+    private boolean fullRepaint = true;
+    private double cellSize;
+    private double offsetX;
+    private double offsetY;
+    private double width;
+    private double height;
+
+    /**
+     * Creates a viewport with nothing scrolled.
+     *
+     * @param cellSize the side of a cell in pixels
+     */
+    BoardViewport(double cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /** @return the side of a cell in pixels */
+    double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Returns the x coordinate of a column's left edge in the view.
+     *
+     * @param col the column index
+     * @return the x coordinate, negative if scrolled out on the left
+     */
+    double cellX(int col) {
+        return col * cellSize - offsetX;
+    }
+
+    /**
+     * Returns the y coordinate of a row's top edge in the view.
+     *
+     * @param row the row index
+     * @return the y coordinate, negative if scrolled out at the top
+     */
+    double cellY(int row) {
+        return row * cellSize - offsetY;
+    }
+
+    /**
+     * Maps a point of the view to a board cell.
+     *
+     * @param x the x coordinate in the view
+     * @param y the y coordinate in the view
+     * @return {row, column}, or null if the point is outside the board
+     */
+    int[] cellAt(double x, double y) {
+        int col = (int) Math.floor((x + offsetX) / cellSize);
+        int row = (int) Math.floor((y + offsetY) / cellSize);
+        if (row < 0 || row >= Board.SIZE || col < 0 || col >= Board.SIZE) return null;
+        return new int[]{row, col};
+    }
+
+    /**
+     * Sets the size of the view.
+     *
+     * @param width  the width in pixels
+     * @param height the height in pixels
+     * @return true if the size changed, which asks for a full repaint
+     */
+    boolean resize(double width, double height) {
+        if (this.width == width && this.height == height) return false;
+        this.width = width;
+        this.height = height;
+        clampOffsets();
+        markAll();
+        return true;
+    }
+
+    /**
+     * Scrolls the view.
+     *
+     * @param dx pixels to move the content to the right
+     * @param dy pixels to move the content down
+     */
+    void pan(double dx, double dy) {
+        offsetX -= dx;
+        offsetY -= dy;
+        clampOffsets();
+        markAll();
+    }
+
+    /**
+     * Zooms the view, keeping the cell under the given point in place.
+     *
+     * @param factor the change of the cell size
+     * @param x      the x coordinate of the fixed point
+     * @param y      the y coordinate of the fixed point
+     */
+    void zoom(double factor, double x, double y) {
+        double newSize = Math.max(MIN_CELL, Math.min(MAX_CELL, cellSize * factor));
+        double contentX = (x + offsetX) / cellSize;
+        double contentY = (y + offsetY) / cellSize;
+        cellSize = newSize;
+        offsetX = contentX * cellSize - x;
+        offsetY = contentY * cellSize - y;
+        clampOffsets();
+        markAll();
+    }
+
+    /**
+     * Marks one cell to be painted on the next pulse.
+     *
+     * @param row the row index
+     * @param col the column index
+     */
+    void markDirty(int row, int col) {
+        dirty.set(row * Board.SIZE + col);
+    }
+
+    /** Marks every visible cell to be painted on the next pulse. */
+    void markAll() {
+        fullRepaint = true;
+    }
+
+    /** @return true if the next pulse paints every visible cell */
+    boolean isFullRepaint() {
+        return fullRepaint;
+    }
+
+    /**
+     * Hands over the visible cells that need painting, then forgets them.
+     * Dirty cells scrolled out of the view are dropped; they are painted with
+     * the rest when the view comes back to them.
+     *
+     * @param painter receives each cell to paint
+     */
+    void drain(CellPainter painter) {
+        int firstRow = Math.max(0, (int) (offsetY / cellSize));
+        int firstCol = Math.max(0, (int) (offsetX / cellSize));
+        int lastRow = Math.min(Board.SIZE - 1, (int) ((offsetY + height) / cellSize));
+        int lastCol = Math.min(Board.SIZE - 1, (int) ((offsetX + width) / cellSize));
+
+        if (fullRepaint) {
+            for (int r = firstRow; r <= lastRow; r++) {
+                for (int c = firstCol; c <= lastCol; c++) painter.paint(r, c);
+            }
+            fullRepaint = false;
+        } else {
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                int r = i / Board.SIZE;
+                int c = i % Board.SIZE;
+                if (r >= firstRow && r <= lastRow && c >= firstCol && c <= lastCol) painter.paint(r, c);
+            }
+        }
+        dirty.clear();
+    }
+
+    private void clampOffsets() {
+        double content = Board.SIZE * cellSize;
+        offsetX = Math.max(0, Math.min(offsetX, content - width));
+        offsetY = Math.max(0, Math.min(offsetY, content - height));
+    }
+}
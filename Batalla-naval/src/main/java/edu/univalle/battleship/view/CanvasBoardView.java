@@ -0,0 +1,290 @@
+package edu.univalle.battleship.view;
+
+import edu.univalle.battleship.model.Board;
+import edu.univalle.battleship.model.BoardSnapshot;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+/**
+ * Board view that draws all cells onto a single {@link Canvas}.
+ * <p>
+ * Used instead of one {@code StackPane} per cell when the board is too large
+ * for the scene graph ({@link #isPreferredFor(int)}), and by the spectator
+ * window, which redraws two boards on every move. Only the cells inside the
+ * viewport are painted; cell changes reported by the {@link Board} mark just
+ * those cells dirty and are repainted together on the next pulse. Scrolling
+ * pans the viewport, Ctrl+scroll zooms around the cursor and clicks are
+ * mapped back to board coordinates. Instead of a live board, the view can
+ * also draw a series of {@link BoardSnapshot}s, repainting only what changed.
+ * The geometry lives in {@link BoardViewport}.
+ * <p>
+ * Must be used from the JavaFX application thread.
+ */
+public class CanvasBoardView extends Region {
+
+    /** Largest board size still drawn with one node per cell. */
+    public static final int GRID_LIMIT = 30;
+
+    private static final double MAX_PREF_SIZE = 800;
+
+    /** Smallest cell size at which sprites are drawn instead of plain colors. */
+    private static final double SPRITE_MIN_CELL = 12;
+
+    private static final Color WATER = Color.web("#87CEFA");
+    private static final Color SHIP = Color.web("#5f6b73");
+    private static final Color HIT = Color.web("#f08a24");
+    private static final Color SUNK = Color.web("#b22222");
+    private static final Color MISS = Color.web("#d6ecfa");
+    private static final Color GRID = Color.WHITE;
+    private static final Color BACKGROUND = Color.web("#254666");
+    private static final Color HEAT = Color.web("#ff3b30");
+
+    /** Opacity of the heat overlay on the most likely cell. */
+    private static final double HEAT_OPACITY = 0.6;
+
+    /**
+     * Receives clicks on a board cell.
+     */
+    public interface CellHandler {
+        /**
+         * Called when a cell is clicked.
+         *
+         * @param row the row index
+         * @param col the column index
+         */
+        void handle(int row, int col);
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final BoardViewport viewport = new BoardViewport(SpriteCache.CELL_SIZE);
+    private final Board.CellListener listener = (row, col, oldStatus, newStatus) -> {
+        if (Platform.isFxApplicationThread()) markDirty(row, col);
+        else Platform.runLater(() -> markDirty(row, col));
+    };
+
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            paint();
+            stop();
+        }
+    };
+
+    private Board board;
+    private BoardSnapshot snapshot;
+    private float[] heat;
+    private boolean showShips;
+    private CellHandler onCellClicked;
+
+    /**
+     * Creates a view of the given board.
+     *
+     * @param board     the board to draw
+     * @param showShips whether cells with an intact ship are drawn
+     */
+    public CanvasBoardView(Board board, boolean showShips) {
+        this.showShips = showShips;
+        getChildren().add(canvas);
+        setStyle("-fx-background-color: #254666;");
+
+        setOnScroll(this::handleScroll);
+        setOnMouseClicked(event -> {
+            int[] cell = cellAt(event.getX(), event.getY());
+            if (cell != null && onCellClicked != null) onCellClicked.handle(cell[0], cell[1]);
+        });
+        setBoard(board);
+    }
+
+    /**
+     * Tells whether boards of the given size should use this view.
+     *
+     * @param size the board size
+     * @return true if the size is above {@link #GRID_LIMIT}
+     */
+    public static boolean isPreferredFor(int size) {
+        return size > GRID_LIMIT;
+    }
+
+    /**
+     * Switches the view to another board.
+     *
+     * @param board the board to draw
+     */
+    public void setBoard(Board board) {
+        if (this.board != null) this.board.removeCellListener(listener);
+        this.board = board;
+        this.snapshot = null;
+        if (board != null) board.addCellListener(listener);
+        refresh();
+    }
+
+    /**
+     * Draws a snapshot instead of a live board. Only the cells that differ
+     * from the previous snapshot are repainted, on the next pulse.
+     *
+     * @param next the snapshot to draw
+     */
+    public void setSnapshot(BoardSnapshot next) {
+        if (board != null) {
+            board.removeCellListener(listener);
+            board = null;
+        }
+        BoardSnapshot previous = snapshot;
+        snapshot = next;
+        if (previous == null || next == null || previous.getSize() != next.getSize()) {
+            refresh();
+            return;
+        }
+        int size = next.getSize();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (previous.getCell(r, c) != next.getCell(r, c)) markDirty(r, c);
+            }
+        }
+    }
+
+    /**
+     * Shades each cell by the given values, or removes the shading.
+     *
+     * @param heat values between 0 and 1 in row-major order, or null
+     */
+    public void setHeat(float[] heat) {
+        this.heat = heat;
+        refresh();
+    }
+
+    /**
+     * Shows or hides intact ships.
+     *
+     * @param showShips true to draw ship cells
+     */
+    public void setShowShips(boolean showShips) {
+        this.showShips = showShips;
+        refresh();
+    }
+
+    /**
+     * Sets the handler called when a cell is clicked.
+     *
+     * @param handler the click handler
+     */
+    public void setOnCellClicked(CellHandler handler) {
+        this.onCellClicked = handler;
+    }
+
+    /**
+     * Repaints every visible cell on the next pulse. Needed after writes made
+     * directly on {@link Board#getCells()}, which are not notified.
+     */
+    public void refresh() {
+        viewport.markAll();
+        pulse.start();
+    }
+
+    /**
+     * Maps a point of this view to a board cell.
+     *
+     * @param x the x coordinate in this view
+     * @param y the y coordinate in this view
+     * @return {row, column}, or null if the point is outside the board
+     */
+    public int[] cellAt(double x, double y) {
+        return viewport.cellAt(x, y);
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return Math.min(Board.SIZE * viewport.getCellSize(), MAX_PREF_SIZE);
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return Math.min(Board.SIZE * viewport.getCellSize(), MAX_PREF_SIZE);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            viewport.resize(width, height);
+            pulse.start();
+        }
+    }
+
+    private void markDirty(int row, int col) {
+        viewport.markDirty(row, col);
+        pulse.start();
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        if (event.isControlDown()) {
+            viewport.zoom(event.getDeltaY() > 0 ? 1.25 : 0.8, event.getX(), event.getY());
+        } else {
+            viewport.pan(event.getDeltaX(), event.getDeltaY());
+        }
+        pulse.start();
+        event.consume();
+    }
+
+    private void paint() {
+        if (board == null && snapshot == null) return;
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        if (viewport.isFullRepaint()) {
+            g.setFill(BACKGROUND);
+            g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        }
+        viewport.drain((row, col) -> drawCell(g, row, col));
+    }
+
+    private void drawCell(GraphicsContext g, int row, int col) {
+        double cellSize = viewport.getCellSize();
+        double x = viewport.cellX(col);
+        double y = viewport.cellY(row);
+        Board.CellStatus status = snapshot != null ? snapshot.getCellStatus(row, col) : board.getCellStatus(row, col);
+
+        g.setFill(switch (status) {
+            case SHIP -> showShips ? SHIP : WATER;
+            case HIT -> HIT;
+            case SUNK -> SUNK;
+            case MISS -> MISS;
+            default -> WATER;
+        });
+        g.fillRect(x, y, cellSize, cellSize);
+
+        int index = row * Board.SIZE + col;
+        if (heat != null && index < heat.length && heat[index] > 0) {
+            g.setGlobalAlpha(heat[index] * HEAT_OPACITY);
+            g.setFill(HEAT);
+            g.fillRect(x, y, cellSize, cellSize);
+            g.setGlobalAlpha(1);
+        }
+
+        if (cellSize >= SPRITE_MIN_CELL) {
+            String sprite = switch (status) {
+                case HIT -> "hit.png";
+                case SUNK -> "sink.png";
+                case MISS -> "miss.png";
+                default -> null;
+            };
+            if (sprite != null) {
+                Image image = SpriteCache.getInstance().getCellSprite(SpriteCache.IMAGE_DIR + sprite);
+                if (image != null) g.drawImage(image, x, y, cellSize, cellSize);
+            }
+        }
+
+        if (cellSize >= BoardViewport.MIN_CELL * 2) {
+            g.setStroke(GRID);
+            g.setLineWidth(1);
+            g.strokeRect(x + 0.5, y + 0.5, cellSize - 1, cellSize - 1);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package edu.univalle.battleship.view;
+
+import edu.univalle.battleship.model.Board;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the game screens ready before they are needed.
+ * <p>
+ * Each FXML view is parsed, and its controller built, on a background thread
+ * while the user is still on the previous screen. {@link #take(String)} hands
+ * over the ready view and immediately starts preparing a fresh one for the next
+ * game, so the old controller is never reused. The opponent window is a single
+ * {@link Stage} that is hidden between games and shown again with the new view.
+ * <p>
+ * Views depend on {@link Board#SIZE} (grid or canvas), so a view prepared for
+ * another size is discarded and loaded again.
+ */
+public class SceneCache {
+
+    /** FXML of the fleet placement and player board screen. */
+    public static final String POSITION_VIEW = "/edu/univalle/battleship/positionView.fxml";
+
+    /** FXML of the opponent board screen. */
+    public static final String ENEMY_VIEW = "/edu/univalle/battleship/enemyPreviewView.fxml";
+
+    /** A view being prepared, with the board size it was prepared for. */
+    private static final class Pending {
+        private final int boardSize;
+        private final CompletableFuture<FXMLLoader> loader;
+
+        private Pending(int boardSize, CompletableFuture<FXMLLoader> loader) {
+            this.boardSize = boardSize;
+            this.loader = loader;
+        }
+    }
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private final ExecutorService loaderThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fxml-preload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Stage opponentStage;
+
+    private SceneCache() {}
+
+    private static class Holder {
+        private static final SceneCache INSTANCE = new SceneCache();
+    }
+
+    /**
+     * Returns the shared scene cache.
+     *
+     * @return the single instance
+     */
+    public static SceneCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts preparing the given view in the background, unless one is already
+     * being prepared for the current board size. Returns immediately.
+     *
+     * @param path the resource path of the FXML file
+     */
+    public void preload(String path) {
+        int size = Board.SIZE;
+        pending.compute(path, (key, current) -> current != null && current.boardSize == size
+                ? current
+                : new Pending(size, CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return load(key);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, loaderThread)));
+    }
+
+    /**
+     * Returns a loaded view whose root and controller are ready to use, and
+     * starts preparing the next one. Waits if the view is still being prepared,
+     * and loads it on the calling thread if it was never preloaded or failed.
+     *
+     * @param path the resource path of the FXML file
+     * @return the loader holding the root and the controller of the view
+     * @throws IOException if the view cannot be loaded
+     */
+    public FXMLLoader take(String path) throws IOException {
+        Pending ready = pending.remove(path);
+        FXMLLoader loader = null;
+        if (ready != null && ready.boardSize == Board.SIZE) {
+            try {
+                loader = ready.loader.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+        if (loader == null) loader = load(path);
+        preload(path);
+        return loader;
+    }
+
+    /**
+     * Shows a view in the opponent window, creating the window the first time
+     * and reusing it, and its scene, afterwards.
+     * Must be called from the JavaFX application thread.
+     *
+     * @param root  the root of the opponent view
+     * @param title the window title
+     * @return the shared opponent stage
+     */
+    public Stage showOpponent(Parent root, String title) {
+        if (opponentStage == null) {
+            opponentStage = new Stage();
+            opponentStage.setScene(new Scene(root));
+        } else {
+            opponentStage.getScene().setRoot(root);
+            opponentStage.sizeToScene();
+        }
+        opponentStage.setTitle(title);
+        opponentStage.show();
+        return opponentStage;
+    }
+
+    private FXMLLoader load(String path) throws IOException {
+        URL url = SceneCache.class.getResource(path);
+        if (url == null) throw new IOException("No se encontró la vista: " + path);
+        FXMLLoader loader = new FXMLLoader(url);
+        loader.load();
+        return loader;
+    }
+}
@@ -0,0 +1,101 @@
+package edu.univalle.battleship.view;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of the board sprites.
+ * <p>
+ * Each image resource is decoded once, optionally pre-scaled to a given size,
+ * and the same {@link Image} is shared by every {@link javafx.scene.image.ImageView}
+ * that shows it. {@link #preload()} starts decoding the common sprites in the
+ * background at startup, so the first hit, miss or sink does not stall the
+ * JavaFX thread.
+ */
+public class SpriteCache {
+
+    /** Folder of the image resources. */
+    public static final String IMAGE_DIR = "/edu/univalle/battleship/images/";
+
+    /** Size of a board cell in pixels. */
+    public static final double CELL_SIZE = 40;
+
+    private static final String[] CELL_SPRITES = {"hit.png", "miss.png", "sink.png"};
+    private static final String[] SHIP_SPRITES = {"carrier.png", "submarine.png", "destroyer.png", "plane.png"};
+
+    private final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private SpriteCache() {}
+
+    private static class Holder {
+        private static final SpriteCache INSTANCE = new SpriteCache();
+    }
+
+    /**
+     * Returns the shared sprite cache.
+     *
+     * @return the single instance
+     */
+    public static SpriteCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts background decoding of the cell markers (pre-scaled to the cell
+     * size) and the ship sprites. Returns immediately.
+     */
+    public void preload() {
+        for (String name : CELL_SPRITES) load(IMAGE_DIR + name, CELL_SIZE, CELL_SIZE, true);
+        for (String name : SHIP_SPRITES) load(IMAGE_DIR + name, 0, 0, true);
+    }
+
+    /**
+     * Returns the image at its natural size.
+     *
+     * @param path the resource path of the image
+     * @return the shared image, or null if the resource does not exist
+     */
+    public Image get(String path) {
+        return load(path, 0, 0, false);
+    }
+
+    /**
+     * Returns the image pre-scaled to the given size.
+     *
+     * @param path   the resource path of the image
+     * @param width  the target width
+     * @param height the target height
+     * @return the shared image, or null if the resource does not exist
+     */
+    public Image get(String path, double width, double height) {
+        return load(path, width, height, false);
+    }
+
+    /**
+     * Returns a cell marker (hit, miss, sink...) scaled to the cell size.
+     *
+     * @param path the resource path of the image
+     * @return the shared image, or null if the resource does not exist
+     */
+    public Image getCellSprite(String path) {
+        return load(path, CELL_SIZE, CELL_SIZE, false);
+    }
+
+    private Image load(String path, double width, double height, boolean background) {
+        String key = width > 0 ? path + "@" + width + "x" + height : path;
+        Image cached = images.get(key);
+        if (cached != null) return cached;
+
+        URL url = SpriteCache.class.getResource(path);
+        if (url == null) {
+            System.err.println("No se encontró la imagen: " + path);
+            return null;
+        }
+        return images.computeIfAbsent(key, k -> width > 0
+                ? new Image(url.toExternalForm(), width, height, false, true, background)
+                : new Image(url.toExternalForm(), background));
+    }
+}
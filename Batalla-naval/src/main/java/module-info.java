@@ -2,6 +2,7 @@ module edu.univalle.battleship {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.desktop;
+    requires jdk.httpserver;
 
 
 
@@ -0,0 +1,27 @@
+package edu.univalle.battleship.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.designpatterns.strategy.HuntTargetShootingStrategy;
+import edu.univalle.battleship.designpatterns.strategy.RandomShootingStrategy;
+import org.junit.jupiter.api.Test;
+
+class AutoMatchTest {
+
+    @Test
+    void playsToTheEndAtUnlimitedSpeed(){
+        MachinePlayer first = new MachinePlayer(new HuntTargetShootingStrategy());
+        MachinePlayer second = new MachinePlayer(new RandomShootingStrategy());
+        first.placeFleetAutomatically();
+        second.placeFleetAutomatically();
+
+        AutoMatch match = new AutoMatch(first, second);
+        match.setSpeed(AutoMatch.UNLIMITED);
+        match.run();
+
+        AutoMatch.Frame frame = match.latest();
+        assertTrue(frame.isOver());
+        MachinePlayer loser = frame.getWinner() == 0 ? second : first;
+        assertTrue(loser.isDefeated());
+        assertTrue(frame.getMoves() > 0);
+    }
+}
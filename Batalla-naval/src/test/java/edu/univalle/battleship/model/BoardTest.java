@@ -6,6 +6,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import edu.univalle.battleship.model.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 class BoardTest {
 
     @Test
@@ -80,6 +83,32 @@ class BoardTest {
         assertEquals(ship,board.getShipAt(5,4));
     }
 
+    @Test
+    void snapshotIsIsolatedFromLiveBoard(){
+        Board board = new Board();
+        Ship ship = new Ship("Plane",2);
+        ship.place(5,4,VERTICAL);
+        board.placeShip(ship);
+        BoardSnapshot snapshot = board.snapshot();
+        board.receiveShot(5,4);
+        board.receiveShot(0,0);
+        assertEquals(Board.CellStatus.SHIP, snapshot.getCellStatus(5,4));
+        assertEquals(Board.CellStatus.EMPTY, snapshot.getCellStatus(0,0));
+        assertFalse(snapshot.getShips().get(0).getHitsArray()[0]);
+    }
 
-
-}
\ No newline at end of file
+    @Test
+    void notifiesChangedCells(){
+        Board board = new Board();
+        Ship ship = new Ship("Plane",2);
+        ship.place(5,4,VERTICAL);
+        board.placeShip(ship);
+        List<Board.CellStatus> changes = new ArrayList<>();
+        board.addCellListener((row, col, oldStatus, newStatus) -> changes.add(newStatus));
+        board.receiveShot(5,4);
+        board.receiveShot(6,4);
+        board.receiveShot(6,4);
+        assertEquals(List.of(Board.CellStatus.HIT, Board.CellStatus.HIT,
+                Board.CellStatus.SUNK, Board.CellStatus.SUNK), changes);
+    }
+}
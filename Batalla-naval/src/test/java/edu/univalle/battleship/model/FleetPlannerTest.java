@@ -0,0 +1,66 @@
+package edu.univalle.battleship.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.designpatterns.strategy.HuntTargetShootingStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class FleetPlannerTest {
+
+    private List<Ship> fleet() {
+        List<Ship> fleet = new ArrayList<>();
+        fleet.add(new Ship("Carrier", 4));
+        fleet.add(new Ship("Submarine", 3));
+        fleet.add(new Ship("Destroyer", 2));
+        fleet.add(new Ship("Patrol", 1));
+        return fleet;
+    }
+
+    @Test
+    void randomLayoutsNeverOverlap(){
+        FleetPlanner planner = new FleetPlanner(fleet());
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            Board board = new Board();
+            for (ShipSnapshot ship : planner.randomLayout(random)) {
+                Ship placed = ship.toShip();
+                assertTrue(board.canPlace(placed, ship.getRow(), ship.getColumn(), ship.getOrientation()));
+                board.placeShip(placed);
+            }
+        }
+    }
+
+    @Test
+    void findsALayoutWithinTheBudget() throws Exception {
+        FleetPlanner planner = new FleetPlanner(fleet());
+        FleetPlanner.Result result = planner
+                .plan(FleetPlanner.shotsToSink(HuntTargetShootingStrategy::new, 2), 200)
+                .get();
+
+        assertNotNull(result);
+        assertEquals(4, result.getLayout().size());
+        assertTrue(result.getScore() >= 10); // al menos un disparo por celda de barco
+        assertTrue(planner.getEvaluated() > 0);
+    }
+
+    @Test
+    void concurrentPlannersShareThePool() throws Exception {
+        FleetPlanner.Scorer scorer = FleetPlanner.shotsToSink(HuntTargetShootingStrategy::new, 2);
+        FleetPlanner first = new FleetPlanner(fleet());
+        FleetPlanner second = new FleetPlanner(fleet());
+        CompletableFuture<FleetPlanner.Result> machineSearch = first.plan(scorer, 2000);
+        // Encolado detrás de la búsqueda larga: sus tramos se intercalan con los de la otra
+        FleetPlanner.Result result = second.plan(scorer, 300).get(1500, TimeUnit.MILLISECONDS);
+
+        assertNotNull(result);
+        assertTrue(second.getEvaluated() > 0);
+        assertFalse(first.isCancelled());
+        first.cancel();
+        assertNotNull(machineSearch.get(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,85 @@
+package edu.univalle.battleship.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.replay.ReplayMove;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class GameManagerTest {
+
+    @Test
+    void rejectsIllegalTransitions(){
+        GameManager gm = GameManager.getInstance();
+        gm.resetGame();
+        assertEquals(GamePhase.PLACEMENT, gm.getPhase());
+        assertFalse(gm.transition(GamePhase.PLACEMENT, GamePhase.MACHINE_TURN));
+        assertFalse(gm.transition(GamePhase.HUMAN_TURN, GamePhase.MACHINE_THINKING));
+
+        gm.resumeGame();
+        int stale = gm.getState();
+        assertTrue(gm.transition(GamePhase.HUMAN_TURN, GamePhase.MACHINE_THINKING));
+        assertFalse(gm.transition(stale, GamePhase.MACHINE_THINKING));
+        gm.resetGame();
+    }
+
+    @Test
+    void onlyOneThreadWinsATurn() throws InterruptedException {
+        GameManager gm = GameManager.getInstance();
+        gm.resetGame();
+        gm.resumeGame();
+
+        AtomicInteger wins = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (gm.transition(GamePhase.HUMAN_TURN, GamePhase.MACHINE_THINKING)) wins.incrementAndGet();
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertEquals(1, wins.get());
+        assertEquals(GamePhase.MACHINE_THINKING, gm.getPhase());
+        gm.resetGame();
+    }
+
+    @Test
+    void firesForTheHumanWhenTheShotClockRunsOut() throws InterruptedException {
+        GameManager gm = GameManager.getInstance();
+        gm.resetGame();
+        assertEquals(0, gm.getTurnLimitMs());
+        BlockingQueue<Long> timeouts = new ArrayBlockingQueue<>(4);
+        try {
+            gm.setTurnLimitMs(100);
+            gm.setTurnTimeoutHandler(timeouts::add);
+            gm.resumeGame();
+
+            Long token = timeouts.poll(5, TimeUnit.SECONDS);
+            assertNotNull(token);
+            assertTrue(gm.isTurnClock(token));
+            // Un disparo del humano reinicia el reloj y deja viejo el token
+            gm.recordShot(ReplayMove.HUMAN, 0, 0, "miss");
+            assertFalse(gm.isTurnClock(token));
+
+            assertTrue(gm.transition(GamePhase.HUMAN_TURN, GamePhase.MACHINE_THINKING));
+            timeouts.clear();
+            assertNull(timeouts.poll(300, TimeUnit.MILLISECONDS));
+        } finally {
+            gm.setTurnTimeoutHandler(null);
+            gm.setTurnLimitMs(0);
+            gm.resetGame();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package edu.univalle.battleship.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class HashedWheelTimerTest {
+
+    @Test
+    void runsScheduledTasksAndSkipsCancelledOnes() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 8, "test-timer");
+        try {
+            AtomicInteger cancelledRuns = new AtomicInteger();
+            List<HashedWheelTimer.Timeout> cancelled = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                cancelled.add(timer.schedule(cancelledRuns::incrementAndGet, 500 + i % 50, TimeUnit.MILLISECONDS));
+            }
+            for (HashedWheelTimer.Timeout timeout : cancelled) assertTrue(timeout.cancel());
+
+            // Con 8 buckets, 30 ms da varias vueltas a la rueda
+            CountDownLatch fired = new CountDownLatch(2);
+            long start = System.nanoTime();
+            HashedWheelTimer.Timeout first = timer.schedule(fired::countDown, 30, TimeUnit.MILLISECONDS);
+            timer.schedule(fired::countDown, 1, TimeUnit.MILLISECONDS);
+            assertTrue(fired.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+            assertTrue(first.isExpired());
+            assertFalse(first.cancel());
+
+            Thread.sleep(Math.max(0, 700 - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            assertEquals(0, cancelledRuns.get());
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -3,8 +3,11 @@ package edu.univalle.battleship.model;
 import static edu.univalle.battleship.model.Orientation.VERTICAL;
 import static org.junit.jupiter.api.Assertions.*;
 import edu.univalle.battleship.model.*;
+import edu.univalle.battleship.designpatterns.strategy.ProbabilityShootingStrategy;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 class MachinePlayerTest {
 
     @Test
@@ -18,6 +21,7 @@ class MachinePlayerTest {
     void returnsFleetCorrectly(){
         MachinePlayer machinePlayer = new MachinePlayer();
         assertNotNull(machinePlayer.getFleet());
+        assertFalse(machinePlayer.isDefeated());
 
     }
 
@@ -32,5 +36,16 @@ class MachinePlayerTest {
         assertNotNull(machinePlayer.shoot(player));
     }
 
+    @Test
+    void placesPlannedLayoutAndSurvivesAProbabilityShooter(){
+        FleetPlanner planner = new FleetPlanner(MachinePlayer.standardFleet());
+        MachinePlayer machinePlayer = new MachinePlayer();
+        machinePlayer.placeFleet(planner.randomLayout(new Random(3)));
+        assertEquals(10, machinePlayer.getFleet().size());
+
+        int shots = FleetPlanner.simulate(machinePlayer.snapshot().getFleet(), new ProbabilityShootingStrategy());
+        assertTrue(shots >= 20 && shots <= Board.SIZE * Board.SIZE);
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package edu.univalle.battleship.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ProbabilityMapTest {
+
+    @Test
+    void incrementalUpdatesMatchAFullRecompute(){
+        Board board = new Board();
+        Ship ship = new Ship("Submarine", 3);
+        ship.place(4, 4, Orientation.HORIZONTAL);
+        board.placeShip(ship);
+        Ship patrol = new Ship("Patrol", 1);
+        patrol.place(0, 0, Orientation.VERTICAL);
+        board.placeShip(patrol);
+
+        ProbabilityMap map = new ProbabilityMap(board.snapshot());
+        int[][] shots = {{2, 2}, {4, 5}, {7, 1}, {4, 4}};
+        for (int[] shot : shots) {
+            board.receiveShot(shot[0], shot[1]);
+            map.update(shot[0], shot[1], board.snapshot());
+        }
+
+        float[] incremental = map.normalized();
+        float[] full = new ProbabilityMap(board.snapshot()).normalized();
+        assertArrayEquals(full, incremental, 1e-6f);
+
+        // Las celdas ya disparadas no tienen probabilidad y las vecinas del impacto son las más probables
+        assertEquals(0f, incremental[2 * Board.SIZE + 2]);
+        assertEquals(1f, Math.max(incremental[4 * Board.SIZE + 3], incremental[4 * Board.SIZE + 6]));
+    }
+}
@@ -0,0 +1,38 @@
+package edu.univalle.battleship.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class SharedTendenciesTest {
+
+    @Test
+    void publishesGamesRecordedFromManyThreads() throws Exception {
+        // Un tamaño que ningún otro test usa, porque el modelo es compartido
+        int size = 7;
+        int games = 2000;
+        int[][] cells = new int[size][size];
+        for (int r = 1; r <= 3; r++) cells[r][2] = 1;
+        BoardSnapshot snapshot = new BoardSnapshot(cells, List.of());
+        SharedTendencies shared = SharedTendencies.getInstance();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int g = 0; g < games / 4; g++) shared.recordGame(snapshot, new int[]{0}, 1);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        shared.publish();
+
+        SharedTendencies.Snapshot published = shared.snapshot(size);
+        assertEquals(games, published.getGames());
+        assertEquals((games + 1.0) / (games + 2.0), published.shipPriors()[2 * size + 2], 1e-9);
+        assertEquals(1.0, published.firstShotRates()[0], 1e-9);
+        assertEquals(0.0, published.firstShotRates()[1], 1e-9);
+    }
+}
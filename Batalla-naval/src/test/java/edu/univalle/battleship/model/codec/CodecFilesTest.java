@@ -0,0 +1,117 @@
+package edu.univalle.battleship.model.codec;
+
+import static edu.univalle.battleship.model.Orientation.HORIZONTAL;
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.*;
+import edu.univalle.battleship.model.planeTextFiles.PlaneTextFileHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class CodecFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsCommasInsideLines() throws Exception {
+        PlaneTextFileHandler handler = new PlaneTextFileHandler();
+        String file = dir.resolve("data.csv").toString();
+        handler.write(file, "a,b\nc\n");
+        assertArrayEquals(new String[]{"a,b", "c"}, handler.read(file));
+    }
+
+    @Test
+    void streamsAndAppendsLines() throws Exception {
+        PlaneTextFileHandler handler = new PlaneTextFileHandler(Compression.GZIP);
+        String file = dir.resolve("log.txt.gz").toString();
+        try (var writer = handler.openAppender(file)) {
+            writer.write("first,1\r\n");
+        }
+        try (var writer = handler.openAppender(file)) {
+            writer.write("second\n");
+        }
+
+        StringBuilder seen = new StringBuilder();
+        long count = handler.forEachLine(file, line -> seen.append(line).append('|'));
+        assertEquals(2, count);
+        assertEquals("first,1|second|", seen.toString());
+        try (var lines = handler.lines(file)) {
+            assertEquals(2, lines.count());
+        }
+    }
+
+    @Test
+    void roundTripsCompactBinaryWithGzip() throws Exception {
+        Player human = new Player();
+        Ship ship = new Ship("Destroyer", 2);
+        ship.place(1, 2, HORIZONTAL);
+        human.addShip(ship);
+        human.getBoard().placeShip(ship);
+        human.getBoard().receiveShot(1, 2);
+
+        GameStateHandler.GameState state = new GameStateHandler.GameState(human.snapshot(), new Player().snapshot());
+        ICodec<GameStateHandler.GameState> codec =
+                CodecRegistry.getInstance().get(CompactBinaryCodec.NAME, GameStateHandler.GameState.class);
+        Path file = dir.resolve("save.bin");
+        CodecFiles.write(file, codec, Compression.GZIP, state);
+
+        Player restored = CodecFiles.read(file, codec, Compression.GZIP).getPlayerState().toPlayer();
+        assertEquals(Board.CellStatus.HIT, restored.getBoard().getCellStatus(1, 2));
+        assertTrue(restored.getFleet().get(0).getHitsArray()[0]);
+        assertFalse(restored.getFleet().get(0).isSunk());
+    }
+
+    @Test
+    void reportsShipOffTheBoardAsCorrupt() throws Exception {
+        Player human = new Player();
+        Ship ship = new Ship("Destroyer", 2);
+        ship.place(1, 2, HORIZONTAL);
+        human.addShip(ship);
+        human.getBoard().placeShip(ship);
+
+        GameStateHandler.GameState state = new GameStateHandler.GameState(human.snapshot(), new Player().snapshot());
+        ICodec<GameStateHandler.GameState> codec =
+                CodecRegistry.getInstance().get(CompactBinaryCodec.NAME, GameStateHandler.GameState.class);
+        Path file = dir.resolve("broken.bin");
+        CodecFiles.write(file, codec, Compression.NONE, state);
+        // Mueve la columna del barco a la última, así se sale del tablero
+        byte[] bytes = Files.readAllBytes(file);
+        int column = 3 + 1 + 1 + Board.SIZE * Board.SIZE + 1 + 2 + "Destroyer".length() + 2;
+        assertEquals(2, bytes[column]);
+        bytes[column] = (byte) (Board.SIZE - 1);
+        Files.write(file, bytes);
+
+        CodecException e = assertThrows(CodecException.class, () -> CodecFiles.read(file, codec, Compression.NONE));
+        assertEquals(CodecException.Kind.CORRUPT, e.getKind());
+    }
+
+    @Test
+    void reportsMissingFileAsNotFound() {
+        CodecException e = assertThrows(CodecException.class,
+                () -> new PlaneTextFileHandler().read(dir.resolve("missing.txt").toString()));
+        assertEquals(CodecException.Kind.NOT_FOUND, e.getKind());
+    }
+
+    @Test
+    void roundTripsLearnedHumanTendencies() throws Exception {
+        Player human = new Player();
+        Ship ship = new Ship("Destroyer", 2);
+        ship.place(3, 4, HORIZONTAL);
+        human.getBoard().placeShip(ship);
+
+        HumanTendencies tendencies = new HumanTendencies(Board.SIZE);
+        tendencies.recordGame(human.snapshot().getBoard(), new int[]{0, 200, 34}, 3);
+        ICodec<HumanTendencies> codec = CodecRegistry.getInstance().get(HumanTendenciesCodec.NAME, HumanTendencies.class);
+        Path file = dir.resolve("tendencies.dat");
+        CodecFiles.write(file, codec, Compression.NONE, tendencies);
+
+        HumanTendencies restored = CodecFiles.read(file, codec, Compression.NONE);
+        assertEquals(1, restored.getGames());
+        assertArrayEquals(tendencies.getShipCounts(), restored.getShipCounts());
+        assertArrayEquals(tendencies.getFirstShotCounts(), restored.getFirstShotCounts());
+        assertTrue(restored.shipPriors()[3 * Board.SIZE + 4] > restored.shipPriors()[0]);
+    }
+}
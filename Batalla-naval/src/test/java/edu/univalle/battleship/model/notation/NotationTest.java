@@ -0,0 +1,60 @@
+package edu.univalle.battleship.model.notation;
+
+import static edu.univalle.battleship.model.Orientation.HORIZONTAL;
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.*;
+import edu.univalle.battleship.model.planeTextFiles.PlaneTextFileHandler;
+import edu.univalle.battleship.model.replay.ReplayMove;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class NotationTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsGamesThroughArchive() throws Exception {
+        PlaneTextFileHandler handler = new PlaneTextFileHandler();
+        String file = dir.resolve("games.bsn").toString();
+
+        for (int game = 0; game < 2; game++) {
+            Player human = new Player();
+            Player machine = new Player();
+            Ship carrier = new Ship("Carrier", 2);
+            carrier.place(9, 8, HORIZONTAL);
+            human.addShip(carrier);
+            human.getBoard().placeShip(carrier);
+            Ship patrol = new Ship("Patrol 1", 1);
+            patrol.place(0, 0, HORIZONTAL);
+            machine.addShip(patrol);
+            machine.getBoard().placeShip(patrol);
+
+            try (BufferedWriter out = handler.openAppender(file)) {
+                NotationWriter writer = new NotationWriter(out);
+                writer.beginGame(human.snapshot(), machine.snapshot());
+                writer.move(ReplayMove.HUMAN, 4, 4, ReplayMove.Outcome.MISS);
+                writer.move(ReplayMove.MACHINE, 9, 8, ReplayMove.Outcome.HIT);
+                writer.move(ReplayMove.MACHINE, 9, 9, ReplayMove.Outcome.SUNK);
+                writer.endGame(NotationWriter.MACHINE_WON);
+            }
+        }
+
+        List<Player> humans = new ArrayList<>();
+        long games = new NotationReader(handler).read(file, (human, machine, moves, result) -> {
+            assertEquals(3, moves);
+            assertEquals(NotationWriter.MACHINE_WON, result);
+            assertEquals(Board.CellStatus.MISS, machine.getBoard().getCellStatus(4, 4));
+            humans.add(human);
+        });
+
+        assertEquals(2, games);
+        assertTrue(humans.get(1).getFleet().get(0).isSunk());
+        assertEquals(Board.CellStatus.SUNK, humans.get(1).getBoard().getCellStatus(9, 9));
+    }
+}
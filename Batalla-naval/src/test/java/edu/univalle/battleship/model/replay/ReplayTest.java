@@ -0,0 +1,62 @@
+package edu.univalle.battleship.model.replay;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ReplayTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void seeksToAnyTurnFromNearestKeyframe() throws Exception {
+        MachinePlayer human = new MachinePlayer();
+        MachinePlayer machine = new MachinePlayer();
+        human.placeFleetAutomatically();
+        machine.placeFleetAutomatically();
+
+        Path file = dir.resolve("game.bnr");
+        List<int[][]> humanBoards = new ArrayList<>();
+        List<int[][]> machineBoards = new ArrayList<>();
+        humanBoards.add(human.getBoard().snapshot().getCells());
+        machineBoards.add(machine.getBoard().snapshot().getCells());
+
+        Random random = new Random(7);
+        try (ReplayWriter writer = new ReplayWriter(new BufferedOutputStream(Files.newOutputStream(file)), 5,
+                human.getBoard(), human.getFleet(), machine.getBoard(), machine.getFleet())) {
+            for (int i = 0; i < 60; i++) {
+                int shooter = i % 2;
+                Board target = shooter == ReplayMove.HUMAN ? machine.getBoard() : human.getBoard();
+                int row, col;
+                do {
+                    row = random.nextInt(Board.SIZE);
+                    col = random.nextInt(Board.SIZE);
+                } while (target.isShotRepeated(row, col));
+                writer.record(shooter, row, col, target.receiveShot(row, col));
+                humanBoards.add(human.getBoard().snapshot().getCells());
+                machineBoards.add(machine.getBoard().snapshot().getCells());
+            }
+        }
+
+        try (ReplayReader reader = new ReplayReader(file)) {
+            assertEquals(60, reader.getMoveCount());
+            for (int turn : new int[]{0, 1, 4, 5, 6, 33, 59, 60}) {
+                ReplayFrame frame = reader.seek(turn);
+                assertArrayEquals(humanBoards.get(turn), frame.getHuman().getBoard().getCells(), "turn " + turn);
+                assertArrayEquals(machineBoards.get(turn), frame.getMachine().getBoard().getCells(), "turn " + turn);
+            }
+            int[] count = new int[1];
+            reader.forEachMove(move -> count[0]++);
+            assertEquals(60, count[0]);
+        }
+    }
+}
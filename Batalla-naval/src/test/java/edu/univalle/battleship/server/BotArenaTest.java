@@ -0,0 +1,149 @@
+package edu.univalle.battleship.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.Board;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+class BotArenaTest {
+
+    private BotArena arena;
+
+    @BeforeEach
+    void startArena() throws Exception {
+        arena = new BotArena(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 300);
+        arena.start();
+    }
+
+    @AfterEach
+    void stopArena() {
+        arena.stop();
+    }
+
+    @Test
+    void botPlaysAWholeGameAgainstAStrategy() throws Exception {
+        String created = request("POST", "/games", "{\"opponent\":\"hunt\"}");
+        int id = Json.intField(created, "id", -1);
+        String token = Json.stringField(created, "token", null);
+        assertTrue(id > 0);
+        assertEquals("{\"ok\":true}", request("POST", "/games/" + id + "/fleet", seat(0, token) + "}"));
+
+        int winner = -1;
+        for (int cell = 0; cell < Board.SIZE * Board.SIZE && winner < 0; cell++) {
+            String shot = request("POST", "/games/" + id + "/shots",
+                    seat(0, token) + ",\"row\":" + cell / Board.SIZE + ",\"col\":" + cell % Board.SIZE + "}");
+            winner = Json.intField(shot, "winner", -1);
+        }
+        assertTrue(winner == 0 || winner == 1);
+        assertEquals(winner, Json.intField(
+                request("GET", "/games/" + id + "?seat=0&token=" + token, null), "winner", -1));
+    }
+
+    @Test
+    void botThatMissesItsDeadlineLoses() throws Exception {
+        String created = request("POST", "/games", "{\"opponent\":\"bot\"}");
+        int id = Json.intField(created, "id", -1);
+        String joined = request("POST", "/games/" + id + "/join", "");
+        assertEquals(1, Json.intField(joined, "seat", -1));
+        String first = Json.stringField(created, "token", null);
+        String second = Json.stringField(joined, "token", null);
+        request("POST", "/games/" + id + "/fleet", seat(0, first) + "}");
+        request("POST", "/games/" + id + "/fleet", seat(1, second) + "}");
+
+        Thread.sleep(400);
+        assertEquals(1, Json.intField(
+                request("GET", "/games/" + id + "?seat=1&token=" + second, null), "winner", -1));
+    }
+
+    @Test
+    void rejectsRequestsWithoutTheSeatToken() throws Exception {
+        String created = request("POST", "/games", "{\"opponent\":\"bot\"}");
+        int id = Json.intField(created, "id", -1);
+        String first = Json.stringField(created, "token", null);
+        String second = Json.stringField(request("POST", "/games/" + id + "/join", ""), "token", null);
+        assertNotEquals(first, second);
+
+        assertEquals(403, status("POST", "/games/" + id + "/fleet", "{\"seat\":1}"));
+        assertEquals(403, status("POST", "/games/" + id + "/fleet", seat(1, first) + "}"));
+        assertEquals(403, status("POST", "/games/" + id + "/shots", seat(0, second) + ",\"row\":0,\"col\":0}"));
+        assertEquals(403, status("GET", "/games/" + id + "?seat=0", null));
+        assertEquals(200, status("POST", "/games/" + id + "/fleet", seat(1, second) + "}"));
+    }
+
+    @Test
+    void answersAFailingHandlerWithA500() throws Exception {
+        arena.stop();
+        arena = new BotArena(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 300,
+                Map.of("broken", () -> {
+                    throw new IllegalStateException("broken strategy");
+                }));
+        arena.start();
+
+        HttpURLConnection connection = open("POST", "/games", "{\"opponent\":\"broken\"}");
+        assertEquals(500, connection.getResponseCode());
+        try (InputStream in = connection.getErrorStream()) {
+            assertEquals("{\"error\":\"Internal error\"}", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void escapesTextEchoedInErrors() throws Exception {
+        HttpURLConnection connection = open("POST", "/games", "{\"opponent\":\"a\\\"}");
+        assertEquals(400, connection.getResponseCode());
+        try (InputStream in = connection.getErrorStream()) {
+            assertEquals("{\"error\":\"Unknown opponent a\\\\\"}", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void rejectsUnknownOpponentsAndFleetsThatDoNotFit() throws Exception {
+        assertEquals(400, status("POST", "/games", "{\"opponent\":\"oracle\"}"));
+        String created = request("POST", "/games", "{}");
+        int id = Json.intField(created, "id", -1);
+        assertEquals(409, status("POST", "/games/" + id + "/fleet",
+                seat(0, Json.stringField(created, "token", null)) + ",\"ships\":[[0,0,0]]}"));
+        assertEquals(404, status("GET", "/games/999999", null));
+    }
+
+    /** Opens a JSON body with the seat and its token, to be completed by the caller. */
+    private static String seat(int seat, String token) {
+        return "{\"seat\":" + seat + ",\"token\":\"" + token + "\"";
+    }
+
+    private String request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = open(method, path, body);
+        assertTrue(connection.getResponseCode() < 300, "HTTP " + connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private int status(String method, String path, String body) throws IOException {
+        return open(method, path, body).getResponseCode();
+    }
+
+    private HttpURLConnection open(String method, String path, String body) throws IOException {
+        InetSocketAddress address = arena.getAddress();
+        URL url = new URL("http://" + address.getHostString() + ":" + address.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,109 @@
+package edu.univalle.battleship.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class GameServerTest {
+
+    private GameServer server;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        clients = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void stopServer() {
+        clients.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    void simulatedClientsFinishGamesAgainstTheMachine() throws Exception {
+        List<Future<Boolean>> games = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            long seed = i;
+            games.add(clients.submit(() -> {
+                try (GameClient client = new GameClient(server.getAddress(), seed)) {
+                    client.playGame(Protocol.OPPONENT_MACHINE);
+                    return client.playGame(Protocol.OPPONENT_MACHINE);
+                }
+            }));
+        }
+        for (Future<Boolean> game : games) assertNotNull(game.get(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void pairsHumansAndDeclaresOneWinner() throws Exception {
+        List<Future<Boolean>> games = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            long seed = i;
+            games.add(clients.submit(() -> {
+                try (GameClient client = new GameClient(server.getAddress(), seed)) {
+                    return client.playGame(Protocol.OPPONENT_HUMAN);
+                }
+            }));
+        }
+        int winners = 0;
+        for (Future<Boolean> game : games) {
+            if (game.get(30, TimeUnit.SECONDS)) winners++;
+        }
+        assertEquals(10, winners);
+    }
+
+    @Test
+    void rejectsShotsOutsideAGame() throws Exception {
+        try (GameClient client = new GameClient(server.getAddress(), 0)) {
+            client.send(Protocol.SHOOT, 0, 0);
+            assertEquals(Protocol.ERROR, client.receive());
+            assertEquals(Protocol.ERROR_WRONG_STATE, client.field(0));
+        }
+    }
+
+    @Test
+    void opponentWinsWhenAPlayerLeaves() throws Exception {
+        try (GameClient first = new GameClient(server.getAddress(), 0)) {
+            first.send(Protocol.JOIN, Protocol.OPPONENT_HUMAN);
+            assertEquals(Protocol.WAITING, first.receive());
+            try (GameClient second = new GameClient(server.getAddress(), 1)) {
+                second.send(Protocol.JOIN, Protocol.OPPONENT_HUMAN);
+                assertEquals(Protocol.MATCHED, second.receive());
+            }
+            assertEquals(Protocol.MATCHED, first.receive());
+            assertEquals(Protocol.OVER, first.receive());
+            assertEquals(1, first.field(0));
+        }
+    }
+
+    @Test
+    void playerWhoRunsOutOfTimeLoses() throws Exception {
+        GameServer timed = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 100);
+        timed.start();
+        try (GameClient client = new GameClient(timed.getAddress(), 0)) {
+            client.send(Protocol.JOIN, Protocol.OPPONENT_MACHINE);
+            assertEquals(Protocol.MATCHED, client.receive());
+            client.send(Protocol.PLACE, 0);
+            assertEquals(Protocol.START, client.receive());
+            assertEquals(1, client.field(0));
+            // No dispara: el reloj del turno vence
+            assertEquals(Protocol.OVER, client.receive());
+            assertEquals(0, client.field(0));
+        } finally {
+            timed.stop();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package edu.univalle.battleship.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class LoadGeneratorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void measuresGamesAgainstAnEmbeddedServer() throws Exception {
+        Path file = dir.resolve("tcp.txt");
+        LoadGenerator.Report report = LoadGenerator.run(LoadGenerator.Config.parse(new String[]{
+                "--mode", "tcp", "--embedded", "--players", "4", "--games", "3", "--report", file.toString()}));
+
+        assertEquals(12, report.getGames());
+        assertEquals(0, report.getErrors());
+        LatencyHistogram latencies = report.getLatencies();
+        assertTrue(latencies.getCount() >= 12 * 20);
+        assertTrue(latencies.percentile(0.5) <= latencies.percentile(0.99));
+        assertTrue(latencies.percentile(0.99) <= latencies.percentile(0.999));
+        assertTrue(Files.readString(file).contains("latency_p999_us="));
+    }
+
+    @Test
+    void measuresGamesAgainstAnEmbeddedArena() throws Exception {
+        LoadGenerator.Report report = LoadGenerator.run(LoadGenerator.Config.parse(new String[]{
+                "--mode", "http", "--embedded", "--players", "2", "--games", "1", "--opponent", "random",
+                "--report", dir.resolve("http.txt").toString()}));
+
+        assertEquals(2, report.getGames());
+        assertEquals(0.0, report.getErrorRate());
+    }
+
+    @Test
+    void histogramPercentilesStayWithinTheirBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) histogram.record(i * 1000L);
+        assertEquals(500_000, histogram.percentile(0.5), 500_000 * 0.04);
+        assertEquals(990_000, histogram.percentile(0.99), 990_000 * 0.04);
+        assertEquals(1_000_000, histogram.getMax());
+    }
+}
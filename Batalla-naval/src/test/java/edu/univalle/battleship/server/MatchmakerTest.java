@@ -0,0 +1,81 @@
+package edu.univalle.battleship.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MatchmakerTest {
+
+    @Test
+    void pairsPlayersOfTheSameBucketInOnePass() {
+        Random random = new Random(1);
+        int players = 20_000;
+        List<int[]> pairs = new ArrayList<>();
+        // El jugador es su propio rating
+        Matchmaker<Integer> rated = new Matchmaker<>(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < players; i++) {
+            int rating = random.nextInt(Matchmaker.MAX_RATING);
+            rated.enqueue(rating, rating);
+        }
+        int made = rated.pair(System.nanoTime(), (a, b) -> pairs.add(new int[]{a, b}));
+
+        assertEquals(pairs.size(), made);
+        for (int[] pair : pairs) assertEquals(pair[0] / Matchmaker.BUCKET_WIDTH, pair[1] / Matchmaker.BUCKET_WIDTH);
+        assertTrue(rated.getWaiting() <= Matchmaker.MAX_RATING / Matchmaker.BUCKET_WIDTH + 1);
+        assertEquals(players, 2 * made + rated.getWaiting());
+    }
+
+    @Test
+    void widensTheRatingGapWithTimeWaited() {
+        long widen = TimeUnit.SECONDS.toNanos(1);
+        Matchmaker<String> matchmaker = new Matchmaker<>(widen);
+        matchmaker.enqueue("low", 1000);
+        matchmaker.enqueue("high", 1300);
+        long base = System.nanoTime();
+
+        assertEquals(0, matchmaker.pair(base, (a, b) -> fail("Paired too early")));
+        assertEquals(0, matchmaker.pair(base + widen * 5 / 2, (a, b) -> fail("Paired too early")));
+        List<String> paired = new ArrayList<>();
+        assertEquals(1, matchmaker.pair(base + widen * 7 / 2, (a, b) -> {
+            paired.add(a);
+            paired.add(b);
+        }));
+        assertEquals(List.of("low", "high"), paired);
+        assertEquals(0, matchmaker.getWaiting());
+    }
+
+    @Test
+    void neverPairsPlayersWhoLeft() throws Exception {
+        Matchmaker<Integer> matchmaker = new Matchmaker<>(TimeUnit.SECONDS.toNanos(10));
+        AtomicInteger paired = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    Matchmaker.Ticket<Integer> ticket = matchmaker.enqueue(-1, 1500);
+                    if (i % 3 == 0 && ticket.cancel()) cancelled.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        boolean running = true;
+        while (running) {
+            running = threads.stream().anyMatch(Thread::isAlive);
+            matchmaker.pair(System.nanoTime(), (a, b) -> {
+                assertEquals(-1, a);
+                paired.addAndGet(2);
+            });
+        }
+        matchmaker.pair(System.nanoTime(), (a, b) -> paired.addAndGet(2));
+
+        assertEquals(20_000, paired.get() + cancelled.get() + matchmaker.getWaiting());
+        assertTrue(matchmaker.getWaiting() <= 1);
+    }
+}
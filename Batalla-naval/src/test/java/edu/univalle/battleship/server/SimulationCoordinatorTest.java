@@ -0,0 +1,55 @@
+package edu.univalle.battleship.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class SimulationCoordinatorTest {
+
+    @Test
+    void histogramsSurviveTheWire() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v < 1_000_000; v *= 3) histogram.record(v);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo(new DataOutputStream(bytes));
+        LatencyHistogram copy = LatencyHistogram.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(histogram.getCount(), copy.getCount());
+        assertEquals(histogram.getMax(), copy.getMax());
+        assertEquals(histogram.percentile(0.5), copy.percentile(0.5));
+    }
+
+    @Test
+    void workerJvmsShareTheSeedsAndSurviveACrash() throws Exception {
+        List<Process> workers = new ArrayList<>();
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2000)) {
+            InetSocketAddress address = coordinator.getAddress();
+            workers.add(SimulationCoordinator.startLocalWorker(address));
+            workers.add(SimulationCoordinator.startLocalWorker(address));
+            // Este muere a mitad de su rango
+            workers.add(SimulationCoordinator.startLocalWorker(address, "--crash-after", "100"));
+
+            SimulationCoordinator.Result result = coordinator.run(
+                    new SimulationCoordinator.Job("hunt", "random", 0, 2000), 120, TimeUnit.SECONDS);
+
+            assertEquals(2000, result.getGames());
+            assertEquals(2000, result.getFirstWins() + result.getSecondWins());
+            assertTrue(result.getFirstWins() > result.getSecondWins());
+            assertTrue(result.getSteals() > 0);
+            assertTrue(result.getReissued() > 0);
+            assertTrue(result.getMoves().getMean() > 0);
+        } finally {
+            for (Process worker : workers) worker.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package edu.univalle.battleship.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+class SpectatorTest {
+
+    @Test
+    void slowReaderFindsItsMovesOverwrittenAndAFreshKeyframe() {
+        MoveFeed feed = new MoveFeed(1);
+        Match match = new Match();
+        int moves = MoveFeed.CAPACITY * 3 + 5;
+        for (int i = 0; i < moves; i++) feed.publishShot(match, i % 2, i % 10, i / 10 % 10, Protocol.OUTCOME_MISS);
+
+        assertEquals(moves, feed.published());
+        assertTrue(feed.isOverwritten(0));
+        assertFalse(feed.isOverwritten(moves - 1));
+        long last = feed.get(moves - 1);
+        assertEquals(MoveFeed.KIND_SHOT, MoveFeed.kindOf(last));
+        assertEquals((moves - 1) % 10, MoveFeed.rowOf(last));
+        assertEquals((moves - 1) / 10 % 10, MoveFeed.colOf(last));
+
+        MoveFeed.Keyframe keyframe = feed.keyframe();
+        assertTrue(moves - keyframe.sequence() < MoveFeed.KEYFRAME_INTERVAL);
+        assertFalse(feed.isOverwritten(keyframe.sequence()));
+    }
+
+    @Test
+    void manySpectatorsSeeEveryMoveOfAGame() throws Exception {
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        List<GameClient> spectators = new ArrayList<>();
+        try (GameClient player = new GameClient(server.getAddress(), 0)) {
+            player.send(Protocol.JOIN, Protocol.OPPONENT_MACHINE);
+            assertEquals(Protocol.MATCHED, player.receive());
+            int size = player.field(0);
+            int hi = player.field(1);
+            int lo = player.field(2);
+
+            for (int i = 0; i < 1000; i++) {
+                GameClient spectator = new GameClient(server.getAddress(), i);
+                spectators.add(spectator);
+                spectator.send(Protocol.WATCH, hi, lo);
+            }
+            // Todos deben estar mirando antes del primer disparo
+            for (GameClient spectator : spectators) {
+                assertEquals(Protocol.KEYFRAME, spectator.receive());
+                assertEquals(size, spectator.field(0));
+                assertEquals(Protocol.CELL_UNKNOWN, spectator.field(2 * size * size));
+            }
+            assertEquals(1000, server.getSpectatorCount());
+
+            player.send(Protocol.PLACE, 0);
+            assertEquals(Protocol.START, player.receive());
+            int results = 0;
+            int cell = 0;
+            boolean myTurn = player.field(0) == 1;
+            while (true) {
+                if (myTurn) {
+                    player.send(Protocol.SHOOT, cell / size, cell % size);
+                    cell++;
+                    myTurn = false;
+                }
+                int type = player.receive();
+                if (type == Protocol.OVER) break;
+                assertEquals(Protocol.RESULT, type);
+                results++;
+                myTurn = player.field(4) == 1;
+            }
+            int winner = player.field(0) == 1 ? 0 : 1;
+
+            for (GameClient spectator : spectators) {
+                int moves = 0;
+                int type;
+                while ((type = spectator.receive()) == Protocol.MOVE) moves++;
+                assertEquals(Protocol.ENDED, type);
+                assertEquals(winner, spectator.field(0));
+                assertEquals(results, moves);
+            }
+        } finally {
+            for (GameClient spectator : spectators) spectator.close();
+            server.stop();
+        }
+    }
+
+    @Test
+    void watchingAnUnknownGameIsAnError() throws Exception {
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        try (GameClient client = new GameClient(server.getAddress(), 0)) {
+            client.send(Protocol.WATCH, 0xFF, 0xFE);
+            assertEquals(Protocol.ERROR, client.receive());
+            assertEquals(Protocol.ERROR_NO_SUCH_GAME, client.field(0));
+        } finally {
+            server.stop();
+        }
+    }
+}
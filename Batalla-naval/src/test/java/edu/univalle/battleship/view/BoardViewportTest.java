@@ -0,0 +1,67 @@
+package edu.univalle.battleship.view;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BoardViewportTest {
+
+    @Test
+    void mapsCellsToPixelsAndBack() {
+        BoardViewport viewport = new BoardViewport(40);
+        viewport.resize(100, 100);
+        assertEquals(80, viewport.cellX(2));
+        assertArrayEquals(new int[]{1, 2}, viewport.cellAt(85, 45));
+
+        viewport.pan(-50, -30);
+        assertEquals(30, viewport.cellX(2));
+        assertEquals(10, viewport.cellY(1));
+        assertArrayEquals(new int[]{1, 2}, viewport.cellAt(35, 15));
+
+        // No se puede desplazar más allá del tablero
+        viewport.pan(-10_000, 0);
+        assertEquals(100 - 40, viewport.cellX(Board.SIZE - 1));
+        viewport.resize(Board.SIZE * 40 + 100, 100);
+        assertNull(viewport.cellAt(-1, 0));
+        assertNull(viewport.cellAt(Board.SIZE * 40 + 1, 0));
+    }
+
+    @Test
+    void zoomKeepsTheCellUnderTheCursor() {
+        BoardViewport viewport = new BoardViewport(40);
+        viewport.resize(200, 200);
+        int[] before = viewport.cellAt(150, 150);
+        viewport.zoom(1.25, 150, 150);
+
+        assertEquals(50, viewport.getCellSize());
+        assertArrayEquals(before, viewport.cellAt(150, 150));
+    }
+
+    @Test
+    void repaintsOnlyDirtyVisibleCells() {
+        BoardViewport viewport = new BoardViewport(40);
+        viewport.resize(100, 100);
+        List<int[]> painted = new ArrayList<>();
+        viewport.drain((row, col) -> painted.add(new int[]{row, col}));
+        // Las celdas visibles, incluida la cortada en el borde
+        assertEquals(9, painted.size());
+        assertFalse(viewport.isFullRepaint());
+
+        painted.clear();
+        viewport.markDirty(1, 1);
+        viewport.markDirty(Board.SIZE - 1, Board.SIZE - 1);
+        viewport.drain((row, col) -> painted.add(new int[]{row, col}));
+        assertEquals(1, painted.size());
+        assertArrayEquals(new int[]{1, 1}, painted.get(0));
+
+        painted.clear();
+        viewport.drain((row, col) -> painted.add(new int[]{row, col}));
+        assertTrue(painted.isEmpty());
+
+        viewport.pan(-40, 0);
+        assertTrue(viewport.isFullRepaint());
+    }
+}
@@ -0,0 +1,38 @@
+package edu.univalle.battleship.view;
+
+import static org.junit.jupiter.api.Assertions.*;
+import edu.univalle.battleship.model.Board;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CanvasBoardViewTest {
+
+    @Test
+    void onlyLargeBoardsSwitchToTheCanvas() {
+        assertFalse(CanvasBoardView.isPreferredFor(Board.SIZE));
+        assertFalse(CanvasBoardView.isPreferredFor(CanvasBoardView.GRID_LIMIT));
+        assertTrue(CanvasBoardView.isPreferredFor(CanvasBoardView.GRID_LIMIT + 1));
+    }
+
+    @Test
+    void largeBoardsPaintOnlyTheViewport() {
+        int size = Board.SIZE;
+        Board.SIZE = 60;
+        try {
+            // La misma comprobación que hacen los controladores al cargar la vista
+            assertTrue(CanvasBoardView.isPreferredFor(Board.SIZE));
+
+            BoardViewport viewport = new BoardViewport(SpriteCache.CELL_SIZE);
+            viewport.resize(800, 800);
+            AtomicInteger painted = new AtomicInteger();
+            viewport.drain((row, col) -> painted.incrementAndGet());
+            assertEquals(21 * 21, painted.get());
+
+            viewport.pan(-10_000, -10_000);
+            assertArrayEquals(new int[]{59, 59}, viewport.cellAt(799, 799));
+        } finally {
+            Board.SIZE = size;
+        }
+    }
+}